@@ -0,0 +1,33 @@
+package edu.common.service;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count listed in the {@code benchmark.threads} system property (default
+ * 1,4,16), writing the results of each run to target/jmh-&lt;threads&gt;-threads.json. The {@code benchmark.args}
+ * system property holds regular JMH command line options, such as a benchmark pattern or
+ * {@code -p objectSize=1024,1048576}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String commandLine = System.getProperty("benchmark.args", "").trim();
+        CommandLineOptions parent = new CommandLineOptions(commandLine.isEmpty() ? args : commandLine.split("\\s+"));
+        for (String threads : System.getProperty("benchmark.threads", "1,4,16").split(",")) {
+            Options options = new OptionsBuilder()
+                    .parent(parent)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-" + threads.trim() + "-threads.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package edu.common.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures {@link MockS3Service} on the local file system, the baseline for {@link S3ServiceBenchmark}.
+ */
+public class MockS3ServiceBenchmark extends StorageServiceBenchmark {
+
+    @Override
+    protected IFileStorageService createService(Path workDirectory) throws Exception {
+        Path bucket = Files.createDirectories(workDirectory.resolve("bucket"));
+        return new MockS3Service(bucket.toString() + "/");
+    }
+}
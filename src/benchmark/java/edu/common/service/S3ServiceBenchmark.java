@@ -0,0 +1,69 @@
+package edu.common.service;
+
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures {@link S3Service}, or {@link S3AsyncClientService} with {@code -p engine=ASYNC_CLIENT}, for each
+ * combination of the transfer settings, whose defaults are those of application.properties. It runs against an in-process {@link EmbeddedS3Server} unless the {@code benchmark.bucket}
+ * system property names a bucket, reached with the {@code benchmark.awsKey}, {@code benchmark.awsSecret},
+ * {@code benchmark.region} and optional {@code benchmark.endpoint} system properties.
+ */
+public class S3ServiceBenchmark extends StorageServiceBenchmark {
+
+    @Param({"5"})
+    public int minPartSize;
+
+    @Param({"16"})
+    public int uploadThreshold;
+
+    @Param({"20"})
+    public int executorThread;
+
+    @Param({"TRANSFER_MANAGER"})
+    public S3ServiceOptions.Engine engine;
+
+    private EmbeddedS3Server server;
+
+    @Override
+    protected IFileStorageService createService(Path workDirectory) throws Exception {
+        S3ServiceOptions options = new S3ServiceOptions();
+        options.setMultipartJanitorEnabled(false);
+        options.setEngine(engine);
+        String bucket = System.getProperty("benchmark.bucket", "");
+        if (bucket.isEmpty()) {
+            server = new EmbeddedS3Server();
+            return S3ServiceFactory.create("benchmark", "key", "secret", "us-east-1", minPartSize, uploadThreshold, 5, 100, executorThread,
+                    server.configure(options));
+        }
+        String endpoint = System.getProperty("benchmark.endpoint", "");
+        if (!endpoint.isEmpty()) {
+            options.setEndpoint(endpoint);
+            options.setPathStyleAccess(true);
+        }
+        return S3ServiceFactory.create(bucket, property("benchmark.awsKey"), property("benchmark.awsSecret"),
+                System.getProperty("benchmark.region", "us-east-1"), minPartSize, uploadThreshold, 5, 100, executorThread, options);
+    }
+
+    @Override
+    protected void shutdownService(IFileStorageService service) {
+        if (service instanceof S3AsyncClientService) {
+            ((S3AsyncClientService) service).shutdown();
+        } else {
+            ((S3Service) service).shutdown();
+        }
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+
+    private static String property(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalStateException("System property " + name + " must be set to benchmark S3Service");
+        }
+        return value;
+    }
+}
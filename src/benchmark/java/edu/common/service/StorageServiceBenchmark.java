@@ -0,0 +1,148 @@
+package edu.common.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Measures put, get, getDate and delete of a {@link IFileStorageService} for a range of object sizes. Each
+ * benchmark thread works on its own key, so running with more threads measures concurrent use of one service.
+ * Subclasses create the service under test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public abstract class StorageServiceBenchmark {
+
+    /**
+     * Size in bytes of the object written and read, from 1KB to 128MB. Larger sizes can be given with -p objectSize,
+     * but services holding whole objects in memory need a heap of the size times the thread count.
+     */
+    @Param({"1024", "1048576", "16777216", "134217728"})
+    public int objectSize;
+
+    protected IFileStorageService service;
+
+    private Path workDirectory;
+    private File content;
+    private int threads;
+
+    /**
+     * Key of the object a single benchmark thread works on.
+     */
+    @State(Scope.Thread)
+    public static class ThreadKey {
+
+        String key;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            key = key(threadParams.getThreadIndex());
+        }
+    }
+
+    /**
+     * Creates the service under test.
+     *
+     * @param workDirectory {@link Path} of a scratch directory removed once the trial ends
+     * @return the {@link IFileStorageService} to measure
+     * @throws Exception when the service cannot be created
+     */
+    protected abstract IFileStorageService createService(Path workDirectory) throws Exception;
+
+    /**
+     * Releases the service under test.
+     *
+     * @param service {@link IFileStorageService} created by {@link #createService(Path)}
+     */
+    protected void shutdownService(IFileStorageService service) {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws Exception {
+        workDirectory = Files.createTempDirectory("storage-benchmark");
+        content = workDirectory.resolve("content").toFile();
+        try (RandomAccessFile file = new RandomAccessFile(content, "rw")) {
+            // random content so neither the disk nor the network can compress it away
+            byte[] chunk = new byte[(int) Math.min(objectSize, 1024 * 1024)];
+            ThreadLocalRandom.current().nextBytes(chunk);
+            for (long written = 0; written < objectSize; written += chunk.length) {
+                file.write(chunk, 0, (int) Math.min(chunk.length, objectSize - written));
+            }
+        }
+        service = createService(workDirectory);
+        threads = params.getThreads();
+        for (int i = 0; i < threads; i++) {
+            service.put(key(i), content);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (int i = 0; i < threads; i++) {
+            service.delete(key(i));
+        }
+        shutdownService(service);
+        FileUtils.deleteDirectory(workDirectory.toFile());
+    }
+
+    private static String key(int threadIndex) {
+        return "benchmark/object-" + threadIndex;
+    }
+
+    @Benchmark
+    public void put(ThreadKey threadKey) {
+        service.put(threadKey.key, content);
+    }
+
+    /**
+     * Streams the object into a sink, so large objects are measured without holding them in memory.
+     */
+    @Benchmark
+    public long get(ThreadKey threadKey) throws Exception {
+        try (OutputStream out = new NullOutputStream()) {
+            return service.get(threadKey.key, out);
+        }
+    }
+
+    @Benchmark
+    public Date getDate(ThreadKey threadKey) throws Exception {
+        return service.getDate(threadKey.key);
+    }
+
+    /**
+     * Deletes and stores the object again so every invocation deletes an existing object; the time includes the put.
+     */
+    @Benchmark
+    public void putAndDelete(ThreadKey threadKey) {
+        service.delete(threadKey.key);
+        service.put(threadKey.key, content);
+    }
+}
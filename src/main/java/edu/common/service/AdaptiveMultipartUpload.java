@@ -0,0 +1,136 @@
+package edu.common.service;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.internal.Mimetypes;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * Uploads a file as a multipart upload whose part size and concurrency are chosen for it by a {@link TransferTuner}.
+ * The parts are read straight from the file by a fixed number of workers on the executor, each taking the next part
+ * until none is left, so a transfer never has more parts in flight than its plan allows however large the file is.
+ * The time every part takes is fed back to the tuner for the transfers that follow.
+ */
+class AdaptiveMultipartUpload {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveMultipartUpload.class);
+
+    private final AmazonS3 s3;
+    private final String bucket;
+    private final Executor executor;
+    private final TransferTuner tuner;
+
+    /**
+     * @param s3       {@link AmazonS3} client
+     * @param bucket   {@link String} S3 Bucket to upload to
+     * @param executor {@link Executor} sending the parts
+     * @param tuner    {@link TransferTuner} planning each upload
+     */
+    AdaptiveMultipartUpload(AmazonS3 s3, String bucket, Executor executor, TransferTuner tuner) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.executor = executor;
+        this.tuner = tuner;
+    }
+
+    /**
+     * Stores the file under the key without blocking the caller. A failed upload is aborted once its parts stopped.
+     *
+     * @param key      {@link String} key to store the file under
+     * @param file     {@link File} to upload, its content type guessed from its name
+     * @param progress {@link TransferProgress} fed as parts are sent
+     * @return future completed when the upload is complete, or exceptionally with a
+     * {@link java.util.concurrent.CompletionException} wrapping the failure
+     */
+    CompletableFuture<Void> upload(String key, File file, TransferProgress progress) {
+        long size = file.length();
+        TransferTuner.Plan plan = tuner.plan(size);
+        LOGGER.debug("Uploading {} bytes in {} parts of {} bytes, {} at once, to S3 bucket {} with location {}",
+                size, plan.getPartCount(), plan.getPartSize(), plan.getConcurrency(), keyValue("bucket", bucket), keyValue("location", key));
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(Mimetypes.getInstance().getMimetype(file));
+        return CompletableFuture
+                .supplyAsync(() -> s3.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key, metadata)).getUploadId(), executor)
+                .thenCompose(uploadId -> uploadParts(key, file, size, plan, uploadId, progress)
+                        .whenComplete((done, e) -> {
+                            if (e != null) {
+                                abort(key, uploadId);
+                            }
+                        }));
+    }
+
+    private CompletableFuture<Void> uploadParts(String key, File file, long size, TransferTuner.Plan plan, String uploadId, TransferProgress progress) {
+        PartETag[] eTags = new PartETag[plan.getPartCount()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<Void>> workers = new ArrayList<>(plan.getConcurrency());
+        for (int i = 0; i < plan.getConcurrency() && !failed.get(); i++) {
+            try {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    int part;
+                    while (!failed.get() && (part = next.getAndIncrement()) < eTags.length) {
+                        try {
+                            eTags[part] = uploadPart(key, file, size, plan.getPartSize(), part, uploadId, progress);
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                }, executor));
+            } catch (RuntimeException e) {
+                // rejected by the executor, let the workers already started stop before the upload is aborted
+                failed.set(true);
+                workers.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        // allOf only completes once every worker stopped, so no part is sent after an abort
+        return CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).thenRunAsync(() -> {
+            s3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, Arrays.asList(eTags)));
+            LOGGER.debug("Uploaded {} bytes in {} parts to S3 bucket {} with location {}", size, eTags.length, keyValue("bucket", bucket), keyValue("location", key));
+        }, executor);
+    }
+
+    private PartETag uploadPart(String key, File file, long size, long partSize, int part, String uploadId, TransferProgress progress) {
+        long offset = part * partSize;
+        long length = Math.min(partSize, size - offset);
+        long start = System.nanoTime();
+        PartETag eTag = s3.uploadPart(new UploadPartRequest()
+                .withBucketName(bucket)
+                .withKey(key)
+                .withUploadId(uploadId)
+                .withPartNumber(part + 1)
+                .withFile(file)
+                .withFileOffset(offset)
+                .withPartSize(length)).getPartETag();
+        tuner.record(length, System.nanoTime() - start);
+        progress.transferred(length);
+        return eTag;
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            s3.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+        } catch (AmazonClientException e) {
+            LOGGER.error("Failed aborting multipart upload of {}, the janitor will clean it up", keyValue("location", key), e);
+        }
+    }
+}
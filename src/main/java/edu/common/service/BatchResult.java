@@ -0,0 +1,38 @@
+package edu.common.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk operation: the result for every key that succeeded and the failure for every key that did not.
+ *
+ * @param <T> result type
+ */
+public class BatchResult<T> {
+
+    private final Map<String, T> results;
+    private final Map<String, Exception> failures;
+
+    /**
+     * @param results  Map of key to result for the keys that succeeded
+     * @param failures Map of key to failure for the keys that failed
+     */
+    public BatchResult(Map<String, T> results, Map<String, Exception> failures) {
+        this.results = Collections.unmodifiableMap(results);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return Map of key to result for the keys that succeeded
+     */
+    public Map<String, T> getResults() {
+        return results;
+    }
+
+    /**
+     * @return Map of key to failure for the keys that failed
+     */
+    public Map<String, Exception> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,143 @@
+package edu.common.service;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.common.service.S3ServiceOptions.RejectionPolicy;
+
+/**
+ * Fixed size transfer pool whose queue holds at most a given number of tasks. Once the queue is full a submitted
+ * task is handled by the {@link RejectionPolicy}: the submitter waits for room, gets a
+ * {@link RejectedExecutionException}, or runs the task itself. Either way producers slow down or fail instead of
+ * piling up tasks, and the buffers they hold, while S3 is slow.
+ * <p>
+ * A pool worker never waits for room in its own queue, as that could deadlock the pool; under
+ * {@link RejectionPolicy#BLOCK} it runs the task itself instead. Time tasks spend queued and rejections are counted.
+ */
+class BoundedTransferExecutor extends ThreadPoolExecutor {
+
+    private final RejectionPolicy policy;
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder ranByCaller = new LongAdder();
+
+    /**
+     * @param threads       number of worker threads
+     * @param queueCapacity maximum number of tasks waiting for a worker
+     * @param policy        {@link RejectionPolicy} applied once the queue is full
+     * @param namePrefix    {@link String} prefix of the worker thread names
+     */
+    BoundedTransferExecutor(int threads, int queueCapacity, RejectionPolicy policy, String namePrefix) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity), new WorkerFactory(namePrefix));
+        this.policy = policy;
+        setRejectedExecutionHandler((task, executor) -> saturated(task));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new Queued(command));
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable task) {
+        if (task instanceof Queued) {
+            queueWaitNanos.add(System.nanoTime() - ((Queued) task).queuedNanos);
+        }
+    }
+
+    /**
+     * @return total time in milliseconds tasks spent in the queue before a worker picked them up
+     */
+    long getQueueWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(queueWaitNanos.sum());
+    }
+
+    /**
+     * @return number of tasks rejected because the queue was full or the pool shut down
+     */
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return number of tasks run by their submitter because the queue was full
+     */
+    long getCallerRunsCount() {
+        return ranByCaller.sum();
+    }
+
+    private void saturated(Runnable task) {
+        if (isShutdown()) {
+            rejected.increment();
+            throw new RejectedExecutionException("Transfer pool is shut down");
+        }
+        boolean worker = Thread.currentThread() instanceof Worker;
+        if (policy == RejectionPolicy.CALLER_RUNS || policy == RejectionPolicy.BLOCK && worker) {
+            ranByCaller.increment();
+            task.run();
+            return;
+        }
+        if (policy == RejectionPolicy.BLOCK) {
+            try {
+                getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                throw new RejectedExecutionException("Interrupted waiting for room in the transfer pool queue", e);
+            }
+            // shut down while waiting, nothing will take the task from the queue anymore
+            if (isShutdown() && getQueue().remove(task)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Transfer pool is shut down");
+            }
+            return;
+        }
+        rejected.increment();
+        throw new RejectedExecutionException("Transfer pool queue is full with " + getQueue().size() + " tasks");
+    }
+
+    /**
+     * Task stamped with the time it was submitted.
+     */
+    private static final class Queued implements Runnable {
+        private final Runnable task;
+        private final long queuedNanos = System.nanoTime();
+
+        private Queued(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    /**
+     * Thread of the pool, recognised so a worker submitting to a full queue never waits for itself.
+     */
+    private static final class Worker extends Thread {
+        private Worker(Runnable task, String name) {
+            super(task, name);
+        }
+    }
+
+    private static final class WorkerFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadCount = new AtomicInteger(1);
+
+        private WorkerFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            return new Worker(task, namePrefix + threadCount.getAndIncrement());
+        }
+    }
+}
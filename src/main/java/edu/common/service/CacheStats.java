@@ -0,0 +1,76 @@
+package edu.common.service;
+
+/**
+ * Snapshot of the statistics of a cache.
+ */
+public class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long entryCount;
+    private final long size;
+
+    /**
+     * @param hitCount      number of lookups served from the cache
+     * @param missCount     number of lookups that went to the storage
+     * @param evictionCount number of entries removed to stay within the bound or because they expired
+     * @param entryCount    number of entries currently cached
+     * @param size          bytes currently cached
+     */
+    public CacheStats(long hitCount, long missCount, long evictionCount, long entryCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+        this.size = size;
+    }
+
+    /**
+     * @return number of lookups served from the cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of lookups that went to the storage
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return share of the lookups served from the cache, 0 before the first lookup
+     */
+    public double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * @return number of entries removed to stay within the bound or because they expired
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return number of entries currently cached
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return bytes currently cached
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hitCount + " misses=" + missCount + " evictions=" + evictionCount + " entries=" + entryCount + " size=" + size;
+    }
+}
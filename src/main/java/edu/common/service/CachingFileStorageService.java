@@ -0,0 +1,424 @@
+package edu.common.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * Read-through cache of object content in front of another {@link IFileStorageService}. Entries are bounded by
+ * their total size in bytes and evicted least recently used first, expire after a time to live, and can be kept
+ * in direct buffers outside the Java heap so a large cache does not lengthen garbage collection.
+ * <p>
+ * {@link #get(String)} and {@link #getAll(Collection, BiConsumer)} fill the cache; the other reads are served from
+ * it when the object is cached and go to the storage otherwise. Puts and deletes through this service invalidate
+ * the affected keys, changes made to the storage by other clients are only seen once entries expire.
+ */
+public class CachingFileStorageService extends ForwardingFileStorageService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingFileStorageService.class);
+
+    private final long maximumSize;
+    private final long timeToLiveNanos;
+    private final boolean offHeap;
+
+    /**
+     * Entries in access order, guarded by its own monitor.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Reads from the storage in progress by key, guarded by the cache's monitor, so a read that raced with a put or
+     * delete of its key does not cache stale content. Only keys being read have an entry.
+     */
+    private final Map<String, PendingRead> pendingReads = new HashMap<>();
+
+    /**
+     * @param delegate    {@link IFileStorageService} holding the objects
+     * @param maximumSize total size in bytes of the cached content, objects larger than this are not cached
+     * @param timeToLive  {@link Duration} after which an entry is read from the storage again
+     * @param offHeap     whether content is kept in direct buffers outside the Java heap
+     */
+    public CachingFileStorageService(IFileStorageService delegate, long maximumSize, Duration timeToLive, boolean offHeap) {
+        super(delegate);
+        Assert.isTrue(maximumSize > 0, "maximum size must be positive");
+        Assert.isTrue(timeToLive != null && !timeToLive.isNegative() && !timeToLive.isZero(), "time to live must be positive");
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * @return {@link CacheStats} of this cache
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hitCount, missCount, evictionCount, entries.size(), size);
+    }
+
+    /**
+     * Removes the entry of a key, for changes made to the storage without going through this service.
+     *
+     * @param key {@link String} key to forget
+     */
+    public synchronized void invalidate(String key) {
+        PendingRead read = pendingReads.get(key);
+        if (read != null) {
+            read.version++;
+        }
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            size -= entry.size;
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void invalidateAll() {
+        pendingReads.values().forEach(read -> read.version++);
+        entries.clear();
+        size = 0;
+    }
+
+    @Override
+    public void put(String key, File file) {
+        try {
+            super.put(key, file);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] content, String contentType) {
+        try {
+            super.put(key, content, contentType);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void putBuffer(String key, ByteBuffer content, String contentType) {
+        try {
+            super.putBuffer(key, content, contentType);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void putStream(String key, InputStream content, String contentType) throws IOException {
+        try {
+            super.putStream(key, content, contentType);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public Map<String, Exception> putAll(Map<String, File> files) {
+        try {
+            return super.putAll(files);
+        } finally {
+            if (files != null) {
+                files.keySet().forEach(this::invalidate);
+            }
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            super.delete(key);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public Map<String, Exception> deleteAll(Collection<String> keys) {
+        try {
+            return super.deleteAll(keys);
+        } finally {
+            if (keys != null) {
+                keys.forEach(this::invalidate);
+            }
+        }
+    }
+
+    /**
+     * Gets the content by key from the cache, reading it from the storage and caching it on a miss.
+     *
+     * @param key {@link String} key of the object
+     * @return byte[] copy of the content
+     */
+    @Override
+    public byte[] get(String key) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Entry entry = lookup(key);
+        if (entry != null) {
+            return entry.copy();
+        }
+        long version = beginRead(key);
+        try {
+            byte[] content = super.get(key);
+            store(key, content, version);
+            return content;
+        } finally {
+            endRead(key);
+        }
+    }
+
+    @Override
+    public byte[] get(String key, long offset, int length) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.isTrue(offset >= 0, "offset must not be negative");
+        Assert.isTrue(length >= 0, "length must not be negative");
+        Entry entry = lookup(key);
+        if (entry == null) {
+            return super.get(key, offset, length);
+        }
+        int from = (int) Math.min(offset, entry.size);
+        byte[] slice = new byte[Math.min(length, entry.size - from)];
+        entry.read(from, slice);
+        return slice;
+    }
+
+    @Override
+    public InputStream getStream(String key) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Entry entry = lookup(key);
+        return entry == null ? super.getStream(key) : new ByteBufferInputStream(entry.buffer());
+    }
+
+    @Override
+    public ReadableByteChannel getChannel(String key) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Entry entry = lookup(key);
+        return entry == null ? super.getChannel(key) : Channels.newChannel(new ByteBufferInputStream(entry.buffer()));
+    }
+
+    @Override
+    public long get(String key, OutputStream out) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(out, "output stream must be provided");
+        Entry entry = lookup(key);
+        if (entry == null) {
+            return super.get(key, out);
+        }
+        // the channel writes through a small transfer buffer, the content is never copied whole
+        WritableByteChannel channel = Channels.newChannel(out);
+        ByteBuffer buffer = entry.buffer();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return entry.size;
+    }
+
+    @Override
+    public long get(String key, WritableByteChannel out) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(out, "output channel must be provided");
+        Entry entry = lookup(key);
+        if (entry == null) {
+            return super.get(key, out);
+        }
+        ByteBuffer buffer = entry.buffer();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return entry.size;
+    }
+
+    @Override
+    public void download(String key, Path target) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(target, "target must be provided");
+        Entry entry = lookup(key);
+        if (entry == null) {
+            super.download(key, target);
+            return;
+        }
+        try (WritableByteChannel out = Files.newByteChannel(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = entry.buffer();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Hands the cached keys to the consumer and gets the others from the storage, caching them.
+     *
+     * @param keys     {@link Collection} of keys
+     * @param consumer {@link BiConsumer} receiving each key with a copy of its content
+     * @return Map of key to the failure for every key that could not be read
+     */
+    @Override
+    public Map<String, Exception> getAll(Collection<String> keys, BiConsumer<String, byte[]> consumer) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.noNullElements(keys.toArray(), "keys must not contain null");
+        Assert.notNull(consumer, "consumer must be provided");
+        List<String> missing = new ArrayList<>();
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            Entry entry = lookup(key);
+            if (entry == null) {
+                missing.add(key);
+                continue;
+            }
+            try {
+                consumer.accept(key, entry.copy());
+            } catch (RuntimeException e) {
+                failures.put(key, e);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, Long> versions = new HashMap<>();
+            missing.forEach(key -> versions.put(key, beginRead(key)));
+            try {
+                failures.putAll(super.getAll(missing, (key, content) -> {
+                    store(key, content, versions.get(key));
+                    consumer.accept(key, content);
+                }));
+            } finally {
+                missing.forEach(this::endRead);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Registers a read of a key from the storage, to be ended by {@link #endRead(String)}.
+     *
+     * @return version of the key to pass to {@link #store(String, byte[], long)}
+     */
+    private synchronized long beginRead(String key) {
+        PendingRead read = pendingReads.computeIfAbsent(key, k -> new PendingRead());
+        read.readers++;
+        return read.version;
+    }
+
+    private synchronized void endRead(String key) {
+        PendingRead read = pendingReads.get(key);
+        if (--read.readers == 0) {
+            pendingReads.remove(key);
+        }
+    }
+
+    /**
+     * Finds the live entry of a key, counting the hit or miss and dropping the entry if it expired.
+     */
+    private synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.createdNanos >= timeToLiveNanos) {
+            entries.remove(key);
+            size -= entry.size;
+            evictionCount++;
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Caches content read from the storage unless a put or delete of the key happened since the read started, then
+     * evicts the least recently used entries until the cache is within its bound.
+     */
+    private void store(String key, byte[] content, long version) {
+        if (content.length > maximumSize) {
+            return;
+        }
+        // copy before taking the lock, the caller keeps the array it was given
+        Entry entry = new Entry(content, offHeap);
+        synchronized (this) {
+            if (pendingReads.get(key).version != version) {
+                return;
+            }
+            Entry previous = entries.put(key, entry);
+            size += entry.size - (previous == null ? 0 : previous.size);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (size > maximumSize && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                size -= evicted.size;
+                evictionCount++;
+            }
+        }
+        LOGGER.debug("Cached {} bytes of {}", content.length, keyValue("location", key));
+    }
+
+    /**
+     * Reads of one key in progress, the version is incremented by every invalidation of the key.
+     */
+    private static final class PendingRead {
+        private int readers;
+        private long version;
+    }
+
+    /**
+     * Cached content of a single object.
+     */
+    private static final class Entry {
+        private final ByteBuffer content;
+        private final int size;
+        private final long createdNanos = System.nanoTime();
+
+        private Entry(byte[] content, boolean offHeap) {
+            this.size = content.length;
+            this.content = offHeap ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+            this.content.put(content).flip();
+        }
+
+        /**
+         * @return read-only view of the content, independent of other readers
+         */
+        private ByteBuffer buffer() {
+            return content.asReadOnlyBuffer();
+        }
+
+        private byte[] copy() {
+            byte[] copy = new byte[size];
+            read(0, copy);
+            return copy;
+        }
+
+        private void read(int offset, byte[] target) {
+            ByteBuffer buffer = buffer();
+            buffer.position(offset);
+            buffer.get(target);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package edu.common.service;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker over the requests to one bucket. Once a number of requests in a row failed, the circuit opens and
+ * requests are refused without being sent; after the open duration a single trial request is let through, closing
+ * the circuit when it succeeds and opening it again when it fails.
+ */
+class CircuitBreaker {
+
+    /**
+     * State of the circuit, its ordinal is reported as the circuit.state gauge.
+     */
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    /**
+     * Guarded by the breaker's monitor.
+     */
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long trialStartedAt;
+    private long openedCount;
+    private long rejectedCount;
+
+    /**
+     * @param failureThreshold number of failures in a row opening the circuit
+     * @param openDuration     {@link Duration} requests are refused before a trial request
+     */
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Decides whether a request may be sent.
+     *
+     * @return false when the request has to be refused
+     */
+    synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                rejectedCount++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            // a trial that never reported its outcome must not keep the circuit half open forever
+            if (trialInFlight && now - trialStartedAt < openNanos) {
+                rejectedCount++;
+                return false;
+            }
+            trialInFlight = true;
+            trialStartedAt = now;
+        }
+        return true;
+    }
+
+    /**
+     * Records a request S3 answered.
+     *
+     * @return whether the circuit closed
+     */
+    synchronized boolean onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.CLOSED) {
+            return false;
+        }
+        state = State.CLOSED;
+        trialInFlight = false;
+        return true;
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @return whether the circuit opened
+     */
+    synchronized boolean onFailure() {
+        consecutiveFailures++;
+        if (state == State.OPEN || state == State.CLOSED && consecutiveFailures < failureThreshold) {
+            return false;
+        }
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        trialInFlight = false;
+        openedCount++;
+        return true;
+    }
+
+    /**
+     * @return {@link State} of the circuit
+     */
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return number of times the circuit opened
+     */
+    synchronized long getOpenedCount() {
+        return openedCount;
+    }
+
+    /**
+     * @return number of requests refused while the circuit was not closed
+     */
+    synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+}
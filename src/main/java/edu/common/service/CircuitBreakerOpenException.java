@@ -0,0 +1,24 @@
+package edu.common.service;
+
+import com.amazonaws.SdkClientException;
+
+/**
+ * Thrown instead of sending a request to a bucket whose circuit breaker is open, because recent requests to it kept
+ * failing. Requests are let through again after {@link S3ServiceOptions#getCircuitBreakerOpenDuration()}.
+ */
+public class CircuitBreakerOpenException extends SdkClientException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param bucket {@link String} name of the bucket
+     */
+    public CircuitBreakerOpenException(String bucket) {
+        super("Circuit breaker of S3 bucket " + bucket + " is open, try again later");
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
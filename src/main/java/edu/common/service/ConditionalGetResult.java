@@ -0,0 +1,55 @@
+package edu.common.service;
+
+/**
+ * Outcome of a conditional get: the content with its metadata when the object changed, nothing when the copy the
+ * caller already holds is still current.
+ */
+public class ConditionalGetResult {
+
+    private static final ConditionalGetResult NOT_MODIFIED = new ConditionalGetResult(null, null);
+
+    private final byte[] content;
+    private final ObjectInfo info;
+
+    private ConditionalGetResult(byte[] content, ObjectInfo info) {
+        this.content = content;
+        this.info = info;
+    }
+
+    /**
+     * @param content byte[] current content
+     * @param info    {@link ObjectInfo} of the current content, with its ETag
+     * @return result of a get that found a changed object
+     */
+    public static ConditionalGetResult modified(byte[] content, ObjectInfo info) {
+        return new ConditionalGetResult(content, info);
+    }
+
+    /**
+     * @return result of a get that found the caller's copy current
+     */
+    public static ConditionalGetResult notModified() {
+        return NOT_MODIFIED;
+    }
+
+    /**
+     * @return whether the object changed, in which case the content and metadata are returned
+     */
+    public boolean isModified() {
+        return content != null;
+    }
+
+    /**
+     * @return byte[] current content, {@code null} when not modified
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return {@link ObjectInfo} of the current content, {@code null} when not modified
+     */
+    public ObjectInfo getInfo() {
+        return info;
+    }
+}
@@ -0,0 +1,95 @@
+package edu.common.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics.Field;
+import com.amazonaws.util.TimingInfo;
+
+/**
+ * Utilization of the S3 client's HTTP connection pool, sampled from the pool statistics the SDK captures as each
+ * request leases its connection. A request that finds every connection leased, or other requests already waiting,
+ * has to wait for a lease; those are counted, so a pool too small for the threads using it shows up as a growing
+ * http.pool.lease.waits gauge instead of as unexplained latency.
+ */
+class ConnectionPoolMetrics extends RequestMetricCollector {
+
+    private final int maxConnections;
+    private volatile long leased;
+    private volatile long pending;
+    private final LongAdder leaseWaits = new LongAdder();
+
+    /**
+     * @param maxConnections size of the connection pool
+     */
+    ConnectionPoolMetrics(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Registers the http.pool.* gauges.
+     *
+     * @param metrics {@link StorageMetrics} to register with
+     */
+    void registerGauges(StorageMetrics metrics) {
+        metrics.registerGauge("http.pool.max", () -> maxConnections);
+        metrics.registerGauge("http.pool.leased", this::getLeased);
+        metrics.registerGauge("http.pool.pending", this::getPending);
+        metrics.registerGauge("http.pool.utilization.percent", this::getUtilizationPercent);
+        metrics.registerGauge("http.pool.lease.waits", this::getLeaseWaits);
+    }
+
+    @Override
+    public void collectMetrics(Request<?> request, Response<?> response) {
+        TimingInfo timing = request.getAWSRequestMetrics().getTimingInfo();
+        Number leasedCount = timing.getCounter(Field.HttpClientPoolLeasedCount.name());
+        Number pendingCount = timing.getCounter(Field.HttpClientPoolPendingCount.name());
+        if (leasedCount != null && pendingCount != null) {
+            record(leasedCount.longValue(), pendingCount.longValue());
+        }
+    }
+
+    /**
+     * Records the pool statistics seen by a request about to lease a connection.
+     *
+     * @param leasedCount  connections leased by other requests
+     * @param pendingCount requests already waiting for a connection
+     */
+    void record(long leasedCount, long pendingCount) {
+        leased = leasedCount;
+        pending = pendingCount;
+        if (leasedCount >= maxConnections || pendingCount > 0) {
+            leaseWaits.increment();
+        }
+    }
+
+    /**
+     * @return connections leased when the latest request leased its own
+     */
+    long getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return requests waiting for a connection when the latest request leased its own
+     */
+    long getPending() {
+        return pending;
+    }
+
+    /**
+     * @return share of the pool leased when the latest request leased its own, in percent
+     */
+    long getUtilizationPercent() {
+        return Math.min(100, leased * 100 / maxConnections);
+    }
+
+    /**
+     * @return number of requests that had to wait for a connection
+     */
+    long getLeaseWaits() {
+        return leaseWaits.sum();
+    }
+}
@@ -0,0 +1,626 @@
+package edu.common.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * Read-through cache of object content on local disk in front of another {@link IFileStorageService}. Each object
+ * is one file in the cache directory, named after the SHA-256 of its key; the total size is bounded and the least
+ * recently used files are evicted first. Hits are read through memory mapped buffers, or copied to the caller's
+ * stream or channel with {@link FileChannel#transferTo}, so large objects never pass through the heap.
+ * <p>
+ * The directory is the index: a file's modified time is when it was cached and its access time when it was last
+ * read, so a restarted process picks up the cache where the previous one left it. Files are written under a
+ * temporary name and renamed once complete, so a crash never leaves a partial entry. Puts and deletes through this
+ * service invalidate the affected keys, changes made to the storage by other clients are only seen once entries
+ * expire.
+ */
+public class DiskCachingFileStorageService extends ForwardingFileStorageService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskCachingFileStorageService.class);
+
+    private static final String ENTRY_SUFFIX = ".cache";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /**
+     * Minimum time between two access time updates of the same file, so hot entries do not cost a write per read.
+     */
+    private static final long TOUCH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Path directory;
+    private final long maximumSize;
+    private final long timeToLiveMillis;
+
+    /**
+     * Cached files by name in access order, guarded by its own monitor.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Reads, invalidations and deletes in progress by file name, guarded by the cache's monitor. A file is only
+     * moved into place or deleted while holding its slot's monitor, so the cache's monitor is never held during file
+     * I/O and an invalidation never races with a fill of the same key. Only files in use have a slot.
+     */
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    /**
+     * Opens the cache directory, creating it if needed, and loads the entries a previous process left in it.
+     *
+     * @param delegate    {@link IFileStorageService} holding the objects
+     * @param directory   {@link Path} of the directory dedicated to the cache
+     * @param maximumSize total size in bytes of the cached files, objects larger than this are not cached
+     * @param timeToLive  {@link Duration} after which an entry is read from the storage again
+     * @throws IOException when the directory cannot be created or read
+     */
+    public DiskCachingFileStorageService(IFileStorageService delegate, Path directory, long maximumSize, Duration timeToLive) throws IOException {
+        super(delegate);
+        Assert.notNull(directory, "directory must be provided");
+        Assert.isTrue(maximumSize > 0, "maximum size must be positive");
+        Assert.isTrue(timeToLive != null && !timeToLive.isNegative() && !timeToLive.isZero(), "time to live must be positive");
+        this.directory = Files.createDirectories(directory);
+        this.maximumSize = maximumSize;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        load();
+    }
+
+    /**
+     * @return {@link CacheStats} of this cache
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hitCount, missCount, evictionCount, entries.size(), size);
+    }
+
+    /**
+     * Removes the cached file of a key, for changes made to the storage without going through this service.
+     *
+     * @param key {@link String} key to forget
+     */
+    public void invalidate(String key) {
+        String name = fileName(key);
+        Slot slot = acquire(name);
+        try {
+            synchronized (slot) {
+                synchronized (this) {
+                    slot.version++;
+                    Entry entry = entries.remove(name);
+                    if (entry != null) {
+                        size -= entry.size;
+                    }
+                }
+                deleteQuietly(directory.resolve(name));
+            }
+        } finally {
+            release(name);
+        }
+    }
+
+    @Override
+    public void put(String key, File file) {
+        try {
+            super.put(key, file);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] content, String contentType) {
+        try {
+            super.put(key, content, contentType);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void putBuffer(String key, ByteBuffer content, String contentType) {
+        try {
+            super.putBuffer(key, content, contentType);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void putStream(String key, InputStream content, String contentType) throws IOException {
+        try {
+            super.putStream(key, content, contentType);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public Map<String, Exception> putAll(Map<String, File> files) {
+        try {
+            return super.putAll(files);
+        } finally {
+            if (files != null) {
+                files.keySet().forEach(this::invalidate);
+            }
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            super.delete(key);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public Map<String, Exception> deleteAll(Collection<String> keys) {
+        try {
+            return super.deleteAll(keys);
+        } finally {
+            if (keys != null) {
+                keys.forEach(this::invalidate);
+            }
+        }
+    }
+
+    /**
+     * Gets the content by key from the cached file, reading it from the storage and caching it on a miss.
+     *
+     * @param key {@link String} key of the object
+     * @return byte[] content
+     */
+    @Override
+    public byte[] get(String key) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        try (FileChannel channel = openCached(key)) {
+            if (channel != null) {
+                byte[] content = new byte[(int) channel.size()];
+                read(channel, 0, content);
+                return content;
+            }
+        }
+        String name = fileName(key);
+        long version = beginRead(name);
+        try {
+            byte[] content = super.get(key);
+            store(key, content, version);
+            return content;
+        } finally {
+            release(name);
+        }
+    }
+
+    /**
+     * Gets a slice of the cached file, or of the object in the storage when it is not cached; a miss does not
+     * fetch the whole object.
+     */
+    @Override
+    public byte[] get(String key, long offset, int length) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.isTrue(offset >= 0, "offset must not be negative");
+        Assert.isTrue(length >= 0, "length must not be negative");
+        try (FileChannel channel = openCached(key)) {
+            if (channel == null) {
+                return super.get(key, offset, length);
+            }
+            long from = Math.min(offset, channel.size());
+            byte[] slice = new byte[(int) Math.min(length, channel.size() - from)];
+            read(channel, from, slice);
+            return slice;
+        }
+    }
+
+    @Override
+    public InputStream getStream(String key) throws IOException {
+        return Channels.newInputStream(getChannel(key));
+    }
+
+    /**
+     * Opens a channel over the cached file, downloading the object into the cache first on a miss.
+     */
+    @Override
+    public ReadableByteChannel getChannel(String key) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        FileChannel channel = openCached(key);
+        return channel == null ? fill(key) : channel;
+    }
+
+    @Override
+    public long get(String key, OutputStream out) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(out, "output stream must be provided");
+        return get(key, Channels.newChannel(out));
+    }
+
+    /**
+     * Transfers the cached file into the channel, downloading the object into the cache first on a miss.
+     */
+    @Override
+    public long get(String key, WritableByteChannel out) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(out, "output channel must be provided");
+        FileChannel channel = openCached(key);
+        try (FileChannel in = channel == null ? fill(key) : channel) {
+            long length = in.size();
+            long position = 0;
+            while (position < length) {
+                position += in.transferTo(position, length - position, out);
+            }
+            return position;
+        }
+    }
+
+    @Override
+    public void download(String key, Path target) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(target, "target must be provided");
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            get(key, out);
+        }
+    }
+
+    /**
+     * Hands the cached keys to the consumer and gets the others from the storage, caching them.
+     */
+    @Override
+    public Map<String, Exception> getAll(Collection<String> keys, BiConsumer<String, byte[]> consumer) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.noNullElements(keys.toArray(), "keys must not contain null");
+        Assert.notNull(consumer, "consumer must be provided");
+        List<String> missing = new ArrayList<>();
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            try (FileChannel channel = openCached(key)) {
+                if (channel == null) {
+                    missing.add(key);
+                    continue;
+                }
+                byte[] content = new byte[(int) channel.size()];
+                read(channel, 0, content);
+                consumer.accept(key, content);
+            } catch (IOException | RuntimeException e) {
+                failures.put(key, e);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, Long> versions = new HashMap<>();
+            missing.forEach(key -> versions.put(key, beginRead(fileName(key))));
+            try {
+                failures.putAll(super.getAll(missing, (key, content) -> {
+                    store(key, content, versions.get(key));
+                    consumer.accept(key, content);
+                }));
+            } finally {
+                missing.forEach(key -> release(fileName(key)));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Rebuilds the index from the files in the directory, least recently read first, and removes the temporary
+     * files of fills that never completed.
+     */
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMPORARY_SUFFIX)) {
+                    deleteQuietly(file);
+                } else if (name.endsWith(ENTRY_SUFFIX)) {
+                    files.add(file);
+                }
+            }
+        }
+        List<Entry> loaded = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                loaded.add(new Entry(file.getFileName().toString(), attributes.size(), attributes.lastModifiedTime().toMillis(),
+                        attributes.lastAccessTime().toMillis()));
+            } catch (NoSuchFileException e) {
+                // removed while loading
+            }
+        }
+        loaded.sort(Comparator.comparingLong(entry -> entry.accessedMillis));
+        synchronized (this) {
+            for (Entry entry : loaded) {
+                entries.put(entry.name, entry);
+                size += entry.size;
+            }
+        }
+        evict();
+        LOGGER.debug("Loaded {} cached files of {} bytes from {}", loaded.size(), size, directory);
+    }
+
+    /**
+     * Takes the slot of a file, to be returned by {@link #release(String)}.
+     */
+    private synchronized Slot acquire(String name) {
+        Slot slot = slots.computeIfAbsent(name, n -> new Slot());
+        slot.users++;
+        return slot;
+    }
+
+    private synchronized void release(String name) {
+        Slot slot = slots.get(name);
+        if (--slot.users == 0) {
+            slots.remove(name);
+        }
+    }
+
+    /**
+     * Takes the slot of a file for a read from the storage.
+     *
+     * @return version of the file to pass to {@link #commit(String, Path, long)}
+     */
+    private synchronized long beginRead(String name) {
+        return acquire(name).version;
+    }
+
+    /**
+     * Opens the cached file of a key, counting the hit or miss.
+     *
+     * @return {@link FileChannel} of the cached file, {@code null} when the key is not cached or expired
+     */
+    private FileChannel openCached(String key) throws IOException {
+        String name = fileName(key);
+        Entry entry;
+        boolean touch = false;
+        boolean expired = false;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            entry = entries.get(name);
+            if (entry != null && now - entry.createdMillis >= timeToLiveMillis) {
+                entries.remove(name);
+                size -= entry.size;
+                evictionCount++;
+                expired = true;
+                entry = null;
+            }
+            if (entry == null) {
+                missCount++;
+            } else {
+                hitCount++;
+                if (now - entry.accessedMillis >= TOUCH_INTERVAL_MILLIS) {
+                    entry.accessedMillis = now;
+                    touch = true;
+                }
+            }
+        }
+        if (entry == null) {
+            if (expired) {
+                deleteUnlessCached(name);
+            }
+            return null;
+        }
+        Path file = directory.resolve(name);
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            if (touch) {
+                Files.getFileAttributeView(file, BasicFileAttributeView.class).setTimes(null, FileTime.fromMillis(now), null);
+            }
+            return channel;
+        } catch (NoSuchFileException e) {
+            // evicted or invalidated since the lookup
+            return null;
+        }
+    }
+
+    /**
+     * Downloads the object into the cache and opens the cached file.
+     *
+     * @return {@link FileChannel} of the downloaded content, whether or not it could be cached
+     */
+    private FileChannel fill(String key) throws IOException {
+        String name = fileName(key);
+        long version = beginRead(name);
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, "fill", TEMPORARY_SUFFIX);
+            super.download(key, temporary);
+            // the open channel keeps reading the content after the file is moved, evicted or deleted
+            FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ);
+            try {
+                commit(key, temporary, version);
+            } catch (IOException e) {
+                LOGGER.error("Failed caching {} in {}", keyValue("location", key), directory, e);
+            } catch (RuntimeException | Error e) {
+                channel.close();
+                throw e;
+            }
+            return channel;
+        } finally {
+            if (temporary != null) {
+                deleteQuietly(temporary);
+            }
+            release(name);
+        }
+    }
+
+    /**
+     * Writes content read from the storage to the cache.
+     */
+    private void store(String key, byte[] content, long version) {
+        if (content.length > maximumSize) {
+            return;
+        }
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, "fill", TEMPORARY_SUFFIX);
+            Files.write(temporary, content);
+            commit(key, temporary, version);
+        } catch (IOException e) {
+            LOGGER.error("Failed caching {} in {}", keyValue("location", key), directory, e);
+        } finally {
+            if (temporary != null) {
+                deleteQuietly(temporary);
+            }
+        }
+    }
+
+    /**
+     * Moves a completely written temporary file into place unless a put or delete of the key happened since the
+     * read started, then evicts until the cache is within its bound. The caller holds the file's slot.
+     *
+     * @return whether the file was added to the cache
+     */
+    private boolean commit(String key, Path temporary, long version) throws IOException {
+        long length = Files.size(temporary);
+        if (length > maximumSize) {
+            return false;
+        }
+        String name = fileName(key);
+        Slot slot;
+        synchronized (this) {
+            slot = slots.get(name);
+        }
+        synchronized (slot) {
+            synchronized (this) {
+                if (slot.version != version) {
+                    return false;
+                }
+            }
+            Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                Entry previous = entries.put(name, new Entry(name, length, now, now));
+                size += length - (previous == null ? 0 : previous.size);
+            }
+        }
+        evict();
+        LOGGER.debug("Cached {} bytes of {} in {}", length, keyValue("location", key), directory);
+        return true;
+    }
+
+    /**
+     * Deletes the least recently used files until the cache is within its bound.
+     */
+    private void evict() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (size > maximumSize && eldest.hasNext()) {
+                Entry entry = eldest.next();
+                eldest.remove();
+                size -= entry.size;
+                evictionCount++;
+                evicted.add(entry.name);
+            }
+        }
+        evicted.forEach(this::deleteUnlessCached);
+    }
+
+    /**
+     * Deletes the file of an entry removed from the index, unless a fill cached it again in the meantime.
+     */
+    private void deleteUnlessCached(String name) {
+        Slot slot = acquire(name);
+        try {
+            synchronized (slot) {
+                synchronized (this) {
+                    if (entries.containsKey(name)) {
+                        return;
+                    }
+                }
+                deleteQuietly(directory.resolve(name));
+            }
+        } finally {
+            release(name);
+        }
+    }
+
+    private static void read(FileChannel channel, long position, byte[] target) throws IOException {
+        if (target.length > 0) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, target.length);
+            buffer.get(target);
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2 + ENTRY_SUFFIX.length());
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return name.append(ENTRY_SUFFIX).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Users of one cached file, the version is incremented by every invalidation of its key.
+     */
+    private static final class Slot {
+        private int users;
+        private long version;
+    }
+
+    /**
+     * Size and times of a cached file.
+     */
+    private static final class Entry {
+        private final String name;
+        private final long size;
+        private final long createdMillis;
+        private long accessedMillis;
+
+        private Entry(String name, long size, long createdMillis, long accessedMillis) {
+            this.name = name;
+            this.size = size;
+            this.createdMillis = createdMillis;
+            this.accessedMillis = accessedMillis;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package edu.common.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link IFileStorageService} passing every call to another one, the base of decorators that only change some
+ * operations. {@link #putDirectory} and {@link #getAll(Collection)} are not forwarded, so they go through the
+ * decorator's {@link #putAll} and {@link #getAll(Collection, BiConsumer)}; every other default method of the
+ * interface is, so the delegate's own implementation answers it, e.g. {@link #exists} without the cost of a failed
+ * {@link #getDate}.
+ */
+public abstract class ForwardingFileStorageService implements IFileStorageService {
+
+    private final IFileStorageService delegate;
+
+    /**
+     * @param delegate {@link IFileStorageService} receiving the calls
+     */
+    protected ForwardingFileStorageService(IFileStorageService delegate) {
+        Assert.notNull(delegate, "delegate must be provided");
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the {@link IFileStorageService} receiving the calls
+     */
+    protected IFileStorageService delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void put(String key, File file) {
+        delegate.put(key, file);
+    }
+
+    @Override
+    public void put(String key, byte[] content, String contentType) {
+        delegate.put(key, content, contentType);
+    }
+
+    @Override
+    public void putBuffer(String key, ByteBuffer content, String contentType) {
+        delegate.putBuffer(key, content, contentType);
+    }
+
+    @Override
+    public void putStream(String key, InputStream content, String contentType) throws IOException {
+        delegate.putStream(key, content, contentType);
+    }
+
+    @Override
+    public Map<String, Exception> putAll(Map<String, File> files) {
+        return delegate.putAll(files);
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        return delegate.get(key);
+    }
+
+    @Override
+    public byte[] get(String key, long offset, int length) throws IOException {
+        return delegate.get(key, offset, length);
+    }
+
+    @Override
+    public InputStream getStream(String key) throws IOException {
+        return delegate.getStream(key);
+    }
+
+    @Override
+    public ReadableByteChannel getChannel(String key) throws IOException {
+        return delegate.getChannel(key);
+    }
+
+    @Override
+    public long get(String key, OutputStream out) throws IOException {
+        return delegate.get(key, out);
+    }
+
+    @Override
+    public long get(String key, WritableByteChannel out) throws IOException {
+        return delegate.get(key, out);
+    }
+
+    @Override
+    public void download(String key, Path target) throws IOException {
+        delegate.download(key, target);
+    }
+
+    @Override
+    public Map<String, Exception> getAll(Collection<String> keys, BiConsumer<String, byte[]> consumer) {
+        return delegate.getAll(keys, consumer);
+    }
+
+    @Override
+    public Date getDate(String key) throws IOException, ParseException {
+        return delegate.getDate(key);
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        return delegate.exists(key);
+    }
+
+    @Override
+    public ObjectInfo getInfo(String key) throws IOException {
+        return delegate.getInfo(key);
+    }
+
+    @Override
+    public ConditionalGetResult getIfModified(String key, String eTag, Date modifiedSince) throws IOException {
+        return delegate.getIfModified(key, eTag, modifiedSince);
+    }
+
+    @Override
+    public void delete(String key) {
+        delegate.delete(key);
+    }
+
+    @Override
+    public Map<String, Exception> deleteAll(Collection<String> keys) {
+        return delegate.deleteAll(keys);
+    }
+}
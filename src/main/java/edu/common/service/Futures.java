@@ -0,0 +1,76 @@
+package edu.common.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Adapts blocking storage calls to {@link CompletableFuture}s.
+ */
+final class Futures {
+
+    private Futures() {}
+
+    /**
+     * Runs the task on the executor. The returned future completes with the task's result, or exceptionally
+     * with the exception it threw as is, so checked exceptions like {@link java.io.FileNotFoundException}
+     * reach the caller without a {@link java.util.concurrent.CompletionException} wrapper.
+     *
+     * @param task     {@link Callable} blocking call to run
+     * @param executor {@link Executor} to run it on
+     * @param <T>      result type
+     * @return future of the task's result
+     */
+    static <T> CompletableFuture<T> callAsync(Callable<T> task, Executor executor) {
+        return callAsync(task, executor, () -> { });
+    }
+
+    /**
+     * Runs the task on the executor once a permit is available, blocking the caller until then. The permit
+     * is released as soon as the task finishes, before the returned future completes. Sharing one semaphore
+     * across calls bounds how many of the tasks are queued or running at once.
+     *
+     * @param task     {@link Callable} blocking call to run
+     * @param executor {@link Executor} to run it on
+     * @param inFlight {@link Semaphore} bounding the tasks in flight
+     * @param <T>      result type
+     * @return future of the task's result
+     * @throws InterruptedException when interrupted waiting for a permit
+     */
+    static <T> CompletableFuture<T> callAsync(Callable<T> task, Executor executor, Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        return callAsync(task, executor, inFlight::release);
+    }
+
+    private static <T> CompletableFuture<T> callAsync(Callable<T> task, Executor executor, Runnable onFinish) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                T result;
+                try {
+                    result = task.call();
+                } catch (Throwable t) {
+                    onFinish.run();
+                    future.completeExceptionally(t);
+                    return;
+                }
+                onFinish.run();
+                future.complete(result);
+            });
+        } catch (RejectedExecutionException e) {
+            onFinish.run();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * @param failure {@link Throwable} a task failed with
+     * @return the failure itself when it is an {@link Exception}, otherwise wrapped in a {@link FileStorageServiceException}
+     */
+    static Exception asException(Throwable failure) {
+        return failure instanceof Exception ? (Exception) failure : new FileStorageServiceException(failure);
+    }
+}
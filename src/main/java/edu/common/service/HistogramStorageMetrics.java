@@ -0,0 +1,164 @@
+package edu.common.service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * In-memory {@link StorageMetrics} keeping, per {@link StorageMetrics.Operation}, a latency histogram with power of
+ * two nanosecond buckets, byte and in-flight counters and failure counts by status code. Recording only updates
+ * preallocated counters, reading takes a snapshot and can be exported to any monitoring system.
+ */
+public class HistogramStorageMetrics implements StorageMetrics {
+
+    /**
+     * One bucket per bit of a latency in nanoseconds, bucket i holds latencies from 2^(i-1) to below 2^i.
+     */
+    private static final int LATENCY_BUCKETS = Long.SIZE;
+
+    /**
+     * Failures are counted per status code below this bound, others under {@link StorageMetrics#NO_STATUS}.
+     */
+    private static final int MAX_STATUS = 600;
+
+    private final Map<Operation, Counters> counters = new EnumMap<>(Operation.class);
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    public HistogramStorageMetrics() {
+        for (Operation operation : Operation.values()) {
+            counters.put(operation, new Counters());
+        }
+    }
+
+    @Override
+    public void started(Operation operation) {
+        counters.get(operation).inFlight.increment();
+    }
+
+    @Override
+    public void succeeded(Operation operation, long latencyNanos, long bytes) {
+        Counters operationCounters = counters.get(operation);
+        operationCounters.inFlight.decrement();
+        operationCounters.latencies.incrementAndGet(bucket(latencyNanos));
+        operationCounters.bytes.add(bytes);
+    }
+
+    @Override
+    public void failed(Operation operation, long latencyNanos, int statusCode) {
+        Counters operationCounters = counters.get(operation);
+        operationCounters.inFlight.decrement();
+        operationCounters.latencies.incrementAndGet(bucket(latencyNanos));
+        operationCounters.failures.incrementAndGet(statusCode > 0 && statusCode < MAX_STATUS ? statusCode : NO_STATUS);
+    }
+
+    @Override
+    public void registerGauge(String name, LongSupplier value) {
+        Assert.notNull(name, "name must be provided");
+        Assert.notNull(value, "value must be provided");
+        gauges.put(name, value);
+    }
+
+    /**
+     * @param operation {@link Operation} measured
+     * @return number of completed and failed operations
+     */
+    public long getCount(Operation operation) {
+        AtomicLongArray latencies = counters.get(operation).latencies;
+        long count = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            count += latencies.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @param operation {@link Operation} measured
+     * @return content bytes transferred by the completed operations
+     */
+    public long getBytes(Operation operation) {
+        return counters.get(operation).bytes.sum();
+    }
+
+    /**
+     * @param operation {@link Operation} measured
+     * @return number of operations currently running
+     */
+    public long getInFlight(Operation operation) {
+        return counters.get(operation).inFlight.sum();
+    }
+
+    /**
+     * @param operation {@link Operation} measured
+     * @return number of failed operations by status code, {@link StorageMetrics#NO_STATUS} for failures without one
+     */
+    public Map<Integer, Long> getFailures(Operation operation) {
+        AtomicLongArray failures = counters.get(operation).failures;
+        Map<Integer, Long> result = new TreeMap<>();
+        for (int status = 0; status < MAX_STATUS; status++) {
+            long count = failures.get(status);
+            if (count > 0) {
+                result.put(status, count);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Estimates a latency percentile from the histogram. The result is the upper bound of the bucket the
+     * percentile falls in, so it overestimates by at most a factor of two.
+     *
+     * @param operation  {@link Operation} measured
+     * @param percentile between 0 and 100
+     * @return latency in nanoseconds, 0 when nothing was measured
+     */
+    public long getLatencyPercentile(Operation operation, double percentile) {
+        Assert.isTrue(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+        AtomicLongArray latencies = counters.get(operation).latencies;
+        long[] snapshot = new long[LATENCY_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            snapshot[i] = latencies.get(i);
+            count += snapshot[i];
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen > 0 && seen >= rank) {
+                return i == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return current value of every registered gauge
+     */
+    public Map<String, Long> getGauges() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        gauges.forEach((name, value) -> result.put(name, value.getAsLong()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static int bucket(long latencyNanos) {
+        return Long.SIZE - Long.numberOfLeadingZeros(Math.max(0, latencyNanos));
+    }
+
+    /**
+     * Preallocated counters of a single operation.
+     */
+    private static final class Counters {
+        private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+        private final AtomicLongArray failures = new AtomicLongArray(MAX_STATUS);
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+    }
+}
@@ -0,0 +1,49 @@
+package edu.common.service;
+
+import java.io.File;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+public interface IAsyncFileStorageService {
+
+    /**
+     * Create or update the Provided {@link File} within file based storage without blocking the caller
+     * @param key String unique key value
+     * @param file {@link File} content to be stored
+     * @return CompletableFuture completed once the content is stored
+     */
+    CompletableFuture<Void> putAsync(String key, File file);
+
+    /**
+     * Create or update the provided content within file based storage without blocking the caller
+     * @param key String unique key value
+     * @param content byte[] content to be stored
+     * @param contentType content type of the content to be stored
+     * @return CompletableFuture completed once the content is stored
+     */
+    CompletableFuture<Void> putAsync(String key, byte[] content, String contentType);
+
+    /**
+     * Gets the content from file based storage by key without blocking the caller.
+     * A missing key completes the future with a {@link java.io.FileNotFoundException}.
+     * @param key String unique key value
+     * @return CompletableFuture of the content being returned
+     */
+    CompletableFuture<byte[]> getAsync(String key);
+
+    /**
+     * Gets the last modified date of file based storage by key without blocking the caller.
+     * A missing key completes the future with a {@link java.io.FileNotFoundException}.
+     * @param key String unique key value
+     * @return CompletableFuture of the date
+     */
+    CompletableFuture<Date> getDateAsync(String key);
+
+    /**
+     * Deletes the content by key without blocking the caller
+     * @param key String unique key value
+     * @return CompletableFuture completed once the content is deleted
+     */
+    CompletableFuture<Void> deleteAsync(String key);
+
+}
@@ -1,10 +1,37 @@
 package edu.common.service;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.IOUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * File based storage. Implementations only have to provide the put, get, getDate and delete of a single key; every
+ * other operation has a default built on those, which implementations override where the storage offers something
+ * better, such as ranged, streamed or batched requests.
+ */
 
 public interface IFileStorageService {
 
@@ -23,6 +50,69 @@ public interface IFileStorageService {
      */
     void put(String key, byte[] content, String contentType);
 
+    /**
+     * Create or update the remaining bytes of the buffer within file based storage. The buffer's position and limit
+     * are left unchanged.
+     * @param key String unique key value
+     * @param content ByteBuffer heap or direct buffer whose remaining bytes are stored
+     * @param contentType content type of the content to be stored
+     */
+    default void putBuffer(String key, ByteBuffer content, String contentType) {
+        Assert.notNull(content, "content must be provided");
+        byte[] bytes = new byte[content.remaining()];
+        content.duplicate().get(bytes);
+        put(key, bytes, contentType);
+    }
+
+    /**
+     * Create or update the content read from the stream within file based storage. The stream is read to its end
+     * and left open. Storages that can stream it do so without holding all of it in memory, the default reads it
+     * fully and stores the bytes.
+     * @param key String unique key value
+     * @param content InputStream content to be stored, of any length
+     * @param contentType content type of the content to be stored
+     */
+    default void putStream(String key, InputStream content, String contentType) throws IOException {
+        Assert.notNull(content, "content must be provided");
+        put(key, IOUtils.toByteArray(content), contentType);
+    }
+
+    /**
+     * Create or update every provided {@link File} within file based storage, storing several at once where supported.
+     * @param files Map of unique key value to the {@link File} content to be stored under it
+     * @return Map of key to the failure for every file that could not be stored, empty when all were stored
+     */
+    default Map<String, Exception> putAll(Map<String, File> files) {
+        Assert.notNull(files, "files must be provided");
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        files.forEach((key, file) -> {
+            try {
+                put(key, file);
+            } catch (RuntimeException e) {
+                failures.put(key, e);
+            }
+        });
+        return failures;
+    }
+
+    /**
+     * Create or update every file below the directory within file based storage. Each file is stored under the
+     * prefix followed by its path relative to the directory, using '/' as separator.
+     * @param directory Path of the directory to store
+     * @param prefix String prepended to every key, separated from the relative path by '/' unless blank
+     * @return Map of key to the failure for every file that could not be stored, empty when all were stored
+     */
+    default Map<String, Exception> putDirectory(Path directory, String prefix) throws IOException {
+        Assert.notNull(directory, "directory must be provided");
+        String keyPrefix = prefix == null || prefix.isEmpty() ? "" : prefix.endsWith("/") ? prefix : prefix + "/";
+        Map<String, File> files = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isRegularFile).forEach(path ->
+                    files.put(keyPrefix + directory.relativize(path).toString().replace(File.separatorChar, '/'), path.toFile()));
+        }
+        return putAll(files);
+    }
+
     /**
      * Gets the content from file based storage by key.
      * @param key String unique key value
@@ -30,6 +120,110 @@ public interface IFileStorageService {
      */
     byte[] get(String key) throws IOException, FileNotFoundException;
 
+    /**
+     * Gets a slice of the content from file based storage by key. Fewer bytes than requested are returned
+     * when the slice runs past the end of the content, and none when it starts past the end.
+     * @param key String unique key value
+     * @param offset long position of the first byte to return
+     * @param length int maximum number of bytes to return
+     * @return byte[] content being returned
+     */
+    default byte[] get(String key, long offset, int length) throws IOException, FileNotFoundException {
+        Assert.isTrue(offset >= 0, "offset must not be negative");
+        Assert.isTrue(length >= 0, "length must not be negative");
+        byte[] content = get(key);
+        int from = (int) Math.min(offset, content.length);
+        return Arrays.copyOfRange(content, from, from + Math.min(length, content.length - from));
+    }
+
+    /**
+     * Opens a stream over the content in file based storage by key. The caller is responsible for closing it.
+     * @param key String unique key value
+     * @return InputStream content being returned
+     */
+    default InputStream getStream(String key) throws IOException, FileNotFoundException {
+        return new ByteArrayInputStream(get(key));
+    }
+
+    /**
+     * Opens a channel over the content in file based storage by key. The caller is responsible for closing it.
+     * @param key String unique key value
+     * @return ReadableByteChannel content being returned
+     */
+    default ReadableByteChannel getChannel(String key) throws IOException, FileNotFoundException {
+        return Channels.newChannel(getStream(key));
+    }
+
+    /**
+     * Copies the content from file based storage by key into the provided stream, which is left open.
+     * @param key String unique key value
+     * @param out OutputStream the content is written to
+     * @return long number of bytes written
+     */
+    default long get(String key, OutputStream out) throws IOException, FileNotFoundException {
+        Assert.notNull(out, "output stream must be provided");
+        byte[] content = get(key);
+        out.write(content);
+        return content.length;
+    }
+
+    /**
+     * Copies the content from file based storage by key into the provided channel, which is left open.
+     * @param key String unique key value
+     * @param out WritableByteChannel the content is written to
+     * @return long number of bytes written
+     */
+    default long get(String key, WritableByteChannel out) throws IOException, FileNotFoundException {
+        Assert.notNull(out, "output channel must be provided");
+        ByteBuffer content = ByteBuffer.wrap(get(key));
+        while (content.hasRemaining()) {
+            out.write(content);
+        }
+        return content.capacity();
+    }
+
+    /**
+     * Downloads the content from file based storage by key into a local file, replacing any existing content.
+     * @param key String unique key value
+     * @param target Path of the local file to write
+     */
+    default void download(String key, Path target) throws IOException, FileNotFoundException {
+        Assert.notNull(target, "target must be provided");
+        Files.write(target, get(key));
+    }
+
+    /**
+     * Gets the content of every key, fetching several at once where the storage supports it.
+     * @param keys Collection of unique key values
+     * @return BatchResult with the content of every key found and the failure of every key that could not be read
+     */
+    default BatchResult<byte[]> getAll(Collection<String> keys) {
+        Map<String, byte[]> results = new ConcurrentHashMap<>();
+        Map<String, Exception> failures = getAll(keys, results::put);
+        return new BatchResult<>(results, failures);
+    }
+
+    /**
+     * Gets the content of every key, handing each to the consumer as soon as it has been read. The consumer may
+     * be called from several threads at once; an exception it throws is reported as the failure of that key.
+     * @param keys Collection of unique key values
+     * @param consumer BiConsumer receiving each key with its content
+     * @return Map of key to the failure for every key that could not be read, empty when all were read
+     */
+    default Map<String, Exception> getAll(Collection<String> keys, BiConsumer<String, byte[]> consumer) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.notNull(consumer, "consumer must be provided");
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            try {
+                consumer.accept(key, get(key));
+            } catch (IOException | RuntimeException e) {
+                failures.put(key, e);
+            }
+        }
+        return failures;
+    }
+
     /**
      * Gets the last modified date of file based storage by key.
      * @param key String unique key value
@@ -37,10 +231,74 @@ public interface IFileStorageService {
      */
     Date getDate(String key) throws IOException, FileNotFoundException, ParseException;
 
+    /**
+     * Gets the metadata of the content in file based storage by key: last modified date, ETag and size. The default
+     * reads the content and uses its MD5 as ETag.
+     * @param key String unique key value
+     * @return ObjectInfo of the content
+     */
+    default ObjectInfo getInfo(String key) throws IOException, FileNotFoundException {
+        byte[] content = get(key);
+        try {
+            return new ObjectInfo(key, getDate(key), DigestUtils.md5DigestAsHex(content), content.length);
+        } catch (ParseException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Gets the content by key only if it changed since the copy the caller holds, so revalidating an unchanged
+     * object does not transfer it. The ETag is compared when provided, the date only otherwise.
+     * @param key String unique key value
+     * @param eTag String ETag of the caller's copy, from {@link ObjectInfo#getETag()}, or null
+     * @param modifiedSince Date the caller's copy was last modified, or null
+     * @return ConditionalGetResult with the content and its metadata, or not modified
+     */
+    default ConditionalGetResult getIfModified(String key, String eTag, Date modifiedSince) throws IOException, FileNotFoundException {
+        ObjectInfo info = getInfo(key);
+        boolean modified = eTag != null ? !eTag.equals(info.getETag())
+                : modifiedSince == null || info.getLastModified().getTime() / 1000 > modifiedSince.getTime() / 1000;
+        return modified ? ConditionalGetResult.modified(get(key), info) : ConditionalGetResult.notModified();
+    }
+
+    /**
+     * Checks whether content exists in file based storage for the key.
+     * @param key String unique key value
+     * @return boolean true when content is stored under the key
+     */
+    default boolean exists(String key) throws IOException {
+        try {
+            getDate(key);
+            return true;
+        } catch (FileNotFoundException e) {
+            return false;
+        } catch (ParseException e) {
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Deletes the content by key
      * @param key String unique key value
      */
     void delete(String key);
 
+    /**
+     * Deletes the content of every key, in batches where the storage supports it. Keys without content count as deleted.
+     * @param keys Collection of unique key values
+     * @return Map of key to the failure for every key that could not be deleted, empty when all were deleted
+     */
+    default Map<String, Exception> deleteAll(Collection<String> keys) {
+        Assert.notNull(keys, "keys must be provided");
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            try {
+                delete(key);
+            } catch (RuntimeException e) {
+                failures.put(key, e);
+            }
+        }
+        return failures;
+    }
+
 }
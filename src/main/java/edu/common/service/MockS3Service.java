@@ -2,7 +2,9 @@ package edu.common.service;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -13,14 +15,39 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+import edu.common.service.StorageMetrics.Operation;
 
 import static net.logstash.logback.argument.StructuredArguments.keyValue;
 
 @Service
-public class MockS3Service implements IFileStorageService {
+public class MockS3Service implements IFileStorageService, IAsyncFileStorageService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MockS3Service.class);
     private static final String INVALID_KEY_MESSAGE = "Key must be provided";
@@ -28,12 +55,32 @@ public class MockS3Service implements IFileStorageService {
 
     private String filePath;
 
+    /**
+     * Runs the asynchronous operations.
+     */
+    private Executor executor = ForkJoinPool.commonPool();
+
+    /**
+     * Receives the latency, size and outcome of every operation.
+     */
+    private StorageMetrics metrics;
+
     /**
      * @param filePath {@link Path} Location to store the file
      */
     public MockS3Service(String filePath) {
+        this(filePath, StorageMetrics.NONE);
+    }
+
+    /**
+     * @param filePath {@link Path} Location to store the file
+     * @param metrics  {@link StorageMetrics} receiving the latency, size and outcome of every operation
+     */
+    public MockS3Service(String filePath, StorageMetrics metrics) {
         Assert.isTrue(StringUtils.isNotBlank(filePath), INVALID_FILE_MESSAGE);
+        Assert.notNull(metrics, "metrics must be provided");
         this.filePath = filePath;
+        this.metrics = metrics;
     }
 
     /**
@@ -47,6 +94,9 @@ public class MockS3Service implements IFileStorageService {
         Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
         Assert.notNull(file, INVALID_FILE_MESSAGE);
         StopWatch stopWatch = new StopWatch();
+        long start = System.nanoTime();
+        long length = -1;
+        metrics.started(Operation.PUT);
         try {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.info("Storing file {} on local filesystem at {}", keyValue("file", file), keyValue("location", filePath));
@@ -55,6 +105,7 @@ public class MockS3Service implements IFileStorageService {
 
             byte[] bytes = FileUtils.readFileToByteArray(file);
             FileUtils.writeByteArrayToFile(new File(filePath+key), bytes);
+            length = bytes.length;
 
             if (LOGGER.isDebugEnabled()) {
                 stopWatch.stop();
@@ -63,6 +114,8 @@ public class MockS3Service implements IFileStorageService {
             }
         } catch (IOException e) {
             throw new FileStorageServiceException(e);
+        } finally {
+            recordMetrics(Operation.PUT, start, length, StorageMetrics.NO_STATUS);
         }
     }
 
@@ -79,12 +132,16 @@ public class MockS3Service implements IFileStorageService {
         Assert.notNull(content, "content must be provided");
         Assert.isTrue(StringUtils.isNotBlank(encoding), "contentType must be provided");
         StopWatch stopWatch = new StopWatch();
+        long start = System.nanoTime();
+        long length = -1;
+        metrics.started(Operation.PUT);
         try {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.info("Storing file {} on local filesystem with location {}", keyValue("file", key), keyValue("location", filePath));
                 stopWatch.start();
             }
             FileUtils.writeByteArrayToFile(new File(filePath+key), content);
+            length = content.length;
             if (LOGGER.isDebugEnabled()) {
                 stopWatch.stop();
                 LOGGER.info("{} saved in file system at {} in {} milliseconds",
@@ -92,9 +149,102 @@ public class MockS3Service implements IFileStorageService {
             }
         } catch (IOException e) {
             LOGGER.error(e.getMessage(), e);
+        } finally {
+            recordMetrics(Operation.PUT, start, length, StorageMetrics.NO_STATUS);
+        }
+    }
+
+    /**
+     * Stores the remaining bytes of the buffer at given location on file system
+     *
+     * @param key         {@link String} Sets name of the file to save on file system
+     * @param content     {@link ByteBuffer} whose remaining bytes are written, its position is left unchanged
+     * @param contentType content type of the content, not stored
+     */
+    @Override
+    public void putBuffer(String key, ByteBuffer content, String contentType) {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Assert.notNull(content, "content must be provided");
+        Assert.isTrue(StringUtils.isNotBlank(contentType), "contentType must be provided");
+        long start = System.nanoTime();
+        long length = -1;
+        metrics.started(Operation.PUT);
+        try {
+            Path target = Paths.get(filePath + key);
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer remaining = content.duplicate();
+                while (remaining.hasRemaining()) {
+                    channel.write(remaining);
+                }
+            }
+            length = content.remaining();
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+        } finally {
+            recordMetrics(Operation.PUT, start, length, StorageMetrics.NO_STATUS);
         }
     }
 
+    /**
+     * Stores the content read from the stream at given location on file system
+     *
+     * @param key         {@link String} Sets name of the file to save on file system
+     * @param content     {@link InputStream} read to its end, left open
+     * @param contentType content type of the content, not stored
+     * @throws IOException when the stream cannot be read or the file written
+     */
+    @Override
+    public void putStream(String key, InputStream content, String contentType) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Assert.notNull(content, "content must be provided");
+        Assert.isTrue(StringUtils.isNotBlank(contentType), "contentType must be provided");
+        long start = System.nanoTime();
+        long length = -1;
+        metrics.started(Operation.PUT);
+        try {
+            Path target = Paths.get(filePath + key);
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            length = Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            recordMetrics(Operation.PUT, start, length, StorageMetrics.NO_STATUS);
+        }
+    }
+
+    /**
+     * Copies every file to its Key on the file system in parallel
+     *
+     * @param files {@link Map} of file name to save on file system to the file to be read
+     * @return Map of key to the failure for every file that could not be copied
+     */
+    @Override
+    public Map<String, Exception> putAll(Map<String, File> files) {
+        Assert.notNull(files, "files must be provided");
+        Assert.noNullElements(files.keySet().toArray(), "keys must not contain null");
+        Assert.noNullElements(files.values().toArray(), "files must not contain null");
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        files.entrySet().parallelStream().forEach(entry -> {
+            long start = System.nanoTime();
+            metrics.started(Operation.PUT);
+            try {
+                Path target = Paths.get(filePath + entry.getKey());
+                Files.createDirectories(target.toAbsolutePath().getParent());
+                Files.copy(entry.getValue().toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+                recordMetrics(Operation.PUT, start, Files.size(target), StorageMetrics.NO_STATUS);
+            } catch (IOException | RuntimeException e) {
+                recordMetrics(Operation.PUT, start, -1, StorageMetrics.NO_STATUS);
+                failures.put(entry.getKey(), e);
+            }
+        });
+        return failures;
+    }
+
     /**
      * Gets the file stored on file system.
      *
@@ -105,9 +255,187 @@ public class MockS3Service implements IFileStorageService {
     public byte[] get(String key) throws IOException {
         Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
         LOGGER.debug("Fetching {} from file system with location {}", keyValue("fileName", key));
-        byte[] bytes = IOUtils.toByteArray(new FileInputStream(filePath+key));
-        LOGGER.debug("Finished fetching document from file system");
-        return bytes;
+        long start = System.nanoTime();
+        long length = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try (InputStream in = new FileInputStream(filePath+key)) {
+            byte[] bytes = IOUtils.toByteArray(in);
+            LOGGER.debug("Finished fetching document from file system");
+            length = bytes.length;
+            return bytes;
+        } catch (FileNotFoundException e) {
+            status = HttpStatus.SC_NOT_FOUND;
+            throw e;
+        } finally {
+            recordMetrics(Operation.GET, start, length, status);
+        }
+    }
+
+    /**
+     * Gets a slice of the file stored on file system using positional reads.
+     *
+     * @param key    {@link String} Sets name of the file to be fetched
+     * @param offset position of the first byte to read
+     * @param length maximum number of bytes to read
+     * @return byte[]
+     */
+    @Override
+    public byte[] get(String key, long offset, int length) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Assert.isTrue(offset >= 0, "offset must not be negative");
+        Assert.isTrue(length >= 0, "length must not be negative");
+        long start = System.nanoTime();
+        long read = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try (FileChannel channel = new RandomAccessFile(filePath+key, "r").getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, Math.min(length, channel.size() - offset)));
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+                // keep reading until the slice is filled or the end of the file is reached
+            }
+            read = buffer.position();
+            return buffer.hasRemaining() ? Arrays.copyOf(buffer.array(), buffer.position()) : buffer.array();
+        } catch (FileNotFoundException e) {
+            status = HttpStatus.SC_NOT_FOUND;
+            throw e;
+        } finally {
+            recordMetrics(Operation.GET, start, read, status);
+        }
+    }
+
+    /**
+     * Gets the files stored on file system for every Key in parallel.
+     *
+     * @param keys     {@link Collection} of file names to be fetched
+     * @param consumer {@link BiConsumer} receiving each key with its content
+     * @return Map of key to the failure for every file that could not be read
+     */
+    @Override
+    public Map<String, Exception> getAll(Collection<String> keys, BiConsumer<String, byte[]> consumer) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.noNullElements(keys.toArray(), "keys must not contain null");
+        Assert.notNull(consumer, "consumer must be provided");
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        keys.parallelStream().distinct().forEach(key -> {
+            try {
+                consumer.accept(key, get(key));
+            } catch (IOException | RuntimeException e) {
+                failures.put(key, e);
+            }
+        });
+        return failures;
+    }
+
+    /**
+     * Opens a stream over the file stored on file system. The metrics measure the time to open the stream,
+     * not the bytes read from it.
+     *
+     * @param key {@link String} Sets name of the file to be fetched
+     * @return InputStream
+     */
+    @Override
+    public InputStream getStream(String key) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        LOGGER.debug("Streaming {} from file system", keyValue("fileName", key));
+        return open(key);
+    }
+
+    /**
+     * Opens a channel over the file stored on file system. The metrics measure the time to open the channel,
+     * not the bytes read from it.
+     *
+     * @param key {@link String} Sets name of the file to be fetched
+     * @return ReadableByteChannel
+     */
+    @Override
+    public ReadableByteChannel getChannel(String key) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        return open(key).getChannel();
+    }
+
+    /**
+     * Copies the file stored on file system into the provided stream.
+     *
+     * @param key {@link String} Sets name of the file to be fetched
+     * @param out {@link OutputStream} to write to, left open
+     * @return number of bytes written
+     */
+    @Override
+    public long get(String key, OutputStream out) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Assert.notNull(out, "output stream must be provided");
+        long start = System.nanoTime();
+        long length = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try (InputStream in = new FileInputStream(filePath+key)) {
+            length = IOUtils.copyLarge(in, out);
+            return length;
+        } catch (FileNotFoundException e) {
+            status = HttpStatus.SC_NOT_FOUND;
+            throw e;
+        } finally {
+            recordMetrics(Operation.GET, start, length, status);
+        }
+    }
+
+    /**
+     * Transfers the file stored on file system into the provided channel.
+     *
+     * @param key {@link String} Sets name of the file to be fetched
+     * @param out {@link WritableByteChannel} to write to, left open
+     * @return number of bytes written
+     */
+    @Override
+    public long get(String key, WritableByteChannel out) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Assert.notNull(out, "output channel must be provided");
+        long start = System.nanoTime();
+        long length = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try (FileChannel in = new FileInputStream(filePath+key).getChannel()) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            length = position;
+            return position;
+        } catch (FileNotFoundException e) {
+            status = HttpStatus.SC_NOT_FOUND;
+            throw e;
+        } finally {
+            recordMetrics(Operation.GET, start, length, status);
+        }
+    }
+
+    /**
+     * Copies the file stored on file system to the target location.
+     *
+     * @param key    {@link String} Sets name of the file to be fetched
+     * @param target {@link Path} of the copy, replaced if it exists
+     */
+    @Override
+    public void download(String key, Path target) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Assert.notNull(target, "target must be provided");
+        long start = System.nanoTime();
+        long length = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try {
+            File source = new File(filePath + key);
+            if (!source.exists()) {
+                status = HttpStatus.SC_NOT_FOUND;
+                throw new FileNotFoundException("File not found: " + source.getPath());
+            }
+            Files.copy(source.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            length = Files.size(target);
+        } finally {
+            recordMetrics(Operation.GET, start, length, status);
+        }
     }
 
     /**
@@ -123,16 +451,100 @@ public class MockS3Service implements IFileStorageService {
 
         String path = filePath + key;
         File f = new File (path);
+        long start = System.nanoTime();
+        metrics.started(Operation.GET_DATE);
         if(f.exists()){
             LOGGER.debug("Finished getting creation date of document");
-            return new Date(new File (path).lastModified());
+            Date date = new Date(new File (path).lastModified());
+            recordMetrics(Operation.GET_DATE, start, 0, StorageMetrics.NO_STATUS);
+            return date;
         } else {
+            recordMetrics(Operation.GET_DATE, start, -1, HttpStatus.SC_NOT_FOUND);
             String erorMessage = "File not found: {}";
             LOGGER.error(erorMessage, path);
             throw new FileNotFoundException(erorMessage.replace("{}", "") + path);
         }
     }
 
+    /**
+     * Gets the modified date, size and ETag of the file stored on file system. The ETag is the MD5 of the content,
+     * as S3 computes it for objects not uploaded in parts.
+     *
+     * @param key {@link String} Sets name of the file to be checked
+     * @return {@link ObjectInfo}
+     */
+    @Override
+    public ObjectInfo getInfo(String key) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Path path = Paths.get(filePath + key);
+        long start = System.nanoTime();
+        long length = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET_DATE);
+        try {
+            ObjectInfo info = info(key, path);
+            length = 0;
+            return info;
+        } catch (NoSuchFileException e) {
+            status = HttpStatus.SC_NOT_FOUND;
+            throw new FileNotFoundException("File not found: " + path);
+        } finally {
+            recordMetrics(Operation.GET_DATE, start, length, status);
+        }
+    }
+
+    /**
+     * Gets the file stored on file system unless its ETag matches, or when no ETag is provided unless it was not
+     * modified after the date, compared to the second as HTTP dates are.
+     *
+     * @param key           {@link String} Sets name of the file to be fetched
+     * @param eTag          ETag of the caller's copy, or {@code null}
+     * @param modifiedSince date of the caller's copy, or {@code null}
+     * @return {@link ConditionalGetResult}
+     */
+    @Override
+    public ConditionalGetResult getIfModified(String key, String eTag, Date modifiedSince) throws IOException {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Path path = Paths.get(filePath + key);
+        long start = System.nanoTime();
+        long length = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try {
+            ObjectInfo info = info(key, path);
+            boolean modified = eTag != null ? !eTag.equals(info.getETag())
+                    : modifiedSince == null || info.getLastModified().getTime() / 1000 > modifiedSince.getTime() / 1000;
+            if (!modified) {
+                length = 0;
+                return ConditionalGetResult.notModified();
+            }
+            byte[] content = Files.readAllBytes(path);
+            length = content.length;
+            return ConditionalGetResult.modified(content, info);
+        } catch (NoSuchFileException e) {
+            status = HttpStatus.SC_NOT_FOUND;
+            throw new FileNotFoundException("File not found: " + path);
+        } finally {
+            recordMetrics(Operation.GET, start, length, status);
+        }
+    }
+
+    /**
+     * Checks whether a file is stored on file system for the Key.
+     *
+     * @param key {@link String} Sets name of the file to be checked
+     * @return whether the file exists
+     */
+    @Override
+    public boolean exists(String key) {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        long start = System.nanoTime();
+        metrics.started(Operation.GET_DATE);
+        boolean exists = new File(filePath + key).isFile();
+        recordMetrics(Operation.GET_DATE, start, exists ? 0 : -1, exists ? StorageMetrics.NO_STATUS : HttpStatus.SC_NOT_FOUND);
+        return exists;
+    }
+
     /**
      * Deletes the file by Key. Does nothing if not document found.
      *
@@ -141,7 +553,170 @@ public class MockS3Service implements IFileStorageService {
     @Override
     public void delete(String key) {
         Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        long start = System.nanoTime();
+        metrics.started(Operation.DELETE);
         FileUtils.deleteQuietly(FileUtils.getFile(filePath+key));
+        recordMetrics(Operation.DELETE, start, 0, StorageMetrics.NO_STATUS);
+    }
+
+    /**
+     * Deletes the files of every Key in parallel. Keys without a file count as deleted.
+     *
+     * @param keys {@link Collection} of file names to be deleted
+     * @return Map of key to the failure for every file that could not be deleted
+     */
+    @Override
+    public Map<String, Exception> deleteAll(Collection<String> keys) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.noNullElements(keys.toArray(), "keys must not contain null");
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        keys.parallelStream().forEach(key -> {
+            long start = System.nanoTime();
+            metrics.started(Operation.DELETE);
+            try {
+                Files.deleteIfExists(Paths.get(filePath + key));
+                recordMetrics(Operation.DELETE, start, 0, StorageMetrics.NO_STATUS);
+            } catch (IOException | RuntimeException e) {
+                recordMetrics(Operation.DELETE, start, -1, StorageMetrics.NO_STATUS);
+                failures.put(key, e);
+            }
+        });
+        return failures;
+    }
+
+    /**
+     * Stores file at given location on file system without blocking the caller
+     *
+     * @param key  {@link String} Sets name of the file to save on file system
+     * @param file {@link File} Sets the file to be read
+     * @return future completed once the file is stored
+     */
+    @Override
+    public CompletableFuture<Void> putAsync(String key, File file) {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Assert.notNull(file, INVALID_FILE_MESSAGE);
+        return Futures.callAsync(() -> {
+            put(key, file);
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Stores content at given location on file system without blocking the caller
+     *
+     * @param key      Sets name of the file to save on file system
+     * @param content  Sets the content to write to the file
+     * @param encoding Sets the encoding to use, {@code null} means platform default
+     * @return future completed once the content is stored
+     */
+    @Override
+    public CompletableFuture<Void> putAsync(String key, byte[] content, String encoding) {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        Assert.notNull(content, "content must be provided");
+        Assert.isTrue(StringUtils.isNotBlank(encoding), "contentType must be provided");
+        return Futures.callAsync(() -> {
+            put(key, content, encoding);
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Gets the file stored on file system without blocking the caller.
+     *
+     * @param key {@link String} Sets name of the file to be fetched
+     * @return future of the content
+     */
+    @Override
+    public CompletableFuture<byte[]> getAsync(String key) {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        return Futures.callAsync(() -> get(key), executor);
+    }
+
+    /**
+     * Gets the last modified date of the file stored on file system without blocking the caller.
+     *
+     * @param key {@link String} Sets name of the file to be fetched
+     * @return future of the date
+     */
+    @Override
+    public CompletableFuture<Date> getDateAsync(String key) {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        return Futures.callAsync(() -> getDate(key), executor);
+    }
+
+    /**
+     * Deletes the file by Key without blocking the caller. Does nothing if not document found.
+     *
+     * @param key {@link String} Sets name of the file to be deleted
+     * @return future completed once the file is deleted
+     */
+    @Override
+    public CompletableFuture<Void> deleteAsync(String key) {
+        Assert.isTrue(StringUtils.isNotBlank(key), INVALID_KEY_MESSAGE);
+        return Futures.callAsync(() -> {
+            delete(key);
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Opens the file stored on file system, recording the open in the metrics.
+     *
+     * @param key {@link String} Sets name of the file to be opened
+     * @return {@link FileInputStream}
+     * @throws FileNotFoundException when no file exists for the key
+     */
+    private FileInputStream open(String key) throws FileNotFoundException {
+        long start = System.nanoTime();
+        metrics.started(Operation.GET);
+        try {
+            FileInputStream in = new FileInputStream(filePath+key);
+            recordMetrics(Operation.GET, start, 0, StorageMetrics.NO_STATUS);
+            return in;
+        } catch (FileNotFoundException e) {
+            recordMetrics(Operation.GET, start, -1, HttpStatus.SC_NOT_FOUND);
+            throw e;
+        }
+    }
+
+    /**
+     * Describes a stored file with the MD5 of its content as ETag, digesting the file as it is streamed so it is never
+     * held in memory.
+     *
+     * @param key  {@link String} name of the file
+     * @param path {@link Path} of the file
+     * @return {@link ObjectInfo}
+     * @throws IOException when the file cannot be read
+     */
+    private static ObjectInfo info(String key, Path path) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(path), MessageDigest.getInstance("MD5"))) {
+            long size = IOUtils.copyLarge(in, NullOutputStream.NULL_OUTPUT_STREAM);
+            byte[] digest = in.getMessageDigest().digest();
+            StringBuilder eTag = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                eTag.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return new ObjectInfo(key, new Date(Files.getLastModifiedTime(path).toMillis()), eTag.toString(), size);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reports the outcome of an operation to the metrics.
+     *
+     * @param operation {@link Operation} measured
+     * @param start     {@link System#nanoTime()} when the operation started
+     * @param bytes     content bytes transferred, negative when the operation failed
+     * @param status    status of the failure, {@link StorageMetrics#NO_STATUS} when there is none
+     */
+    private void recordMetrics(Operation operation, long start, long bytes, int status) {
+        long latencyNanos = System.nanoTime() - start;
+        if (bytes >= 0) {
+            metrics.succeeded(operation, latencyNanos, bytes);
+        } else {
+            metrics.failed(operation, latencyNanos, status);
+        }
     }
 
     private String returnTargetPath() {
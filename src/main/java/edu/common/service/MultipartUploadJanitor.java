@@ -0,0 +1,93 @@
+package edu.common.service;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
+import com.amazonaws.services.s3.model.MultipartUpload;
+import com.amazonaws.services.s3.model.MultipartUploadListing;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * Aborts multipart uploads that were initiated longer ago than the maximum age, so the parts of uploads
+ * abandoned by crashed or interrupted writers stop accruing storage. Meant to run on a schedule, away from
+ * the upload path; each run aborts at most a fixed number of uploads.
+ */
+class MultipartUploadJanitor implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultipartUploadJanitor.class);
+
+    private final AmazonS3 s3;
+    private final String bucket;
+    private final Duration maxAge;
+    private final int maxAbortsPerRun;
+
+    /**
+     * @param s3              {@link AmazonS3} client
+     * @param bucket          {@link String} S3 Bucket to clean up
+     * @param maxAge          {@link Duration} after which an unfinished upload counts as abandoned
+     * @param maxAbortsPerRun maximum number of uploads aborted by a single run
+     */
+    MultipartUploadJanitor(AmazonS3 s3, String bucket, Duration maxAge, int maxAbortsPerRun) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.maxAge = maxAge;
+        this.maxAbortsPerRun = maxAbortsPerRun;
+    }
+
+    /**
+     * Runs a sweep, logging rather than propagating failures so a scheduled janitor keeps running.
+     */
+    @Override
+    public void run() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed cleaning up multipart uploads in S3 bucket " + bucket, e);
+        }
+    }
+
+    /**
+     * Lists the bucket's multipart uploads and aborts those initiated before the cut-off.
+     *
+     * @return number of uploads aborted
+     */
+    int sweep() {
+        Date cutoff = new Date(System.currentTimeMillis() - maxAge.toMillis());
+        ListMultipartUploadsRequest request = new ListMultipartUploadsRequest(bucket);
+        MultipartUploadListing listing;
+        int aborted = 0;
+        do {
+            listing = s3.listMultipartUploads(request);
+            for (MultipartUpload upload : listing.getMultipartUploads()) {
+                if (!upload.getInitiated().before(cutoff)) {
+                    continue;
+                }
+                if (aborted == maxAbortsPerRun) {
+                    LOGGER.info("Aborted {} multipart uploads in S3 bucket {}, leaving the rest for the next run", aborted, keyValue("bucket", bucket));
+                    return aborted;
+                }
+                try {
+                    s3.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, upload.getKey(), upload.getUploadId()));
+                    aborted++;
+                } catch (AmazonServiceException e) {
+                    // most likely completed or aborted elsewhere since it was listed
+                    LOGGER.debug("Could not abort multipart upload {} of {}: {}", upload.getUploadId(), keyValue("location", upload.getKey()), e.getMessage());
+                }
+            }
+            request.setKeyMarker(listing.getNextKeyMarker());
+            request.setUploadIdMarker(listing.getNextUploadIdMarker());
+        } while (listing.isTruncated());
+        if (aborted > 0) {
+            LOGGER.info("Aborted {} multipart uploads in S3 bucket {}", aborted, keyValue("bucket", bucket));
+        }
+        return aborted;
+    }
+}
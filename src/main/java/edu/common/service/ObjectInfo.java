@@ -0,0 +1,64 @@
+package edu.common.service;
+
+import java.util.Date;
+
+import org.springframework.util.Assert;
+
+/**
+ * Metadata of a stored object: when it was last modified, its entity tag and its size.
+ */
+public class ObjectInfo {
+
+    private final String key;
+    private final long lastModified;
+    private final String eTag;
+    private final long size;
+
+    /**
+     * @param key          {@link String} key of the object
+     * @param lastModified {@link Date} the object was last modified
+     * @param eTag         {@link String} entity tag identifying the content, {@code null} when the storage has none
+     * @param size         size of the content in bytes
+     */
+    public ObjectInfo(String key, Date lastModified, String eTag, long size) {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(lastModified, "last modified date must be provided");
+        this.key = key;
+        this.lastModified = lastModified.getTime();
+        this.eTag = eTag;
+        this.size = size;
+    }
+
+    /**
+     * @return key of the object
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return {@link Date} the object was last modified
+     */
+    public Date getLastModified() {
+        return new Date(lastModified);
+    }
+
+    /**
+     * @return entity tag identifying the content, {@code null} when the storage has none
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return size of the content in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "key=" + key + " lastModified=" + lastModified + " eTag=" + eTag + " size=" + size;
+    }
+}
@@ -0,0 +1,152 @@
+package edu.common.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.springframework.util.Assert;
+
+/**
+ * Bounded cache of {@link ObjectInfo} by key, remembering for a shorter time that a key does not exist. Entries
+ * are evicted least recently used first once the maximum number of keys is reached.
+ */
+class ObjectMetadataCache {
+
+    /**
+     * Number of the latest invalidated keys remembered to tell which lookups raced with a put or delete.
+     */
+    static final int RECENT_INVALIDATIONS = 1024;
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final long negativeTimeToLiveNanos;
+
+    /**
+     * Entries in access order, guarded by the monitor of the cache.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Incremented by every invalidation, so a lookup that raced with a put or delete of its key does not cache stale
+     * metadata. The recently invalidated keys map to the value of their last invalidation; lookups started before
+     * the last forgotten one are not cached, since whether their key changed is no longer known.
+     */
+    private long invalidations;
+    private final LinkedHashMap<String, Long> recentInvalidations = new LinkedHashMap<>();
+    private long forgottenInvalidation;
+
+    /**
+     * @param maximumSize         number of keys cached
+     * @param timeToLive          {@link Duration} the metadata of an existing object is cached
+     * @param negativeTimeToLive  {@link Duration} a missing key is cached, zero to not cache missing keys
+     */
+    ObjectMetadataCache(int maximumSize, Duration timeToLive, Duration negativeTimeToLive) {
+        Assert.isTrue(maximumSize > 0, "maximum size must be positive");
+        Assert.isTrue(timeToLive != null && !timeToLive.isNegative() && !timeToLive.isZero(), "time to live must be positive");
+        Assert.isTrue(negativeTimeToLive != null && !negativeTimeToLive.isNegative(), "negative time to live must not be negative");
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.negativeTimeToLiveNanos = negativeTimeToLive.toNanos();
+    }
+
+    /**
+     * Finds the live entry of a key, counting the hit or miss and dropping the entry if it expired.
+     *
+     * @param key {@link String} key of the object
+     * @return {@link Entry} cached for the key, {@code null} when the storage has to be asked
+     */
+    synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.expiresNanos >= 0) {
+            entries.remove(key);
+            evictionCount++;
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * @return value to pass to {@link #put(String, ObjectInfo, long)} for a lookup starting now
+     */
+    synchronized long stamp() {
+        return invalidations;
+    }
+
+    /**
+     * Caches the metadata read from the storage unless the key was invalidated since the lookup started. Puts and
+     * deletes of other keys do not prevent caching.
+     *
+     * @param key   {@link String} key of the object
+     * @param info  {@link ObjectInfo} of the object, {@code null} when it does not exist
+     * @param stamp value of {@link #stamp()} taken before the lookup
+     */
+    synchronized void put(String key, ObjectInfo info, long stamp) {
+        long timeToLive = info == null ? negativeTimeToLiveNanos : timeToLiveNanos;
+        if (timeToLive == 0 || stamp < forgottenInvalidation) {
+            return;
+        }
+        Long invalidated = recentInvalidations.get(key);
+        if (invalidated != null && invalidated > stamp) {
+            return;
+        }
+        entries.put(key, new Entry(info, System.nanoTime() + timeToLive));
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maximumSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Forgets a key after it was written or deleted.
+     *
+     * @param key {@link String} key of the object
+     */
+    synchronized void invalidate(String key) {
+        invalidations++;
+        entries.remove(key);
+        recentInvalidations.remove(key);
+        recentInvalidations.put(key, invalidations);
+        if (recentInvalidations.size() > RECENT_INVALIDATIONS) {
+            Iterator<Long> eldest = recentInvalidations.values().iterator();
+            forgottenInvalidation = eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * @return {@link CacheStats} of the cache, which does not track a size in bytes
+     */
+    synchronized CacheStats getStats() {
+        return new CacheStats(hitCount, missCount, evictionCount, entries.size(), 0);
+    }
+
+    /**
+     * Metadata cached for a key.
+     */
+    static final class Entry {
+        private final ObjectInfo info;
+        private final long expiresNanos;
+
+        private Entry(ObjectInfo info, long expiresNanos) {
+            this.info = info;
+            this.expiresNanos = expiresNanos;
+        }
+
+        /**
+         * @return {@link ObjectInfo} of the object, {@code null} when it does not exist
+         */
+        ObjectInfo getInfo() {
+            return info;
+        }
+    }
+}
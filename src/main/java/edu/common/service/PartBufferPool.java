@@ -0,0 +1,72 @@
+package edu.common.service;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed number of reusable part buffers shared by the streaming uploads of a service. Buffers are allocated on
+ * first use, up to the maximum, and handed back after each part is sent; callers wait when all are in use, which
+ * bounds the memory of streaming uploads regardless of their length.
+ */
+class PartBufferPool {
+
+    private final int bufferSize;
+    private final int maximumBuffers;
+    private final BlockingQueue<byte[]> free = new LinkedBlockingQueue<>();
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    /**
+     * @param bufferSize     size in bytes of each buffer
+     * @param maximumBuffers number of buffers allocated at most
+     */
+    PartBufferPool(int bufferSize, int maximumBuffers) {
+        this.bufferSize = bufferSize;
+        this.maximumBuffers = maximumBuffers;
+    }
+
+    /**
+     * Takes a free buffer, allocating one while fewer than the maximum exist and waiting otherwise.
+     *
+     * @return byte[] buffer to hand back with {@link #release(byte[])}
+     * @throws InterruptedException when interrupted while waiting
+     */
+    byte[] acquire() throws InterruptedException {
+        byte[] buffer = free.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocated.getAndUpdate(count -> count < maximumBuffers ? count + 1 : count) < maximumBuffers) {
+            return new byte[bufferSize];
+        }
+        return free.take();
+    }
+
+    /**
+     * @param buffer byte[] taken from {@link #acquire()} and no longer used
+     */
+    void release(byte[] buffer) {
+        free.add(buffer);
+    }
+
+    /**
+     * @return size in bytes of each buffer
+     */
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return number of buffers allocated so far
+     */
+    int getAllocated() {
+        return allocated.get();
+    }
+
+    /**
+     * @return number of allocated buffers currently in use
+     */
+    int getInUse() {
+        return allocated.get() - free.size();
+    }
+}
@@ -0,0 +1,71 @@
+package edu.common.service;
+
+/**
+ * Token bucket limiting retries to a share of the successful requests. Every retry takes {@link #RETRY_COST} tokens
+ * and every successful request returns {@link #SUCCESS_REFUND}, up to the capacity, so a client keeps retrying
+ * occasional failures but stops retrying once most requests fail, instead of multiplying the load on a struggling
+ * service.
+ */
+class RetryBudget {
+
+    /**
+     * Tokens taken by a retry.
+     */
+    static final int RETRY_COST = 5;
+
+    /**
+     * Tokens returned by a successful request.
+     */
+    static final int SUCCESS_REFUND = 1;
+
+    private final int capacity;
+
+    /**
+     * Tokens left, guarded by the budget's monitor.
+     */
+    private int tokens;
+    private long exhaustedCount;
+
+    /**
+     * @param capacity number of tokens of a full budget
+     */
+    RetryBudget(int capacity) {
+        this.capacity = capacity;
+        this.tokens = capacity;
+    }
+
+    /**
+     * Takes the tokens of a retry.
+     *
+     * @return whether the retry may be made
+     */
+    synchronized boolean tryAcquire() {
+        if (tokens < RETRY_COST) {
+            exhaustedCount++;
+            return false;
+        }
+        tokens -= RETRY_COST;
+        return true;
+    }
+
+    /**
+     * Returns tokens for a successful request.
+     */
+    synchronized void onSuccess() {
+        tokens = Math.min(capacity, tokens + SUCCESS_REFUND);
+    }
+
+    /**
+     * @return tokens left
+     */
+    synchronized long getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return number of retries refused because the budget was exhausted
+     */
+    synchronized long getExhaustedCount() {
+        return exhaustedCount;
+    }
+}
@@ -0,0 +1,864 @@
+package edu.common.service;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import com.amazonaws.services.s3.internal.Mimetypes;
+
+import edu.common.service.StorageMetrics.Operation;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.FileRequestBodyConfiguration;
+import software.amazon.awssdk.core.FileTransformerConfiguration;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.client.config.ClientAsyncConfiguration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import static com.amazonaws.services.s3.internal.Constants.MB;
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * {@link IFileStorageService} on the AWS SDK v2 {@link S3AsyncClient}, an alternative to the TransferManager based
+ * {@link S3Service} taking the same constructor arguments and options. Requests go through the non-blocking Netty
+ * client, so waiting on S3 costs no thread: the asynchronous operations never block and the blocking ones only block
+ * their caller. Response callbacks run on a pool of executorThread threads, or on the event loop thread once its
+ * queue is full, whatever the executor rejection policy; a few event loop threads do the I/O. Callbacks therefore
+ * never block: the parts of a file are read as they are sent and getAll hands content to its consumer on the
+ * calling thread.
+ * <p>
+ * Files above the upload threshold and streams longer than a part are sent as multipart uploads of minPartSize
+ * parts, at most {@link S3ServiceOptions#getStreamingUploadConcurrency()} parts of one upload at once. The metadata
+ * cache, request coalescing, adaptive transfers, virtual threads, progress tracking and the multipart upload
+ * janitor belong to {@link S3Service} and are not used by this engine.
+ */
+public class S3AsyncClientService implements IFileStorageService, IAsyncFileStorageService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3AsyncClientService.class);
+
+    /**
+     * Maximum number of keys S3 accepts in a single multi-object delete request.
+     */
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
+    private final String bucket;
+    private final long partSize;
+    private final long uploadThreshold;
+    private final S3ServiceOptions options;
+    private final StorageMetrics metrics;
+    private final BoundedTransferExecutor completionExecutor;
+    private final S3AsyncClient s3;
+
+    /**
+     * Creates the service using the provided credentials, region and tuning options.
+     *
+     * @param bucket          {@link String} S3 Bucket created by S3 customer
+     * @param awsKey          {@link String} access key
+     * @param awsSecret       {@link String} secret key
+     * @param region          {@link String} S3 Region
+     * @param minPartSize     {@link Integer} Sets the part size in MB of multipart uploads
+     * @param uploadThreshold {@link Integer} Sets the size threshold in MB above which files use multipart uploads
+     * @param partSize        {@link Integer} Unused, multipart copies are not offered by this service
+     * @param copyThreshold   {@link Integer} Unused, multipart copies are not offered by this service
+     * @param executorThread  {@link Integer} Sets the number of threads running response callbacks
+     * @param options         {@link S3ServiceOptions} Sets the optional tuning settings
+     */
+    public S3AsyncClientService(String bucket, String awsKey, String awsSecret, String region, Integer minPartSize, Integer uploadThreshold, Integer partSize, Integer copyThreshold, Integer executorThread, S3ServiceOptions options) {
+        Assert.notNull(bucket, "bucket must be provided");
+        Assert.notNull(awsKey, "awsKey must be provided");
+        Assert.notNull(awsSecret, "awsSecret must be provided");
+        Assert.notNull(region, "region must be provided");
+        Assert.notNull(minPartSize,  "minimum part size must be provided");
+        Assert.notNull(uploadThreshold,  "upload threshold must be provided");
+        Assert.notNull(partSize,  "part size must be provided");
+        Assert.notNull(copyThreshold,  "copy threshold must be provided");
+        Assert.notNull(executorThread,  "executor thread must be provided");
+        Assert.notNull(options,  "options must be provided");
+        this.bucket = bucket;
+        this.partSize = Long.valueOf(minPartSize * MB);
+        this.uploadThreshold = Long.valueOf(uploadThreshold * MB);
+        this.options = options;
+        this.metrics = options.getMetrics();
+        // completions are handed over by the event loop, which must neither wait for room nor drop them
+        this.completionExecutor = new BoundedTransferExecutor(executorThread, options.getExecutorQueueCapacity(),
+                S3ServiceOptions.RejectionPolicy.CALLER_RUNS, "jsa-amazon-s3-async-callback-");
+        metrics.registerGauge("executor.queue.depth", () -> completionExecutor.getQueue().size());
+        metrics.registerGauge("executor.queue.wait.millis", completionExecutor::getQueueWaitMillis);
+        metrics.registerGauge("executor.caller.runs", completionExecutor::getCallerRunsCount);
+        metrics.registerGauge("executor.active.threads", completionExecutor::getActiveCount);
+        ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics(options.getMaxConnections());
+        poolMetrics.registerGauges(metrics);
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(awsKey, awsSecret)))
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(options.isPathStyleAccess()).build())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(options.getMaxConnections())
+                        .connectionTimeToLive(options.getConnectionTimeToLive())
+                        .connectionMaxIdleTime(options.getConnectionMaxIdleTime())
+                        .useIdleConnectionReaper(options.isIdleConnectionReaperEnabled())
+                        .connectionTimeout(options.getConnectionTimeout())
+                        .readTimeout(options.getSocketTimeout())
+                        .writeTimeout(options.getSocketTimeout())
+                        .tcpKeepAlive(options.isTcpKeepAlive()))
+                .overrideConfiguration(createOverrideConfiguration(poolMetrics))
+                .asyncConfiguration(ClientAsyncConfiguration.builder()
+                        .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, completionExecutor)
+                        .build());
+        if (options.getEndpoint() != null) {
+            builder.endpointOverride(URI.create(options.getEndpoint()));
+        }
+        this.s3 = builder.build();
+    }
+
+    /**
+     * Builds the client settings reporting connection pool statistics and limiting the duration of each request.
+     */
+    private ClientOverrideConfiguration createOverrideConfiguration(ConnectionPoolMetrics poolMetrics) {
+        ClientOverrideConfiguration.Builder configuration = ClientOverrideConfiguration.builder()
+                .addMetricPublisher(new PoolMetricPublisher(poolMetrics));
+        if (!options.getRequestTimeout().isZero()) {
+            configuration.apiCallAttemptTimeout(options.getRequestTimeout());
+        }
+        return configuration.build();
+    }
+
+    /**
+     * Closes the S3 client and stops the callback threads.
+     */
+    public void shutdown() {
+        s3.close();
+        completionExecutor.shutdownNow();
+    }
+
+    /**
+     * Creates/Updates the Provided {@link File} into S3 Bucket, as a multipart upload above the upload threshold.
+     *
+     * @param key  {@link String} key to store the file under
+     * @param file {@link File} to upload
+     */
+    @Override
+    public void put(String key, File file) {
+        join(putAsync(key, file));
+    }
+
+    /**
+     * Creates/Updates the Provided content into S3 Bucket
+     *
+     * @param key         {@link String} key to store the content under
+     * @param content     byte[] to store
+     * @param contentType Content Type of the content
+     */
+    @Override
+    public void put(String key, byte[] content, String contentType) {
+        join(putAsync(key, content, contentType));
+    }
+
+    /**
+     * Creates/Updates the remaining bytes of the buffer into S3 Bucket. The buffer's position and limit are left
+     * unchanged.
+     *
+     * @param key         {@link String} key to store the content under
+     * @param content     {@link ByteBuffer} whose remaining bytes are stored
+     * @param contentType Content Type of the content
+     */
+    @Override
+    public void putBuffer(String key, ByteBuffer content, String contentType) {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(content, "content must be provided");
+        Assert.notNull(contentType, "contentType must be provided");
+        ByteBuffer remaining = content.slice();
+        join(putObject(key, contentType, remaining.remaining(), () -> AsyncRequestBody.fromByteBuffer(remaining)));
+    }
+
+    /**
+     * Creates/Updates the content read from the stream into S3 Bucket. The stream is read in parts of minPartSize,
+     * sent as a multipart upload while the next part is read, and a stream shorter than one part is sent with a
+     * single put. Once a part failed, the rest of the stream is not read.
+     *
+     * @param key         {@link String} key to store the content under
+     * @param content     {@link InputStream} read to its end, left open
+     * @param contentType Content Type of the content
+     * @throws IOException when the stream cannot be read
+     */
+    @Override
+    public void putStream(String key, InputStream content, String contentType) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(content, "content must be provided");
+        Assert.notNull(contentType, "contentType must be provided");
+        byte[] buffer = new byte[(int) partSize];
+        int length = readFully(content, buffer);
+        if (length < buffer.length) {
+            int size = length;
+            join(putObject(key, contentType, size, () -> AsyncRequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, size))));
+            return;
+        }
+        long start = System.nanoTime();
+        metrics.started(Operation.PUT);
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        String uploadId = null;
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder().bucket(bucket).key(key).contentType(contentType).build())
+                    .join().uploadId();
+            Semaphore inFlight = new Semaphore(options.getStreamingUploadConcurrency());
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            long total = 0;
+            while (length > 0) {
+                if (parts.size() == StreamingMultipartUpload.MAX_PARTS) {
+                    throw new IllegalStateException("Content of " + key + " exceeds " + StreamingMultipartUpload.MAX_PARTS + " parts of " + partSize + " bytes");
+                }
+                inFlight.acquire();
+                if (failure.get() != null) {
+                    // the rest of the stream is not read, completing the upload reports the failed part
+                    break;
+                }
+                // the request body holds its own copy, so the buffer is reused for the next part
+                AsyncRequestBody body = AsyncRequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, length));
+                parts.add(uploadPart(key, uploadId, parts.size() + 1, length, body).whenComplete((part, e) -> {
+                    if (e != null) {
+                        failure.compareAndSet(null, e);
+                    }
+                    inFlight.release();
+                }));
+                total += length;
+                length = length < buffer.length ? 0 : readFully(content, buffer);
+            }
+            completeMultipartUpload(key, uploadId, parts).join();
+            bytes = total;
+            LOGGER.debug("Streamed {} bytes in {} parts to S3 bucket {} with location {}", total, parts.size(), keyValue("bucket", bucket), keyValue("location", key));
+        } catch (CompletionException e) {
+            status = statusOf(e);
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageServiceException(e);
+        } finally {
+            if (bytes < 0 && uploadId != null) {
+                CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).handle((done, e) -> null).join();
+                abortMultipartUpload(key, uploadId);
+            }
+            recordMetrics(Operation.PUT, start, bytes, status);
+        }
+    }
+
+    /**
+     * Creates/Updates every Provided {@link File} into S3 Bucket, sending them all at once and waiting once for the
+     * whole batch.
+     *
+     * @param files Map of key to {@link File}
+     * @return Map of key to the failure for every file that could not be uploaded
+     */
+    @Override
+    public Map<String, Exception> putAll(Map<String, File> files) {
+        Assert.notNull(files, "files must be provided");
+        Assert.noNullElements(files.keySet().toArray(), "keys must not contain null");
+        Assert.noNullElements(files.values().toArray(), "files must not contain null");
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        files.forEach((key, file) -> uploads.add(putAsync(key, file).handle((result, e) -> {
+            if (e != null) {
+                failures.put(key, Futures.asException(cause(e)));
+            }
+            return null;
+        })));
+        CompletableFuture.allOf(uploads.toArray(new CompletableFuture<?>[0])).join();
+        LOGGER.debug("Saved {} of {} documents to S3 bucket {}", files.size() - failures.size(), files.size(), keyValue("bucket", bucket));
+        return failures;
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(String key, File file) {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(file, "file must be provided");
+        long size = file.length();
+        String contentType = Mimetypes.getInstance().getMimetype(file);
+        if (size <= uploadThreshold) {
+            return putObject(key, contentType, size, () -> AsyncRequestBody.fromFile(file));
+        }
+        return measure(Operation.PUT, () -> uploadFile(key, file, size, contentType), done -> size);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(String key, byte[] content, String contentType) {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(content, "content must be provided");
+        Assert.notNull(contentType, "contentType must be provided");
+        return putObject(key, contentType, content.length, () -> AsyncRequestBody.fromBytes(content));
+    }
+
+    /**
+     * Gets the S3 content by Key.
+     *
+     * @param key {@link String} key of the object
+     * @return byte[] content
+     * @throws FileNotFoundException when no object exists for the key
+     */
+    @Override
+    public byte[] get(String key) throws FileNotFoundException {
+        return joinFetch(getAsync(key));
+    }
+
+    @Override
+    public byte[] get(String key, long offset, int length) throws FileNotFoundException {
+        Assert.notNull(key, "key must be provided");
+        Assert.isTrue(offset >= 0, "offset must not be negative");
+        Assert.isTrue(length >= 0, "length must not be negative");
+        if (length == 0) {
+            return new byte[0];
+        }
+        GetObjectRequest request = GetObjectRequest.builder().bucket(bucket).key(key).range("bytes=" + offset + "-" + (offset + length - 1)).build();
+        CompletableFuture<byte[]> range = measure(Operation.GET, () -> s3.getObject(request, AsyncResponseTransformer.toBytes())
+                .thenApply(ResponseBytes::asByteArray)
+                .exceptionally(e -> {
+                    if (statusOf(e) == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+                        return new byte[0];
+                    }
+                    throw unwrap(e);
+                }), content -> content.length);
+        return joinFetch(translate(key, range));
+    }
+
+    @Override
+    public InputStream getStream(String key) throws FileNotFoundException {
+        Assert.notNull(key, "key must be provided");
+        GetObjectRequest request = GetObjectRequest.builder().bucket(bucket).key(key).build();
+        // the stream is handed over once the response headers arrived, its content is not counted
+        return joinFetch(translate(key, measure(Operation.GET,
+                () -> s3.getObject(request, AsyncResponseTransformer.<GetObjectResponse>toBlockingInputStream()), in -> 0)));
+    }
+
+    @Override
+    public ReadableByteChannel getChannel(String key) throws FileNotFoundException {
+        return Channels.newChannel(getStream(key));
+    }
+
+    @Override
+    public long get(String key, OutputStream out) throws IOException {
+        Assert.notNull(out, "output stream must be provided");
+        try (InputStream in = getStream(key)) {
+            return IOUtils.copyLarge(in, out);
+        }
+    }
+
+    @Override
+    public long get(String key, WritableByteChannel out) throws IOException {
+        Assert.notNull(out, "output channel must be provided");
+        return get(key, Channels.newOutputStream(out));
+    }
+
+    /**
+     * Downloads the S3 content by Key into a local file, written as the response arrives without holding it in memory.
+     *
+     * @param key    {@link String} key of the object
+     * @param target {@link Path} of the local file, replaced if it exists
+     */
+    @Override
+    public void download(String key, Path target) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(target, "target must be provided");
+        GetObjectRequest request = GetObjectRequest.builder().bucket(bucket).key(key).build();
+        try {
+            joinFetch(translate(key, measure(Operation.GET,
+                    () -> s3.getObject(request, AsyncResponseTransformer.toFile(target, FileTransformerConfiguration.defaultCreateOrReplaceExisting())),
+                    GetObjectResponse::contentLength)));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the content of every key, at most {@link S3ServiceOptions#getBulkGetMaxInFlight()} requests at once, and
+     * hands each to the consumer on the calling thread as it arrives, so a slow consumer holds back further gets
+     * instead of a callback or event loop thread.
+     *
+     * @param keys     {@link Collection} of keys
+     * @param consumer {@link BiConsumer} receiving each key with its content, called by the calling thread
+     * @return Map of key to the failure for every key that could not be read
+     */
+    @Override
+    public Map<String, Exception> getAll(Collection<String> keys, BiConsumer<String, byte[]> consumer) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.noNullElements(keys.toArray(), "keys must not contain null");
+        Assert.notNull(consumer, "consumer must be provided");
+        Map<String, Exception> failures = new HashMap<>();
+        BlockingQueue<Map.Entry<String, CompletableFuture<byte[]>>> completed = new LinkedBlockingQueue<>();
+        Iterator<String> pending = new LinkedHashSet<>(keys).iterator();
+        int inFlight = 0;
+        try {
+            while (pending.hasNext() || inFlight > 0) {
+                while (pending.hasNext() && inFlight < options.getBulkGetMaxInFlight()) {
+                    String key = pending.next();
+                    CompletableFuture<byte[]> get = getAsync(key);
+                    get.whenComplete((content, e) -> completed.add(new AbstractMap.SimpleImmutableEntry<>(key, get)));
+                    inFlight++;
+                }
+                Map.Entry<String, CompletableFuture<byte[]>> done = completed.take();
+                inFlight--;
+                byte[] content;
+                try {
+                    content = done.getValue().join();
+                } catch (CompletionException e) {
+                    failures.put(done.getKey(), Futures.asException(cause(e)));
+                    continue;
+                }
+                try {
+                    consumer.accept(done.getKey(), content);
+                } catch (RuntimeException e) {
+                    failures.put(done.getKey(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            // the gets still in flight complete without being handed over
+            Thread.currentThread().interrupt();
+            throw new FileStorageServiceException(e);
+        }
+        return failures;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> getAsync(String key) {
+        Assert.notNull(key, "key must be provided");
+        LOGGER.debug("Fetching document from S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+        GetObjectRequest request = GetObjectRequest.builder().bucket(bucket).key(key).build();
+        return translate(key, measure(Operation.GET, () -> s3.getObject(request, AsyncResponseTransformer.toBytes())
+                .thenApply(ResponseBytes::asByteArray), content -> content.length));
+    }
+
+    @Override
+    public Date getDate(String key) throws FileNotFoundException {
+        return getInfo(key).getLastModified();
+    }
+
+    @Override
+    public CompletableFuture<Date> getDateAsync(String key) {
+        return infoAsync(key).thenApply(ObjectInfo::getLastModified);
+    }
+
+    @Override
+    public ObjectInfo getInfo(String key) throws FileNotFoundException {
+        return joinFetch(infoAsync(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        Assert.notNull(key, "key must be provided");
+        try {
+            getInfo(key);
+            return true;
+        } catch (FileNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the S3 content by Key only if it changed since the caller's copy, using If-None-Match with an ETag and
+     * If-Modified-Since otherwise.
+     *
+     * @param key           {@link String} key of the object
+     * @param eTag          ETag of the caller's copy, or {@code null}
+     * @param modifiedSince {@link Date} of the caller's copy, used without an ETag, or {@code null}
+     * @return {@link ConditionalGetResult}
+     * @throws FileNotFoundException when no object exists for the key
+     */
+    @Override
+    public ConditionalGetResult getIfModified(String key, String eTag, Date modifiedSince) throws FileNotFoundException {
+        Assert.notNull(key, "key must be provided");
+        GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucket).key(key);
+        if (eTag != null) {
+            request.ifNoneMatch(eTag);
+        } else if (modifiedSince != null) {
+            request.ifModifiedSince(modifiedSince.toInstant());
+        }
+        CompletableFuture<ConditionalGetResult> result = measure(Operation.GET, () -> s3.getObject(request.build(), AsyncResponseTransformer.toBytes())
+                .thenApply(response -> {
+                    byte[] content = response.asByteArray();
+                    return ConditionalGetResult.modified(content,
+                            new ObjectInfo(key, Date.from(response.response().lastModified()), response.response().eTag(), content.length));
+                })
+                .exceptionally(e -> {
+                    if (statusOf(e) == HttpStatus.SC_NOT_MODIFIED) {
+                        return ConditionalGetResult.notModified();
+                    }
+                    throw unwrap(e);
+                }), conditional -> conditional.isModified() ? conditional.getContent().length : 0);
+        return joinFetch(translate(key, result));
+    }
+
+    /**
+     * Deletes the S3 content by Key.
+     *
+     * @param key {@link String} key of the object
+     */
+    @Override
+    public void delete(String key) {
+        join(deleteAsync(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(String key) {
+        Assert.notNull(key, "key must be provided");
+        DeleteObjectRequest request = DeleteObjectRequest.builder().bucket(bucket).key(key).build();
+        return measure(Operation.DELETE, () -> s3.deleteObject(request).thenApply(response -> (Void) null), done -> 0);
+    }
+
+    /**
+     * Deletes the S3 content of every Key using multi-object delete requests of up to 1000 keys, running
+     * {@link S3ServiceOptions#getBulkDeleteParallelism()} requests at once.
+     *
+     * @param keys {@link Collection} of keys
+     * @return Map of key to the failure for every key S3 did not delete
+     */
+    @Override
+    public Map<String, Exception> deleteAll(Collection<String> keys) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.noNullElements(keys.toArray(), "keys must not contain null");
+        List<String> remaining = new ArrayList<>(keys);
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(options.getBulkDeleteParallelism());
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        try {
+            for (int from = 0; from < remaining.size(); from += MAX_KEYS_PER_DELETE) {
+                List<String> batch = remaining.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, remaining.size()));
+                inFlight.acquire();
+                batches.add(deleteBatch(batch).handle((errors, e) -> {
+                    inFlight.release();
+                    if (e != null) {
+                        LOGGER.error(e.getMessage(), e);
+                        batch.forEach(key -> failures.put(key, Futures.asException(cause(e))));
+                    } else {
+                        errors.forEach(error -> failures.put(error.key(), new FileStorageServiceException(error.code() + ": " + error.message())));
+                    }
+                    return null;
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageServiceException(e);
+        } finally {
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).join();
+        }
+        LOGGER.debug("Deleted {} of {} documents from S3 bucket {}", keys.size() - failures.size(), keys.size(), keyValue("bucket", bucket));
+        return failures;
+    }
+
+    private CompletableFuture<List<S3Error>> deleteBatch(List<String> keys) {
+        List<ObjectIdentifier> objects = keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).collect(Collectors.toList());
+        DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(bucket)
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build();
+        // the request itself succeeded when S3 reports per-key errors, they are returned to the caller
+        return measure(Operation.DELETE, () -> s3.deleteObjects(request).thenApply(response -> response.errors()), errors -> 0);
+    }
+
+    private CompletableFuture<ObjectInfo> infoAsync(String key) {
+        Assert.notNull(key, "key must be provided");
+        LOGGER.debug("Getting metadata for document from S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+        HeadObjectRequest request = HeadObjectRequest.builder().bucket(bucket).key(key).build();
+        return translate(key, measure(Operation.GET_DATE, () -> s3.headObject(request).thenApply((HeadObjectResponse response) ->
+                new ObjectInfo(key, Date.from(response.lastModified()), response.eTag(), response.contentLength())), info -> 0));
+    }
+
+    private CompletableFuture<Void> putObject(String key, String contentType, long length, Supplier<AsyncRequestBody> body) {
+        LOGGER.debug("Sending document to S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+        PutObjectRequest request = PutObjectRequest.builder().bucket(bucket).key(key).contentType(contentType).contentLength(length).build();
+        return measure(Operation.PUT, () -> s3.putObject(request, body.get()).thenApply(response -> (Void) null), done -> length);
+    }
+
+    /**
+     * Uploads a file as a multipart upload, each of a fixed number of lanes sending the next part once its previous
+     * one is sent, so no thread waits while parts are in flight.
+     */
+    private CompletableFuture<Void> uploadFile(String key, File file, long size, String contentType) {
+        // grow the parts of huge files so they fit the part limit
+        long filePartSize = Math.max(partSize, (size + StreamingMultipartUpload.MAX_PARTS - 1) / StreamingMultipartUpload.MAX_PARTS);
+        int partCount = (int) ((size + filePartSize - 1) / filePartSize);
+        LOGGER.debug("Uploading {} bytes in {} parts to S3 bucket {} with location {}", size, partCount, keyValue("bucket", bucket), keyValue("location", key));
+        return s3.createMultipartUpload(CreateMultipartUploadRequest.builder().bucket(bucket).key(key).contentType(contentType).build())
+                .thenCompose(created -> {
+                    String uploadId = created.uploadId();
+                    List<CompletableFuture<CompletedPart>> parts = new ArrayList<>(partCount);
+                    for (int i = 0; i < partCount; i++) {
+                        parts.add(new CompletableFuture<>());
+                    }
+                    AtomicInteger next = new AtomicInteger();
+                    AtomicBoolean failed = new AtomicBoolean();
+                    List<CompletableFuture<Void>> lanes = new ArrayList<>();
+                    for (int i = 0; i < Math.min(options.getStreamingUploadConcurrency(), partCount); i++) {
+                        lanes.add(uploadLane(key, uploadId, file, size, filePartSize, parts, next, failed));
+                    }
+                    // every lane stopped before the upload is completed or aborted
+                    return CompletableFuture.allOf(lanes.toArray(new CompletableFuture<?>[0]))
+                            .thenCompose(done -> completeMultipartUpload(key, uploadId, parts))
+                            .whenComplete((done, e) -> {
+                                if (e != null) {
+                                    abortMultipartUpload(key, uploadId);
+                                }
+                            });
+                });
+    }
+
+    private CompletableFuture<Void> uploadLane(String key, String uploadId, File file, long size, long filePartSize,
+                                               List<CompletableFuture<CompletedPart>> parts, AtomicInteger next, AtomicBoolean failed) {
+        int index = next.getAndIncrement();
+        if (failed.get() || index >= parts.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long offset = index * filePartSize;
+        long length = Math.min(filePartSize, size - offset);
+        // the part is read from the file as it is sent, the lane may run on an event loop thread
+        AsyncRequestBody body = AsyncRequestBody.fromFile(FileRequestBodyConfiguration.builder()
+                .path(file.toPath())
+                .position(offset)
+                .numBytesToRead(length)
+                .build());
+        return uploadPart(key, uploadId, index + 1, length, body)
+                .whenComplete((part, e) -> {
+                    if (e != null) {
+                        failed.set(true);
+                    } else {
+                        parts.get(index).complete(part);
+                    }
+                })
+                .thenCompose(part -> uploadLane(key, uploadId, file, size, filePartSize, parts, next, failed));
+    }
+
+    private CompletableFuture<CompletedPart> uploadPart(String key, String uploadId, int partNumber, long length, AsyncRequestBody body) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength(length)
+                .build();
+        return s3.uploadPart(request, body).thenApply(response -> CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+    }
+
+    private CompletableFuture<Void> completeMultipartUpload(String key, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        List<CompletedPart> completed = parts.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        CompleteMultipartUploadRequest request = CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                .build();
+        return s3.completeMultipartUpload(request).thenApply(response -> (Void) null);
+    }
+
+    private void abortMultipartUpload(String key, String uploadId) {
+        s3.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build())
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        LOGGER.error("Failed aborting multipart upload of {}, the janitor will clean it up", keyValue("location", key), e);
+                    }
+                });
+    }
+
+    /**
+     * Records the latency, size and outcome of a request once it completes.
+     *
+     * @param operation {@link Operation} measured
+     * @param request   {@link Supplier} sending the request
+     * @param size      {@link ToLongFunction} giving the bytes transferred from the result
+     * @return future of the request, completed after its metrics are recorded
+     */
+    private <T> CompletableFuture<T> measure(Operation operation, Supplier<CompletableFuture<T>> request, ToLongFunction<T> size) {
+        long start = System.nanoTime();
+        metrics.started(operation);
+        CompletableFuture<T> sent;
+        try {
+            sent = request.get();
+        } catch (RuntimeException e) {
+            recordMetrics(operation, start, -1, StorageMetrics.NO_STATUS);
+            throw e;
+        }
+        return sent.whenComplete((result, e) -> recordMetrics(operation, start, e == null ? size.applyAsLong(result) : -1, statusOf(e)));
+    }
+
+    /**
+     * Completes exceptionally like {@link S3Service} fails a read: a missing key with a {@link FileNotFoundException},
+     * other S3 errors with an {@link IllegalStateException}.
+     */
+    private <T> CompletableFuture<T> translate(String key, CompletableFuture<T> read) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        read.whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(e);
+            if (cause instanceof SdkServiceException) {
+                if (statusOf(cause) == HttpStatus.SC_NOT_FOUND) {
+                    LOGGER.debug("No document in S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+                    result.completeExceptionally(new FileNotFoundException("Unable to locate document asset with Key " + key));
+                    return;
+                }
+                String errorMessage = String.format("Failed fetching document from S3 bucket %s with location %s\n\n%s",
+                        keyValue("bucket", bucket), keyValue("location", key), cause.getMessage());
+                LOGGER.error(errorMessage, cause);
+                cause = new IllegalStateException("Unexpected error trying to download asset, try again later", cause);
+            }
+            result.completeExceptionally(cause);
+        });
+        return result;
+    }
+
+    private static <T> T joinFetch(CompletableFuture<T> read) throws FileNotFoundException {
+        try {
+            return read.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof FileNotFoundException) {
+                throw (FileNotFoundException) e.getCause();
+            }
+            throw unwrap(e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> write) {
+        try {
+            return write.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * @param failure {@link Throwable} a future completed with
+     * @return the failure of a future, without the {@link CompletionException} dependent stages wrap it in
+     */
+    private static Throwable cause(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * @param failure {@link Throwable} a future completed with
+     * @return the cause of a {@link CompletionException}, as is when unchecked or wrapped in a
+     * {@link FileStorageServiceException} otherwise
+     */
+    private static RuntimeException unwrap(Throwable failure) {
+        Throwable cause = cause(failure);
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new FileStorageServiceException(cause);
+    }
+
+    private static int statusOf(Throwable failure) {
+        Throwable cause = cause(failure);
+        return cause instanceof SdkServiceException ? ((SdkServiceException) cause).statusCode() : StorageMetrics.NO_STATUS;
+    }
+
+    private void recordMetrics(Operation operation, long start, long bytes, int status) {
+        long latencyNanos = System.nanoTime() - start;
+        if (bytes >= 0) {
+            metrics.succeeded(operation, latencyNanos, bytes);
+        } else {
+            metrics.failed(operation, latencyNanos, status);
+        }
+    }
+
+    /**
+     * Reads until the buffer is full or the stream ends.
+     *
+     * @return number of bytes read, less than the buffer size only at the end of the stream
+     */
+    private static int readFully(InputStream content, byte[] buffer) throws IOException {
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = content.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        return length;
+    }
+
+    /**
+     * Hands the connection pool statistics the SDK reports for every request attempt to {@link ConnectionPoolMetrics}.
+     */
+    private static final class PoolMetricPublisher implements MetricPublisher {
+        private final ConnectionPoolMetrics poolMetrics;
+
+        private PoolMetricPublisher(ConnectionPoolMetrics poolMetrics) {
+            this.poolMetrics = poolMetrics;
+        }
+
+        @Override
+        public void publish(MetricCollection collection) {
+            List<Integer> leased = collection.metricValues(HttpMetric.LEASED_CONCURRENCY);
+            List<Integer> pending = collection.metricValues(HttpMetric.PENDING_CONCURRENCY_ACQUIRES);
+            for (int i = 0; i < Math.min(leased.size(), pending.size()); i++) {
+                poolMetrics.record(leased.get(i), pending.get(i));
+            }
+            // the HTTP client's statistics are nested below the API call and its attempts
+            collection.children().forEach(this::publish);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
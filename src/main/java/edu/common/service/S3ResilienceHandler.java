@@ -0,0 +1,244 @@
+package edu.common.service;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.retry.RetryPolicy;
+import com.amazonaws.retry.RetryUtils;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * Retries, retry budget and circuit breaker of the S3 client of one bucket, plugged into the SDK as its
+ * {@link RetryPolicy} and a {@link RequestHandler2}, so they apply to every request including the parts and ranges
+ * TransferManager sends.
+ * <p>
+ * Every failed attempt is classified as a {@link Failure}. Throttling, server and network failures are retried after
+ * a random backoff up to an exponentially growing ceiling ("full jitter"), throttling from a longer base delay, as
+ * long as the {@link RetryBudget} allows and the circuit is not open; client errors such as a missing key and local
+ * errors are never retried. Requests still failing with throttling, server or network errors after their retries count towards the
+ * {@link CircuitBreaker}, while any answer from S3 resets it; failures of the client itself do neither.
+ */
+class S3ResilienceHandler extends RequestHandler2 {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3ResilienceHandler.class);
+
+    /**
+     * Kind of a failed attempt.
+     */
+    enum Failure {
+        /**
+         * S3 asked for less load, such as a 503 SlowDown or a 429.
+         */
+        THROTTLED,
+        /**
+         * S3 failed with a 5xx or another error the SDK considers transient, such as a request timeout.
+         */
+        SERVER_ERROR,
+        /**
+         * No response was received, such as a reset connection or a socket timeout.
+         */
+        NETWORK,
+        /**
+         * The request itself was refused, such as a missing key or a failed precondition.
+         */
+        CLIENT_ERROR,
+        /**
+         * The client failed without an answer from S3 and without a network error, such as a checksum mismatch or
+         * an unreadable file; S3 may be healthy or not.
+         */
+        LOCAL_ERROR
+    }
+
+    private final String bucket;
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long throttledBaseDelayMillis;
+    private final long maxDelayMillis;
+    private final RetryBudget budget;
+    private final CircuitBreaker breaker;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder throttledRetries = new LongAdder();
+    private final LongAdder circuitDeniedRetries = new LongAdder();
+    private final LongAdder backoffMillis = new LongAdder();
+    private final LongAdder throttledErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder networkErrors = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+
+    /**
+     * @param bucket  {@link String} name of the bucket, for the circuit breaker's log messages and exceptions
+     * @param options {@link S3ServiceOptions} with the retry and circuit breaker settings
+     */
+    S3ResilienceHandler(String bucket, S3ServiceOptions options) {
+        this.bucket = bucket;
+        this.maxRetries = options.getMaxRetries();
+        this.baseDelayMillis = options.getRetryBaseDelay().toMillis();
+        this.throttledBaseDelayMillis = options.getRetryThrottledBaseDelay().toMillis();
+        this.maxDelayMillis = options.getRetryMaxDelay().toMillis();
+        this.budget = new RetryBudget(options.getRetryBudgetCapacity());
+        this.breaker = options.isCircuitBreakerEnabled()
+                ? new CircuitBreaker(options.getCircuitBreakerFailureThreshold(), options.getCircuitBreakerOpenDuration())
+                : null;
+    }
+
+    /**
+     * @return {@link RetryPolicy} of the S3 client
+     */
+    RetryPolicy getRetryPolicy() {
+        return new RetryPolicy(this::shouldRetry, this::delayBeforeNextRetry, maxRetries, false);
+    }
+
+    /**
+     * Registers the retry.*, errors.* and circuit.* gauges.
+     *
+     * @param metrics {@link StorageMetrics} to register with
+     */
+    void registerGauges(StorageMetrics metrics) {
+        metrics.registerGauge("retry.attempts", retries::sum);
+        metrics.registerGauge("retry.throttled", throttledRetries::sum);
+        metrics.registerGauge("retry.budget.tokens", budget::getTokens);
+        metrics.registerGauge("retry.budget.exhausted", budget::getExhaustedCount);
+        metrics.registerGauge("retry.circuit.denied", circuitDeniedRetries::sum);
+        metrics.registerGauge("retry.backoff.millis", backoffMillis::sum);
+        metrics.registerGauge("errors.throttled", throttledErrors::sum);
+        metrics.registerGauge("errors.server", serverErrors::sum);
+        metrics.registerGauge("errors.network", networkErrors::sum);
+        metrics.registerGauge("errors.client", clientErrors::sum);
+        if (breaker != null) {
+            metrics.registerGauge("circuit.state", () -> breaker.getState().ordinal());
+            metrics.registerGauge("circuit.opened", breaker::getOpenedCount);
+            metrics.registerGauge("circuit.rejected", breaker::getRejectedCount);
+        }
+    }
+
+    /**
+     * Classifies the failure of an attempt.
+     *
+     * @param e {@link Exception} the attempt failed with
+     * @return {@link Failure} kind
+     */
+    static Failure classify(Exception e) {
+        if (e instanceof AmazonServiceException) {
+            AmazonServiceException service = (AmazonServiceException) e;
+            if (RetryUtils.isThrottlingException(service)) {
+                return Failure.THROTTLED;
+            }
+            if (service.getStatusCode() >= 500 || RetryUtils.isRetryableServiceException(service) || RetryUtils.isClockSkewError(service)) {
+                return Failure.SERVER_ERROR;
+            }
+            return Failure.CLIENT_ERROR;
+        }
+        if (e instanceof AmazonClientException && e.getCause() instanceof IOException) {
+            return Failure.NETWORK;
+        }
+        // only an AmazonServiceException is an answer from S3
+        return Failure.LOCAL_ERROR;
+    }
+
+    /**
+     * Refuses the request without sending it while the circuit is open.
+     */
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        if (breaker != null && !breaker.tryAcquire()) {
+            throw new CircuitBreakerOpenException(bucket);
+        }
+        return request;
+    }
+
+    @Override
+    public void afterAttempt(HandlerAfterAttemptContext context) {
+        if (context.getException() == null) {
+            return;
+        }
+        switch (classify(context.getException())) {
+            case THROTTLED:
+                throttledErrors.increment();
+                break;
+            case SERVER_ERROR:
+                serverErrors.increment();
+                break;
+            case NETWORK:
+                networkErrors.increment();
+                break;
+            case CLIENT_ERROR:
+                clientErrors.increment();
+                break;
+            default:
+                // not an S3 error
+        }
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        budget.onSuccess();
+        if (breaker != null && breaker.onSuccess()) {
+            LOGGER.info("Closed the circuit breaker of S3 bucket {}", keyValue("bucket", bucket));
+        }
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        if (breaker == null) {
+            return;
+        }
+        Failure failure = classify(e);
+        if (failure == Failure.LOCAL_ERROR) {
+            return;
+        }
+        if (failure == Failure.CLIENT_ERROR) {
+            // S3 answered, the bucket is reachable
+            if (breaker.onSuccess()) {
+                LOGGER.info("Closed the circuit breaker of S3 bucket {}", keyValue("bucket", bucket));
+            }
+        } else if (breaker.onFailure()) {
+            LOGGER.warn("Opened the circuit breaker of S3 bucket {} after {}", keyValue("bucket", bucket), e.toString());
+        }
+    }
+
+    /**
+     * Retries throttling, server and network failures while the budget allows and the circuit is not open.
+     */
+    boolean shouldRetry(AmazonWebServiceRequest request, AmazonClientException e, int retriesAttempted) {
+        Failure failure = classify(e);
+        if (failure == Failure.CLIENT_ERROR || failure == Failure.LOCAL_ERROR) {
+            return false;
+        }
+        if (breaker != null && breaker.getState() == CircuitBreaker.State.OPEN) {
+            circuitDeniedRetries.increment();
+            return false;
+        }
+        if (!budget.tryAcquire()) {
+            return false;
+        }
+        retries.increment();
+        if (failure == Failure.THROTTLED) {
+            throttledRetries.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Waits a random time up to the base delay times 2^retriesAttempted, capped at the maximum delay.
+     */
+    long delayBeforeNextRetry(AmazonWebServiceRequest request, AmazonClientException e, int retriesAttempted) {
+        long base = classify(e) == Failure.THROTTLED ? throttledBaseDelayMillis : baseDelayMillis;
+        long ceiling = Math.min(maxDelayMillis, base << Math.min(retriesAttempted, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        backoffMillis.add(delay);
+        return delay;
+    }
+}
@@ -1,10 +1,37 @@
 package edu.common.service;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpStatus;
@@ -14,27 +41,66 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.StopWatch;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.*;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
+import com.amazonaws.services.s3.transfer.internal.AbstractTransfer;
+import com.amazonaws.services.s3.transfer.internal.TransferStateChangeListener;
+
+import edu.common.service.StorageMetrics.Operation;
 
 import static com.amazonaws.services.s3.internal.Constants.MB;
 import static net.logstash.logback.argument.StructuredArguments.keyValue;
 
 @Service
-public class S3Service implements IFileStorageService {
+public class S3Service implements IFileStorageService, IAsyncFileStorageService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(S3Service.class);
 
+    /**
+     * Size of the buffer each ranged download part copies through.
+     */
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Maximum number of keys S3 accepts in a single multi-object delete request.
+     */
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
     private String bucket;
 
+    /**
+     * Size in bytes of the ranges a download is split into, matches the minimum upload part size.
+     */
+    private long downloadPartSize;
+
+    /**
+     * Number of ranges of one download fetched at once, matches the number of executor threads.
+     */
+    private int downloadConcurrency;
+
+    /**
+     * Size threshold in bytes above which downloads are split into concurrently fetched ranges, matches the upload threshold.
+     */
+    private long downloadThreshold;
+
+    /**
+     * Size threshold in bytes above which file uploads use multipart uploads.
+     */
+    private long uploadThreshold;
+
     /**
      * Provides an interface for accessing the Amazon S3 web service.
      */
@@ -45,6 +111,56 @@ public class S3Service implements IFileStorageService {
      */
     private TransferManager tm;
 
+    /**
+     * Worker pool shared by the TransferManager, ranged downloads and asynchronous operations, a
+     * {@link VirtualThreadExecutor} when virtual threads are enabled.
+     */
+    private ExecutorService executorService;
+
+    /**
+     * Optional tuning settings.
+     */
+    private S3ServiceOptions options;
+
+    /**
+     * Receives the latency, size and outcome of every operation.
+     */
+    private StorageMetrics metrics;
+
+    /**
+     * Aggregates the progress of running transfers.
+     */
+    private TransferProgressTracker progressTracker;
+
+    /**
+     * Runs the {@link MultipartUploadJanitor}, {@code null} when it is disabled.
+     */
+    private ScheduledExecutorService janitorScheduler;
+
+    /**
+     * Caches the metadata read by {@link #getDate(String)} and {@link #exists(String)}, {@code null} when disabled.
+     */
+    private ObjectMetadataCache metadataCache;
+
+    /**
+     * Coalesce concurrent gets and metadata lookups of the same key, {@code null} when disabled.
+     */
+    private SingleFlight<byte[]> inFlightGets;
+    private SingleFlight<ObjectInfo> inFlightHeads;
+
+    /**
+     * Sends the content of {@link #putStream(String, InputStream, String)} in parts read into pooled buffers.
+     */
+    private StreamingMultipartUpload streamingUpload;
+
+    /**
+     * Choose the part size and concurrency of each file upload and download above the threshold, {@code null} when
+     * adaptive transfers are disabled.
+     */
+    private TransferTuner uploadTuner;
+    private TransferTuner downloadTuner;
+    private AdaptiveMultipartUpload adaptiveUpload;
+
     /**
      * Creates the S3 Service Object using the provided credentials. Defaults to US_EAST_1 region.
      *
@@ -55,7 +171,7 @@ public class S3Service implements IFileStorageService {
      * @param uploadThreshold  {@link Integer} Sets the size threshold, in bytes, for when to use multipart uploads
      * @param partSize         {@link Integer} Sets the minimum size in bytes of each part when a multi-part copy operation is carried out
      * @param copyThreshold    {@link Integer} Sets the size threshold, in bytes, for when to use multi-part copy
-     * @param executorThread   {@link Integer} Sets the number of threads in the pool used to operate off a shared unbounded queue
+     * @param executorThread   {@link Integer} Sets the number of threads in the pool used to operate off a shared bounded queue
      */
     public S3Service(String bucket, String awsKey, String awsSecret, Integer minPartSize, Integer uploadThreshold, Integer partSize, Integer copyThreshold, Integer executorThread) {
         this(bucket, awsKey, awsSecret, "us-east-1", minPartSize, uploadThreshold, partSize, copyThreshold, executorThread);
@@ -72,9 +188,27 @@ public class S3Service implements IFileStorageService {
      * @param uploadThreshold  {@link Integer} Sets the size threshold, in bytes, for when to use multipart uploads
      * @param partSize         {@link Integer} Sets the minimum size in bytes of each part when a multi-part copy operation is carried out
      * @param copyThreshold    {@link Integer} Sets the size threshold, in bytes, for when to use multi-part copy
-     * @param executorThread   {@link Integer} Sets the number of threads in the pool used to operate off a shared unbounded queue
+     * @param executorThread   {@link Integer} Sets the number of threads in the pool used to operate off a shared bounded queue
      */
     public S3Service(String bucket, String awsKey, String awsSecret, String region, Integer minPartSize, Integer uploadThreshold, Integer partSize, Integer copyThreshold, Integer executorThread) {
+        this(bucket, awsKey, awsSecret, region, minPartSize, uploadThreshold, partSize, copyThreshold, executorThread, new S3ServiceOptions());
+    }
+
+    /**
+     * Creates the S3 Service Object using the provided credentials, region and tuning options.
+     *
+     * @param bucket    {@link String} S3 Bucket created by S3 customer
+     * @param awsKey    {@link BasicAWSCredentials#accessKey}
+     * @param awsSecret {@link BasicAWSCredentials#secretKey}
+     * @param region    {@link Regions} Sets S3 Region
+     * @param minPartSize      {@link Integer} Sets the minimum part size for upload parts
+     * @param uploadThreshold  {@link Integer} Sets the size threshold, in bytes, for when to use multipart uploads
+     * @param partSize         {@link Integer} Sets the minimum size in bytes of each part when a multi-part copy operation is carried out
+     * @param copyThreshold    {@link Integer} Sets the size threshold, in bytes, for when to use multi-part copy
+     * @param executorThread   {@link Integer} Sets the number of threads in the pool used to operate off a shared bounded queue
+     * @param options          {@link S3ServiceOptions} Sets the optional tuning settings
+     */
+    public S3Service(String bucket, String awsKey, String awsSecret, String region, Integer minPartSize, Integer uploadThreshold, Integer partSize, Integer copyThreshold, Integer executorThread, S3ServiceOptions options) {
         Assert.notNull(bucket, "bucket must be provided");
         Assert.notNull(awsKey, "awsKey must be provided");
         Assert.notNull(awsSecret, "awsSecret must be provided");
@@ -84,12 +218,76 @@ public class S3Service implements IFileStorageService {
         Assert.notNull(partSize,  "part size must be provided");
         Assert.notNull(copyThreshold,  "copy threshold must be provided");
         Assert.notNull(executorThread,  "executor thread must be provided");
+        Assert.notNull(options,  "options must be provided");
         this.bucket = bucket;
-        s3 = AmazonS3ClientBuilder
+        this.options = options;
+        this.progressTracker = new TransferProgressTracker(options.getProgressSampleInterval(), options.getProgressCallback());
+        this.downloadPartSize = Long.valueOf(minPartSize * MB);
+        this.downloadConcurrency = executorThread;
+        this.downloadThreshold = Long.valueOf(uploadThreshold * MB);
+        this.uploadThreshold = Long.valueOf(uploadThreshold * MB);
+        this.metrics = options.getMetrics();
+        boolean virtualThreads = options.isVirtualThreadsEnabled() && VirtualThreadExecutor.isSupported();
+        if (virtualThreads) {
+            VirtualThreadExecutor virtual = new VirtualThreadExecutor(options.getVirtualThreadMaxConcurrency(), "jsa-amazon-s3-virtual-worker-");
+            this.executorService = virtual;
+            metrics.registerGauge("executor.queue.depth", virtual::getWaitingCount);
+            metrics.registerGauge("executor.active.threads", virtual::getActiveCount);
+        } else {
+            if (options.isVirtualThreadsEnabled()) {
+                LOGGER.warn("Virtual threads need Java 21 or later, running {} on a pool of {} threads", Runtime.version(), executorThread);
+            }
+            BoundedTransferExecutor pool = createExecutorService(executorThread);
+            this.executorService = pool;
+            metrics.registerGauge("executor.queue.depth", () -> pool.getQueue().size());
+            metrics.registerGauge("executor.queue.wait.millis", pool::getQueueWaitMillis);
+            metrics.registerGauge("executor.rejected", pool::getRejectedCount);
+            metrics.registerGauge("executor.caller.runs", pool::getCallerRunsCount);
+            metrics.registerGauge("executor.active.threads", pool::getActiveCount);
+        }
+        metrics.registerGauge("transfers.active", () -> progressTracker.getActiveTransfers().size());
+        if (!options.getMetadataCacheTimeToLive().isZero()) {
+            metadataCache = new ObjectMetadataCache(options.getMetadataCacheMaximumSize(),
+                    options.getMetadataCacheTimeToLive(), options.getMetadataCacheNegativeTimeToLive());
+        }
+        PartBufferPool partBuffers = new PartBufferPool(minPartSize * MB, options.getStreamingUploadBufferPoolSize());
+        metrics.registerGauge("streaming.buffers.in.use", partBuffers::getInUse);
+        if (options.isRequestCoalescingEnabled()) {
+            SingleFlight<byte[]> gets = new SingleFlight<>(byte[]::clone);
+            SingleFlight<ObjectInfo> heads = new SingleFlight<>(info -> info);
+            inFlightGets = gets;
+            inFlightHeads = heads;
+            metrics.registerGauge("requests.coalesced", () -> gets.getCoalescedCount() + heads.getCoalescedCount());
+        }
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder
                 .standard()
-                .withRegion(Regions.fromName(region))
                 .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(awsKey, awsSecret)))
-                .build();
+                .withPathStyleAccessEnabled(options.isPathStyleAccess());
+        int maxConnections = options.getMaxConnections();
+        if (virtualThreads) {
+            // a smaller pool would otherwise cap the concurrency virtual threads allow
+            maxConnections = Math.max(maxConnections, options.getVirtualThreadMaxConcurrency());
+        }
+        ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics(maxConnections);
+        poolMetrics.registerGauges(metrics);
+        S3ResilienceHandler resilience = new S3ResilienceHandler(bucket, options);
+        resilience.registerGauges(metrics);
+        builder.withClientConfiguration(createClientConfiguration(maxConnections, resilience))
+                .withMetricsCollector(poolMetrics)
+                .withRequestHandlers(resilience);
+        if (options.getEndpoint() != null) {
+            builder.withEndpointConfiguration(new EndpointConfiguration(options.getEndpoint(), Regions.fromName(region).getName()));
+        } else {
+            builder.withRegion(Regions.fromName(region));
+        }
+        s3 = builder.build();
+
+        streamingUpload = new StreamingMultipartUpload(s3, bucket, executorService, partBuffers, options.getStreamingUploadConcurrency());
+        if (options.isAdaptiveTransfersEnabled()) {
+            uploadTuner = newTransferTuner("upload", minPartSize * MB);
+            downloadTuner = newTransferTuner("download", minPartSize * MB);
+            adaptiveUpload = new AdaptiveMultipartUpload(s3, bucket, executorService, uploadTuner);
+        }
 
         tm = TransferManagerBuilder.standard()
                 .withS3Client(s3)
@@ -98,8 +296,47 @@ public class S3Service implements IFileStorageService {
                 .withMultipartUploadThreshold(Long.valueOf(uploadThreshold * MB))
                 .withMultipartCopyPartSize(Long.valueOf(partSize * MB))
                 .withMultipartCopyThreshold(Long.valueOf(copyThreshold * MB))
-                .withExecutorFactory(() -> createExecutorService(executorThread))
+                .withExecutorFactory(() -> executorService)
                 .build();
+
+        if (options.isMultipartJanitorEnabled()) {
+            janitorScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "jsa-amazon-s3-multipart-upload-janitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, options.getMultipartJanitorInterval().toMillis());
+            // start at a random point of the first interval so nodes sharing the bucket do not sweep in lockstep
+            janitorScheduler.scheduleWithFixedDelay(
+                    new MultipartUploadJanitor(s3, bucket, options.getMultipartUploadMaxAge(), options.getMultipartJanitorMaxAbortsPerRun()),
+                    ThreadLocalRandom.current().nextLong(interval), interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Gets the progress of the uploads and downloads currently running, with their throughput and estimated time remaining.
+     *
+     * @return {@link TransferProgress} of every running transfer
+     */
+    public Collection<TransferProgress> getActiveTransfers() {
+        return progressTracker.getActiveTransfers();
+    }
+
+    /**
+     * @return {@link CacheStats} of the metadata cache, all zero when it is disabled
+     */
+    public CacheStats getMetadataCacheStats() {
+        return metadataCache == null ? new CacheStats(0, 0, 0, 0, 0) : metadataCache.getStats();
+    }
+
+    /**
+     * Stops the multipart upload janitor and the TransferManager, releasing their threads and the S3 client.
+     */
+    public void shutdown() {
+        if (janitorScheduler != null) {
+            janitorScheduler.shutdownNow();
+        }
+        tm.shutdownNow(true);
     }
 
     /**
@@ -113,29 +350,42 @@ public class S3Service implements IFileStorageService {
         Assert.notNull(key, "key must be provided");
         Assert.notNull(file, "file must be provided");
         StopWatch stopWatch = new StopWatch();
+        PutObjectRequest request = new PutObjectRequest(bucket, key, file);
+        TransferProgress progress = trackProgress(request, file.length());
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.PUT);
         try {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.info("Sending document to S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
                 stopWatch.start();
             }
-            PutObjectRequest request = new PutObjectRequest(bucket, key, file);
-
-            request.setGeneralProgressListener(progressEvent -> LOGGER.info("Transferred bytes: {}", progressEvent.getBytesTransferred()));
-
-            Upload upload = tm.upload(request);
-            upload.waitForCompletion();
-            tm.abortMultipartUploads(bucket, days());
+            if (isAdaptive(request)) {
+                join(adaptiveUpload.upload(key, file, progress));
+            } else {
+                Upload upload = tm.upload(request);
+                upload.waitForCompletion();
+            }
+            progress.finish(true);
+            bytes = file.length();
             if (LOGGER.isDebugEnabled()) {
                 stopWatch.stop();
                 LOGGER.info("Document saved to S3 bucket {} with location {} in {} milliseconds",
                         keyValue("bucket", bucket), keyValue("location", key), stopWatch.getTotalTimeMillis());
             }
         } catch (AmazonServiceException e) {
+            status = e.getStatusCode();
             String.format("Failed saving to S3 bucket %s with location %s\n\n%s", keyValue("bucket", bucket).toString(), keyValue("location", key).toString(), e.getMessage());
             throw e;
         }
         catch (InterruptedException e) {
             throw new FileStorageServiceException(e);
+        } finally {
+            // no-op once the upload completed
+            progress.finish(false);
+            recordMetrics(Operation.PUT, start, bytes, status);
+            invalidate(key);
         }
     }
 
@@ -151,39 +401,212 @@ public class S3Service implements IFileStorageService {
         Assert.notNull(key, "key must be provided");
         Assert.notNull(content, "content must be provided");
         Assert.notNull(contentType, "contentType must be provided");
-        ObjectMetadata objectMetadata = new ObjectMetadata();
-        objectMetadata.setContentType(contentType);
+        upload(key, newPutRequest(key, content, contentType), content.length);
+    }
+
+    /**
+     * Creates/Updates the remaining bytes of the buffer into S3 Bucket. The bytes are read straight from the
+     * buffer, heap or direct, with their length declared up front, so they are not copied into an intermediate
+     * array. The buffer's position and limit are left unchanged and its content must not change until the put returns.
+     *
+     * @param key         {@link PutObjectRequest#key}
+     * @param content     {@link ByteBuffer} whose remaining bytes are stored
+     * @param contentType Content Type for {@link ObjectMetadata#metadata}
+     */
+    @Override
+    public void putBuffer(String key, ByteBuffer content, String contentType) {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(content, "content must be provided");
+        Assert.notNull(contentType, "contentType must be provided");
+        upload(key, newPutRequest(key, content, contentType), content.remaining());
+    }
+
+    /**
+     * Uploads in-memory content through the TransferManager and waits for it.
+     *
+     * @param key     {@link PutObjectRequest#key}
+     * @param request {@link PutObjectRequest} with the content and its length
+     * @param length  size of the content in bytes
+     */
+    private void upload(String key, PutObjectRequest request, long length) {
         StopWatch stopWatch = new StopWatch();
+        TransferProgress progress = trackProgress(request, length);
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.PUT);
         try {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.info("Sending document to S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
                 stopWatch.start();
             }
-            PutObjectRequest request = new PutObjectRequest(bucket, key, new ByteArrayInputStream(content), objectMetadata);
-
-            request.setGeneralProgressListener(progressEvent -> LOGGER.info("Transferred bytes: {}", progressEvent.getBytesTransferred()));
-
             Upload upload = tm.upload(request);
             upload.waitForCompletion();
-            tm.abortMultipartUploads(bucket, days());
+            progress.finish(true);
+            bytes = length;
             if (LOGGER.isDebugEnabled()) {
                 stopWatch.stop();
                 LOGGER.info("Document saved to S3 bucket {} with location {} in {} milliseconds",
                         keyValue("bucket", bucket), keyValue("location", key), stopWatch.getTotalTimeMillis());
             }
         } catch (AmazonServiceException e) {
+            status = e.getStatusCode();
             String errorMessage = String.format("Failed saving to S3 bucket %s with location %s\n\n%s",
                     keyValue("bucket", bucket).toString(),
                     keyValue("location", key).toString(), e.getMessage());
             LOGGER.error(errorMessage, e);
             throw e;
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
+            throw new FileStorageServiceException(e);
+        } finally {
+            // no-op once the upload completed
+            progress.finish(false);
+            recordMetrics(Operation.PUT, start, bytes, status);
+            invalidate(key);
         }
     }
 
     /**
-     * Gets the S3 content by Key.
+     * Creates/Updates the content read from the stream into S3 Bucket. The stream is read into part buffers of
+     * minPartSize taken from a shared pool and each full buffer is sent as a part of a multipart upload while
+     * the next is read, so memory stays bounded whatever the length; content shorter than one part is sent with
+     * a single put. A failed multipart upload is aborted.
+     *
+     * @param key         {@link PutObjectRequest#key}
+     * @param content     {@link InputStream} read to its end, left open
+     * @param contentType Content Type for {@link ObjectMetadata#metadata}
+     * @throws IOException when the stream cannot be read
+     */
+    @Override
+    public void putStream(String key, InputStream content, String contentType) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(content, "content must be provided");
+        Assert.notNull(contentType, "contentType must be provided");
+        TransferProgress progress = progressTracker.start(key, -1);
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.PUT);
+        try {
+            LOGGER.debug("Streaming document to S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+            bytes = streamingUpload.upload(key, content, contentType, progress);
+            progress.finish(true);
+        } catch (AmazonServiceException e) {
+            status = e.getStatusCode();
+            String errorMessage = String.format("Failed saving to S3 bucket %s with location %s\n\n%s",
+                    keyValue("bucket", bucket).toString(),
+                    keyValue("location", key).toString(), e.getMessage());
+            LOGGER.error(errorMessage, e);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageServiceException(e);
+        } finally {
+            // no-op once the upload completed
+            progress.finish(false);
+            recordMetrics(Operation.PUT, start, bytes, status);
+            invalidate(key);
+        }
+    }
+
+    /**
+     * Deletes the S3 content of every Key using multi-object delete requests of up to 1000 keys, running
+     * {@link S3ServiceOptions#getBulkDeleteParallelism()} requests at once on the transfer pool.
+     *
+     * @param keys {@link DeleteObjectsRequest#keys}
+     * @return Map of key to the failure for every key S3 did not delete
+     */
+    @Override
+    public Map<String, Exception> deleteAll(Collection<String> keys) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.noNullElements(keys.toArray(), "keys must not contain null");
+        List<String> remaining = new ArrayList<>(keys);
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(options.getBulkDeleteParallelism());
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        try {
+            for (int from = 0; from < remaining.size(); from += MAX_KEYS_PER_DELETE) {
+                List<String> batch = remaining.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, remaining.size()));
+                batches.add(Futures.callAsync(() -> deleteBatch(batch), executorService, inFlight)
+                        .handle((batchFailures, e) -> {
+                            if (e != null) {
+                                batch.forEach(key -> failures.put(key, Futures.asException(e)));
+                            } else {
+                                failures.putAll(batchFailures);
+                            }
+                            return null;
+                        }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageServiceException(e);
+        } finally {
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).join();
+        }
+        LOGGER.debug("Deleted {} of {} documents from S3 bucket {}", keys.size() - failures.size(), keys.size(), keyValue("bucket", bucket));
+        return failures;
+    }
+
+    /**
+     * Creates/Updates the Provided {@link File} into S3 Bucket without blocking the caller.
+     *
+     * @param key  {@link PutObjectRequest#key}
+     * @param file {@link PutObjectRequest#file}
+     * @return future completed when the TransferManager reports the upload finished
+     */
+    @Override
+    public CompletableFuture<Void> putAsync(String key, File file) {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(file, "file must be provided");
+        return uploadAsync(new PutObjectRequest(bucket, key, file), file.length());
+    }
+
+    /**
+     * Creates/Updates the Provided content into S3 Bucket without blocking the caller.
+     *
+     * @param key         {@link PutObjectRequest#key}
+     * @param content     byte[] used for {@link PutObjectRequest#inputStream}
+     * @param contentType Content Type for {@link ObjectMetadata#metadata}
+     * @return future completed when the TransferManager reports the upload finished
+     */
+    @Override
+    public CompletableFuture<Void> putAsync(String key, byte[] content, String contentType) {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(content, "content must be provided");
+        Assert.notNull(contentType, "contentType must be provided");
+        return uploadAsync(newPutRequest(key, content, contentType), content.length);
+    }
+
+    /**
+     * Creates/Updates every Provided {@link File} into S3 Bucket. All uploads are handed to the TransferManager
+     * up front and share its pool, and the caller waits once for the whole batch.
+     *
+     * @param files Map of {@link PutObjectRequest#key} to {@link PutObjectRequest#file}
+     * @return Map of key to the failure for every file that could not be uploaded
+     */
+    @Override
+    public Map<String, Exception> putAll(Map<String, File> files) {
+        Assert.notNull(files, "files must be provided");
+        Assert.noNullElements(files.keySet().toArray(), "keys must not contain null");
+        Assert.noNullElements(files.values().toArray(), "files must not contain null");
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        files.forEach((key, file) -> uploads.add(uploadAsync(new PutObjectRequest(bucket, key, file), file.length())
+                .handle((result, e) -> {
+                    if (e != null) {
+                        failures.put(key, Futures.asException(e));
+                    }
+                    return null;
+                })));
+        CompletableFuture.allOf(uploads.toArray(new CompletableFuture<?>[0])).join();
+        LOGGER.debug("Saved {} of {} documents to S3 bucket {}", files.size() - failures.size(), files.size(), keyValue("bucket", bucket));
+        return failures;
+    }
+
+    /**
+     * Gets the S3 content by Key. With {@link S3ServiceOptions#isRequestCoalescingEnabled()} concurrent calls for the
+     * same key share one GET, but each still returns its own copy of the content.
      *
      * @param key {@link S3ObjectIdBuilder#key}
      * @return String
@@ -191,23 +614,302 @@ public class S3Service implements IFileStorageService {
     @Override
     public byte[] get(String key) throws FileNotFoundException {
         Assert.notNull(key, "key must be provided");
+        return inFlightGets == null ? fetch(key) : coalesce(inFlightGets, key, () -> fetch(key));
+    }
+
+    /**
+     * Fetches the S3 content by Key with a single GET request.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return byte[] content
+     * @throws FileNotFoundException when no object exists for the key
+     */
+    private byte[] fetch(String key) throws FileNotFoundException {
         S3Object object = null;
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
         try {
             LOGGER.debug("Fetching document from S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
             object = s3.getObject(new GetObjectRequest(bucket, key));
             LOGGER.debug("Finished fetching document from S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
-            return toByteArray(object.getObjectContent());
+            byte[] content = toByteArray(object.getObjectContent());
+            bytes = content.length;
+            return content;
         } catch (AmazonServiceException aws) {
-            String errorMessage = String.format("Failed fetching document from S3 bucket %s with location %s\n\n%s",
-                    keyValue("bucket", bucket),
-                    keyValue("location", key), aws.getMessage());
-            LOGGER.error(errorMessage, aws);
-            if (aws.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
-                throw new FileNotFoundException("Unable to locate document asset with Key " + key);
+            status = aws.getStatusCode();
+            throw failedFetch(key, aws);
+        } finally {
+            closeQuietly(object);
+            recordMetrics(Operation.GET, start, bytes, status);
+        }
+    }
+
+    /**
+     * Gets a byte range of the S3 content by Key, only transferring the requested bytes.
+     *
+     * @param key    {@link S3ObjectIdBuilder#key}
+     * @param offset position of the first byte, used for {@link GetObjectRequest#setRange(long, long)}
+     * @param length maximum number of bytes to return
+     * @return byte[]
+     */
+    @Override
+    public byte[] get(String key, long offset, int length) throws FileNotFoundException {
+        Assert.notNull(key, "key must be provided");
+        Assert.isTrue(offset >= 0, "offset must not be negative");
+        Assert.isTrue(length >= 0, "length must not be negative");
+        if (length == 0) {
+            return new byte[0];
+        }
+        S3Object object = null;
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try {
+            LOGGER.debug("Fetching {} bytes at offset {} from S3 bucket {} with location {}", length, offset, keyValue("bucket", bucket), keyValue("location", key));
+            GetObjectRequest request = new GetObjectRequest(bucket, key);
+            request.setRange(offset, offset + length - 1);
+            object = s3.getObject(request);
+            byte[] content = toByteArray(object.getObjectContent());
+            bytes = content.length;
+            return content;
+        } catch (AmazonServiceException aws) {
+            if (aws.getStatusCode() == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+                bytes = 0;
+                return new byte[0];
             }
-            throw new IllegalStateException("Unexpected error trying to download asset, try again later", aws);
+            status = aws.getStatusCode();
+            throw failedFetch(key, aws);
         } finally {
             closeQuietly(object);
+            recordMetrics(Operation.GET, start, bytes, status);
+        }
+    }
+
+    /**
+     * Gets the S3 content of every Key on the transfer pool. At most {@link S3ServiceOptions#getBulkGetMaxInFlight()}
+     * gets are queued or running at once, and the content being read or consumed never exceeds
+     * {@link S3ServiceOptions#getBulkGetMaxInFlightBytes()} in total. Objects up to the budget divided by
+     * {@link S3ServiceOptions#getBulkGetMaxInFlight()}, or up to their size in the metadata cache, take a single GET.
+     *
+     * @param keys     {@link S3ObjectIdBuilder#key} of each object
+     * @param consumer {@link BiConsumer} receiving each key with its content
+     * @return Map of key to the failure for every key that could not be read
+     */
+    @Override
+    public Map<String, Exception> getAll(Collection<String> keys, BiConsumer<String, byte[]> consumer) {
+        Assert.notNull(keys, "keys must be provided");
+        Assert.noNullElements(keys.toArray(), "keys must not contain null");
+        Assert.notNull(consumer, "consumer must be provided");
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(options.getBulkGetMaxInFlight());
+        Semaphore inFlightBytes = new Semaphore(options.getBulkGetMaxInFlightBytes());
+        List<CompletableFuture<Void>> gets = new ArrayList<>();
+        try {
+            for (String key : new LinkedHashSet<>(keys)) {
+                gets.add(Futures.callAsync(() -> getWithinBudget(key, inFlightBytes, consumer), executorService, inFlight)
+                        .handle((result, e) -> {
+                            if (e != null) {
+                                failures.put(key, Futures.asException(e));
+                            }
+                            return null;
+                        }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageServiceException(e);
+        } finally {
+            CompletableFuture.allOf(gets.toArray(new CompletableFuture<?>[0])).join();
+        }
+        return failures;
+    }
+
+    /**
+     * Opens a stream over the S3 content by Key. Closing the stream releases the underlying connection.
+     * The metrics measure the time to open the stream, not the bytes read from it.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return {@link S3ObjectInputStream}
+     */
+    @Override
+    public InputStream getStream(String key) throws FileNotFoundException {
+        Assert.notNull(key, "key must be provided");
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try {
+            InputStream in = openStream(key);
+            bytes = 0;
+            return in;
+        } catch (AmazonServiceException aws) {
+            status = aws.getStatusCode();
+            throw failedFetch(key, aws);
+        } finally {
+            recordMetrics(Operation.GET, start, bytes, status);
+        }
+    }
+
+    /**
+     * Opens a channel over the S3 content by Key. Closing the channel releases the underlying connection.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return {@link ReadableByteChannel}
+     */
+    @Override
+    public ReadableByteChannel getChannel(String key) throws FileNotFoundException {
+        return Channels.newChannel(getStream(key));
+    }
+
+    /**
+     * Copies the S3 content by Key into the provided stream without holding the whole object in memory.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @param out {@link OutputStream} to write to, left open
+     * @return number of bytes written
+     */
+    @Override
+    public long get(String key, OutputStream out) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(out, "output stream must be provided");
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try (InputStream in = openStream(key)) {
+            bytes = IOUtils.copyLarge(in, out);
+            return bytes;
+        } catch (AmazonServiceException aws) {
+            status = aws.getStatusCode();
+            throw failedFetch(key, aws);
+        } finally {
+            recordMetrics(Operation.GET, start, bytes, status);
+        }
+    }
+
+    /**
+     * Copies the S3 content by Key into the provided channel without holding the whole object in memory.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @param out {@link WritableByteChannel} to write to, left open
+     * @return number of bytes written
+     */
+    @Override
+    public long get(String key, WritableByteChannel out) throws IOException {
+        Assert.notNull(out, "output channel must be provided");
+        return get(key, Channels.newOutputStream(out));
+    }
+
+    /**
+     * Downloads the S3 content by Key into a local file. Objects above the upload threshold are split into
+     * ranges of the minimum part size which are fetched concurrently, at most executorThread at once, and written
+     * in place, so no range is held in memory beyond a small copy buffer. No further range is started once one
+     * failed. With adaptive transfers the range size and the number of ranges
+     * fetched at once are chosen per download from its size and the observed range throughput.
+     *
+     * @param key    {@link S3ObjectIdBuilder#key}
+     * @param target {@link Path} of the local file, replaced if it exists
+     */
+    @Override
+    public void download(String key, Path target) throws IOException {
+        Assert.notNull(key, "key must be provided");
+        Assert.notNull(target, "target must be provided");
+        long start = System.nanoTime();
+        metrics.started(Operation.GET);
+        ObjectMetadata objectMetadata;
+        try {
+            objectMetadata = s3.getObjectMetadata(bucket, key);
+        } catch (AmazonServiceException aws) {
+            recordMetrics(Operation.GET, start, -1, aws.getStatusCode());
+            throw failedFetch(key, aws);
+        } catch (RuntimeException e) {
+            recordMetrics(Operation.GET, start, -1, StorageMetrics.NO_STATUS);
+            throw e;
+        }
+        long size = objectMetadata.getContentLength();
+        LOGGER.debug("Downloading {} bytes from S3 bucket {} with location {} to {}", size, keyValue("bucket", bucket), keyValue("location", key), target);
+        List<Future<?>> parts = new ArrayList<>();
+        TransferProgress progress = progressTracker.start(key, size);
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (size <= downloadThreshold) {
+                downloadRange(new GetObjectRequest(bucket, key).withMatchingETagConstraint(objectMetadata.getETag()), channel, 0, progress);
+            } else {
+                long partSize = downloadPartSize;
+                int concurrency = downloadConcurrency;
+                if (downloadTuner != null) {
+                    TransferTuner.Plan plan = downloadTuner.plan(size);
+                    LOGGER.debug("Downloading {} ranges of {} bytes, {} at once", plan.getPartCount(), plan.getPartSize(), plan.getConcurrency());
+                    partSize = plan.getPartSize();
+                    concurrency = plan.getConcurrency();
+                }
+                // bounds the ranges of this download queued or running at once, so a large object neither floods
+                // the shared pool nor has all its ranges queued before a failure is noticed
+                Semaphore window = new Semaphore(concurrency);
+                AtomicBoolean failed = new AtomicBoolean();
+                for (long offset = 0; offset < size; offset += partSize) {
+                    long position = offset;
+                    long length = Math.min(partSize, size - position);
+                    GetObjectRequest request = new GetObjectRequest(bucket, key)
+                            .withMatchingETagConstraint(objectMetadata.getETag())
+                            .withRange(position, position + length - 1);
+                    window.acquire();
+                    if (failed.get()) {
+                        window.release();
+                        break;
+                    }
+                    parts.add(executorService.submit(() -> {
+                        long rangeStart = System.nanoTime();
+                        try {
+                            downloadRange(request, channel, position, progress);
+                        } catch (IOException | RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        } finally {
+                            window.release();
+                        }
+                        if (downloadTuner != null) {
+                            downloadTuner.record(length, System.nanoTime() - rangeStart);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> part : parts) {
+                    part.get();
+                }
+            }
+            progress.finish(true);
+            bytes = size;
+        } catch (ExecutionException e) {
+            abortDownload(parts, target);
+            Throwable cause = e.getCause();
+            if (cause instanceof AmazonServiceException) {
+                status = ((AmazonServiceException) cause).getStatusCode();
+                throw failedFetch(key, (AmazonServiceException) cause);
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new FileStorageServiceException(cause);
+        } catch (InterruptedException e) {
+            abortDownload(parts, target);
+            Thread.currentThread().interrupt();
+            throw new FileStorageServiceException(e);
+        } catch (AmazonServiceException aws) {
+            abortDownload(parts, target);
+            status = aws.getStatusCode();
+            throw failedFetch(key, aws);
+        } catch (IOException | RuntimeException e) {
+            abortDownload(parts, target);
+            throw e;
+        } finally {
+            // no-op once the download completed
+            progress.finish(false);
+            recordMetrics(Operation.GET, start, bytes, status);
         }
     }
 
@@ -219,23 +921,91 @@ public class S3Service implements IFileStorageService {
      */
     public Date getDate(String key) throws FileNotFoundException {
         Assert.notNull(key, "key must be provided");
-        ObjectMetadata objectMetadata = null;
-        try{
-            LOGGER.debug("Getting last modified date for document from S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
-            objectMetadata= s3.getObjectMetadata(bucket, key);
-            Date date = objectMetadata.getLastModified();
-            return date;
-        }catch (AmazonServiceException aws) {
-            String errorMessage = String.format("Failed fetching document from S3 bucket %s with location %s\n\n%s",
-                    keyValue("bucket", bucket),
-                    keyValue("location", key), aws.getMessage());
-            LOGGER.error(errorMessage, aws);
-            if (aws.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
-                throw new FileNotFoundException("Unable to locate document asset with Key " + key);
+        ObjectInfo info = getObjectInfo(key);
+        if (info == null) {
+            throw new FileNotFoundException("Unable to locate document asset with Key " + key);
         }
-            throw new IllegalStateException("Unexpected error trying to download asset, try again later", aws);
+        return info.getLastModified();
+    }
+
+    /**
+     * Gets the last modified date, ETag and size of object by Key.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return {@link ObjectInfo}
+     */
+    @Override
+    public ObjectInfo getInfo(String key) throws FileNotFoundException {
+        Assert.notNull(key, "key must be provided");
+        ObjectInfo info = getObjectInfo(key);
+        if (info == null) {
+            throw new FileNotFoundException("Unable to locate document asset with Key " + key);
         }
+        return info;
     }
+
+    /**
+     * Gets the S3 content by Key with an If-None-Match or If-Modified-Since condition. S3 answers an unchanged
+     * object with 304 Not Modified and no body, so revalidating a cached copy costs one small request.
+     *
+     * @param key           {@link S3ObjectIdBuilder#key}
+     * @param eTag          ETag of the caller's copy for {@link GetObjectRequest#setNonmatchingETagConstraints}, or {@code null}
+     * @param modifiedSince date of the caller's copy for {@link GetObjectRequest#setModifiedSinceConstraint}, used
+     *                      when no ETag is provided, or {@code null}
+     * @return {@link ConditionalGetResult}
+     */
+    @Override
+    public ConditionalGetResult getIfModified(String key, String eTag, Date modifiedSince) throws FileNotFoundException {
+        Assert.notNull(key, "key must be provided");
+        GetObjectRequest request = new GetObjectRequest(bucket, key);
+        if (eTag != null) {
+            request.setNonmatchingETagConstraints(Collections.singletonList(eTag));
+        } else if (modifiedSince != null) {
+            request.setModifiedSinceConstraint(modifiedSince);
+        }
+        long stamp = metadataCache == null ? 0 : metadataCache.stamp();
+        S3Object object = null;
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try {
+            LOGGER.debug("Revalidating document from S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+            object = s3.getObject(request);
+            if (object == null) {
+                // the client reports 304 Not Modified as a null object
+                bytes = 0;
+                return ConditionalGetResult.notModified();
+            }
+            byte[] content = toByteArray(object.getObjectContent());
+            ObjectMetadata objectMetadata = object.getObjectMetadata();
+            ObjectInfo info = new ObjectInfo(key, objectMetadata.getLastModified(), objectMetadata.getETag(), content.length);
+            if (metadataCache != null) {
+                metadataCache.put(key, info, stamp);
+            }
+            bytes = content.length;
+            return ConditionalGetResult.modified(content, info);
+        } catch (AmazonServiceException aws) {
+            status = aws.getStatusCode();
+            throw failedFetch(key, aws);
+        } finally {
+            closeQuietly(object);
+            recordMetrics(Operation.GET, start, bytes, status);
+        }
+    }
+
+    /**
+     * Checks whether an object exists for the Key, without logging an error when it does not.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return whether an object exists for the key
+     */
+    @Override
+    public boolean exists(String key) {
+        Assert.notNull(key, "key must be provided");
+        return getObjectInfo(key) != null;
+    }
+
     /**
      * Deletes the S3 content by Key. Does nothing if not document found.
      *
@@ -244,11 +1014,570 @@ public class S3Service implements IFileStorageService {
     @Override
     public void delete(String key) {
         Assert.notNull(key, "key must be provided");
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.DELETE);
         try {
             s3.deleteObject(new DeleteObjectRequest(bucket, key));
+            bytes = 0;
+        } catch (AmazonServiceException e) {
+            status = e.getStatusCode();
+            LOGGER.error(e.getMessage(), e);
+            throw e;
+        } finally {
+            recordMetrics(Operation.DELETE, start, bytes, status);
+            invalidate(key);
+        }
+    }
+
+    /**
+     * Reads the metadata of an object with a HEAD request, or from the metadata cache when enabled.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return {@link ObjectInfo} of the object, {@code null} when no object exists for the key
+     */
+    private ObjectInfo getObjectInfo(String key) {
+        ObjectMetadataCache cache = metadataCache;
+        long stamp = 0;
+        if (cache != null) {
+            ObjectMetadataCache.Entry entry = cache.get(key);
+            if (entry != null) {
+                return entry.getInfo();
+            }
+            stamp = cache.stamp();
+        }
+        ObjectInfo info;
+        try {
+            info = inFlightHeads == null ? headObject(key) : inFlightHeads.execute(key, () -> headObject(key));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // not thrown, a HEAD reports failures as runtime exceptions
+            throw new FileStorageServiceException(e);
+        }
+        if (cache != null) {
+            cache.put(key, info, stamp);
+        }
+        return info;
+    }
+
+    /**
+     * Reads the metadata of an object with a single HEAD request.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return {@link ObjectInfo} of the object, {@code null} when no object exists for the key
+     */
+    private ObjectInfo headObject(String key) {
+        ObjectInfo info = null;
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET_DATE);
+        try {
+            LOGGER.debug("Getting metadata for document from S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+            ObjectMetadata objectMetadata = s3.getObjectMetadata(bucket, key);
+            info = new ObjectInfo(key, objectMetadata.getLastModified(), objectMetadata.getETag(), objectMetadata.getContentLength());
+            bytes = 0;
+        } catch (AmazonServiceException aws) {
+            status = aws.getStatusCode();
+            if (status != HttpStatus.SC_NOT_FOUND) {
+                String errorMessage = String.format("Failed fetching document metadata from S3 bucket %s with location %s\n\n%s",
+                        keyValue("bucket", bucket), keyValue("location", key), aws.getMessage());
+                LOGGER.error(errorMessage, aws);
+                throw new IllegalStateException("Unexpected error trying to read asset metadata, try again later", aws);
+            }
+            LOGGER.debug("No document in S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+        } finally {
+            recordMetrics(Operation.GET_DATE, start, bytes, status);
+        }
+        return info;
+    }
+
+    /**
+     * Runs a read, or waits for the one another caller is running for the same key.
+     *
+     * @param flights {@link SingleFlight} of the kind of read
+     * @param key     {@link S3ObjectIdBuilder#key}
+     * @param read    {@link Callable} running the read
+     * @return result of the read
+     * @throws FileNotFoundException when no object exists for the key
+     */
+    private <V> V coalesce(SingleFlight<V> flights, String key, Callable<V> read) throws FileNotFoundException {
+        try {
+            return flights.execute(key, read);
+        } catch (FileNotFoundException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FileStorageServiceException(e);
+        }
+    }
+
+    /**
+     * Drops the cached metadata of a key written or deleted through this service, and detaches the reads of it
+     * still running so later callers do not wait for content read before the change.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     */
+    private void invalidate(String key) {
+        if (metadataCache != null) {
+            metadataCache.invalidate(key);
+        }
+        if (inFlightGets != null) {
+            inFlightGets.forget(key);
+            inFlightHeads.forget(key);
+        }
+    }
+
+    /**
+     * Fetches a single range of an object and writes it at its position in the target file.
+     *
+     * @param request  {@link GetObjectRequest} for the range
+     * @param channel  {@link FileChannel} of the target file
+     * @param position offset in the target file the range starts at
+     * @param progress {@link TransferProgress} of the whole download
+     * @throws IOException when the target file cannot be written
+     */
+    private void downloadRange(GetObjectRequest request, FileChannel channel, long position, TransferProgress progress) throws IOException {
+        S3Object object = s3.getObject(request);
+        if (object == null) {
+            throw new IllegalStateException("Document with Key " + request.getKey() + " changed while downloading, try again later");
+        }
+        try (InputStream in = object.getObjectContent()) {
+            byte[] chunk = new byte[DOWNLOAD_BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                progress.transferred(read);
+            }
+        }
+    }
+
+    /**
+     * Cancels any outstanding ranges of a failed download and removes the partially written file.
+     *
+     * @param parts  {@link Future} of each range submitted so far
+     * @param target {@link Path} of the partially written file
+     */
+    private void abortDownload(List<Future<?>> parts, Path target) {
+        parts.forEach(part -> part.cancel(true));
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Logs a failed fetch and translates it: a missing key becomes a {@link FileNotFoundException},
+     * anything else an {@link IllegalStateException} for the caller to throw.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @param aws {@link AmazonServiceException} raised by the S3 client
+     * @return the exception to throw
+     * @throws FileNotFoundException when no object exists for the key
+     */
+    private IllegalStateException failedFetch(String key, AmazonServiceException aws) throws FileNotFoundException {
+        String errorMessage = String.format("Failed fetching document from S3 bucket %s with location %s\n\n%s",
+                keyValue("bucket", bucket),
+                keyValue("location", key), aws.getMessage());
+        LOGGER.error(errorMessage, aws);
+        if (aws.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+            throw new FileNotFoundException("Unable to locate document asset with Key " + key);
+        }
+        return new IllegalStateException("Unexpected error trying to download asset, try again later", aws);
+    }
+
+    /**
+     * Gets the S3 content by Key on the transfer pool.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return future of the content
+     */
+    @Override
+    public CompletableFuture<byte[]> getAsync(String key) {
+        Assert.notNull(key, "key must be provided");
+        return Futures.callAsync(() -> get(key), executorService);
+    }
+
+    /**
+     * Gets modified date of object by Key on the transfer pool.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return future of the date
+     */
+    @Override
+    public CompletableFuture<Date> getDateAsync(String key) {
+        Assert.notNull(key, "key must be provided");
+        return Futures.callAsync(() -> getDate(key), executorService);
+    }
+
+    /**
+     * Deletes the S3 content by Key on the transfer pool. Does nothing if not document found.
+     *
+     * @param key {@link DeleteObjectRequest#key}
+     * @return future completed once the content is deleted
+     */
+    @Override
+    public CompletableFuture<Void> deleteAsync(String key) {
+        Assert.notNull(key, "key must be provided");
+        return Futures.callAsync(() -> {
+            delete(key);
+            return null;
+        }, executorService);
+    }
+
+    /**
+     * Gets the S3 content by Key within the byte budget, and hands it to the consumer before returning the budget.
+     * A share of the budget, or the size from the metadata cache when it has the key, is reserved before a ranged
+     * GET of that many bytes, which also tells the size of the object. An object larger than its reservation
+     * returns it and waits for its whole size, holding neither budget nor connection, before the rest is read with
+     * an If-Match on the first part's ETag; objects larger than the whole budget wait until they have all of it.
+     *
+     * @param key           {@link S3ObjectIdBuilder#key}
+     * @param inFlightBytes {@link Semaphore} with one permit per byte of the budget
+     * @param consumer      {@link BiConsumer} receiving the key with its content
+     * @return nothing
+     * @throws FileNotFoundException when no object exists for the key
+     * @throws InterruptedException  when interrupted waiting for the budget
+     */
+    private Void getWithinBudget(String key, Semaphore inFlightBytes, BiConsumer<String, byte[]> consumer) throws FileNotFoundException, InterruptedException {
+        int maxBytes = options.getBulkGetMaxInFlightBytes();
+        int permits = Math.max(1, maxBytes / options.getBulkGetMaxInFlight());
+        ObjectMetadataCache.Entry cached = metadataCache == null ? null : metadataCache.get(key);
+        if (cached != null) {
+            if (cached.getInfo() == null) {
+                throw new FileNotFoundException("Unable to locate document asset with Key " + key);
+            }
+            permits = (int) Math.max(1, Math.min(cached.getInfo().getSize(), maxBytes));
+        }
+        inFlightBytes.acquire(permits);
+        long start = System.nanoTime();
+        long bytes = -1;
+        int status = StorageMetrics.NO_STATUS;
+        metrics.started(Operation.GET);
+        try {
+            byte[] content = null;
+            while (content == null) {
+                S3Object object = null;
+                byte[] first;
+                long size;
+                String eTag;
+                try {
+                    object = s3.getObject(new GetObjectRequest(bucket, key).withRange(0, permits - 1));
+                    size = object.getObjectMetadata().getInstanceLength();
+                    eTag = object.getObjectMetadata().getETag();
+                    first = toByteArray(object.getObjectContent());
+                } catch (AmazonServiceException aws) {
+                    if (aws.getStatusCode() != HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+                        throw aws;
+                    }
+                    // S3 refuses any range of an empty object
+                    first = new byte[0];
+                    size = 0;
+                    eTag = null;
+                } finally {
+                    closeQuietly(object);
+                }
+                if (first.length >= size) {
+                    content = first;
+                    break;
+                }
+                // the budget is returned before waiting for more of it, so gets never wait holding part of it
+                int required = (int) Math.min(size, maxBytes);
+                inFlightBytes.release(permits);
+                permits = 0;
+                inFlightBytes.acquire(required);
+                permits = required;
+                object = null;
+                try {
+                    object = s3.getObject(new GetObjectRequest(bucket, key).withRange(first.length, size - 1)
+                            .withMatchingETagConstraint(eTag));
+                    if (object != null) {
+                        content = Arrays.copyOf(first, (int) size);
+                        IOUtils.readFully(object.getObjectContent(), content, first.length, content.length - first.length);
+                    }
+                    // otherwise the object changed since its first part was read, and is read again
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unexpected error trying to download asset, try again later", e);
+                } finally {
+                    closeQuietly(object);
+                }
+            }
+            bytes = content.length;
+            // the time the consumer takes is not part of the get
+            recordMetrics(Operation.GET, start, bytes, status);
+            consumer.accept(key, content);
+            return null;
+        } catch (AmazonServiceException aws) {
+            status = aws.getStatusCode();
+            throw failedFetch(key, aws);
+        } finally {
+            inFlightBytes.release(permits);
+            if (bytes < 0) {
+                recordMetrics(Operation.GET, start, bytes, status);
+            }
+        }
+    }
+
+    /**
+     * Deletes a batch of up to 1000 keys with a single quiet multi-object delete request.
+     *
+     * @param keys {@link DeleteObjectsRequest#keys}
+     * @return Map of key to the failure for every key S3 did not delete
+     */
+    private Map<String, Exception> deleteBatch(List<String> keys) {
+        long start = System.nanoTime();
+        metrics.started(Operation.DELETE);
+        try {
+            s3.deleteObjects(new DeleteObjectsRequest(bucket).withQuiet(true).withKeys(keys.toArray(new String[0])));
+            recordMetrics(Operation.DELETE, start, 0, StorageMetrics.NO_STATUS);
+            return Collections.emptyMap();
+        } catch (MultiObjectDeleteException e) {
+            // the request itself succeeded, the keys S3 could not delete are reported to the caller
+            recordMetrics(Operation.DELETE, start, 0, StorageMetrics.NO_STATUS);
+            Map<String, Exception> failures = new HashMap<>();
+            for (DeleteError error : e.getErrors()) {
+                failures.put(error.getKey(), new FileStorageServiceException(error.getCode() + ": " + error.getMessage()));
+            }
+            return failures;
         } catch (AmazonServiceException e) {
+            recordMetrics(Operation.DELETE, start, -1, e.getStatusCode());
             LOGGER.error(e.getMessage(), e);
+            Map<String, Exception> failures = new HashMap<>();
+            keys.forEach(key -> failures.put(key, e));
+            return failures;
+        } catch (RuntimeException e) {
+            recordMetrics(Operation.DELETE, start, -1, StorageMetrics.NO_STATUS);
             throw e;
+        } finally {
+            keys.forEach(this::invalidate);
+        }
+    }
+
+    /**
+     * Builds the request used to store in-memory content, declaring its length so the client streams the array
+     * instead of buffering it again to find out how long it is.
+     *
+     * @param key         {@link PutObjectRequest#key}
+     * @param content     byte[] used for {@link PutObjectRequest#inputStream}
+     * @param contentType Content Type for {@link ObjectMetadata#metadata}
+     * @return {@link PutObjectRequest}
+     */
+    private PutObjectRequest newPutRequest(String key, byte[] content, String contentType) {
+        return newPutRequest(key, new ByteArrayInputStream(content), content.length, contentType);
+    }
+
+    /**
+     * Builds the request used to store the remaining bytes of a buffer. A heap buffer is read from its backing
+     * array and a direct buffer through a view of it, neither is copied.
+     *
+     * @param key         {@link PutObjectRequest#key}
+     * @param content     {@link ByteBuffer} used for {@link PutObjectRequest#inputStream}
+     * @param contentType Content Type for {@link ObjectMetadata#metadata}
+     * @return {@link PutObjectRequest}
+     */
+    private PutObjectRequest newPutRequest(String key, ByteBuffer content, String contentType) {
+        InputStream in = content.hasArray()
+                ? new ByteArrayInputStream(content.array(), content.arrayOffset() + content.position(), content.remaining())
+                : new ByteBufferInputStream(content);
+        return newPutRequest(key, in, content.remaining(), contentType);
+    }
+
+    private PutObjectRequest newPutRequest(String key, InputStream content, long length, String contentType) {
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setContentType(contentType);
+        objectMetadata.setContentLength(length);
+        return new PutObjectRequest(bucket, key, content, objectMetadata);
+    }
+
+    /**
+     * Builds the HTTP client and retry settings of the S3 client from the options.
+     *
+     * @param maxConnections size of the connection pool
+     * @param resilience     {@link S3ResilienceHandler} deciding on retries
+     * @return {@link ClientConfiguration} of the S3 client
+     */
+    private ClientConfiguration createClientConfiguration(int maxConnections, S3ResilienceHandler resilience) {
+        long timeToLive = options.getConnectionTimeToLive().toMillis();
+        return new ClientConfiguration()
+                .withMaxConnections(maxConnections)
+                .withConnectionTTL(timeToLive == 0 ? -1 : timeToLive)
+                .withConnectionMaxIdleMillis(options.getConnectionMaxIdleTime().toMillis())
+                .withReaper(options.isIdleConnectionReaperEnabled())
+                .withConnectionTimeout((int) options.getConnectionTimeout().toMillis())
+                .withSocketTimeout((int) options.getSocketTimeout().toMillis())
+                .withRequestTimeout((int) options.getRequestTimeout().toMillis())
+                .withTcpKeepAlive(options.isTcpKeepAlive())
+                .withUseExpectContinue(options.isExpectContinueEnabled())
+                .withGzip(options.isGzipEnabled())
+                .withRetryPolicy(resilience.getRetryPolicy())
+                // the retry budget of the resilience handler replaces the SDK's retry capacity
+                .withThrottledRetries(false);
+    }
+
+    /**
+     * Creates the tuner of one transfer direction and reports its latest plan and observed part throughput as gauges.
+     *
+     * @param direction   {@link String} upload or download, used in the gauge names
+     * @param minPartSize smallest part size in bytes
+     * @return {@link TransferTuner}
+     */
+    private TransferTuner newTransferTuner(String direction, long minPartSize) {
+        TransferTuner tuner = new TransferTuner(minPartSize, options.getAdaptiveTransferMaxConcurrency(), options.getAdaptiveTargetPartDuration());
+        metrics.registerGauge("adaptive." + direction + ".part.size", tuner::getLastPartSize);
+        metrics.registerGauge("adaptive." + direction + ".concurrency", tuner::getLastConcurrency);
+        metrics.registerGauge("adaptive." + direction + ".part.throughput", () -> (long) tuner.getThroughput());
+        return tuner;
+    }
+
+    /**
+     * @param request {@link PutObjectRequest} to upload
+     * @return whether the request is a file above the upload threshold and adaptive transfers are enabled
+     */
+    private boolean isAdaptive(PutObjectRequest request) {
+        return adaptiveUpload != null && request.getFile() != null && request.getFile().length() > uploadThreshold;
+    }
+
+    /**
+     * Waits for an adaptive upload, rethrowing its failure as is.
+     *
+     * @param upload future of the upload
+     */
+    private static void join(CompletableFuture<Void> upload) {
+        try {
+            upload.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FileStorageServiceException(e.getCause());
+        }
+    }
+
+    /**
+     * Starts tracking the progress of an upload and attaches the tracker to the request.
+     *
+     * @param request    {@link PutObjectRequest} to track
+     * @param totalBytes size of the content being uploaded
+     * @return {@link TransferProgress} of the upload
+     */
+    private TransferProgress trackProgress(PutObjectRequest request, long totalBytes) {
+        TransferProgress progress = progressTracker.start(request.getKey(), totalBytes);
+        request.setGeneralProgressListener(progress);
+        return progress;
+    }
+
+    /**
+     * Hands the request to the TransferManager and completes the returned future from the upload's state
+     * change callback, so no thread waits on the upload while it is in progress.
+     *
+     * @param request    {@link PutObjectRequest} to upload
+     * @param totalBytes size of the content being uploaded
+     * @return future completed when the upload completes, fails or is canceled
+     */
+    private CompletableFuture<Void> uploadAsync(PutObjectRequest request, long totalBytes) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        TransferProgress progress = trackProgress(request, totalBytes);
+        long start = System.nanoTime();
+        metrics.started(Operation.PUT);
+        result.whenComplete((done, e) -> {
+            progress.finish(e == null);
+            invalidate(request.getKey());
+            recordMetrics(Operation.PUT, start, e == null ? totalBytes : -1,
+                    e instanceof AmazonServiceException ? ((AmazonServiceException) e).getStatusCode() : StorageMetrics.NO_STATUS);
+        });
+        if (isAdaptive(request)) {
+            adaptiveUpload.upload(request.getKey(), request.getFile(), progress).whenComplete((done, e) -> {
+                if (e == null) {
+                    result.complete(null);
+                } else {
+                    result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                }
+            });
+            return result;
+        }
+        Upload upload;
+        try {
+            upload = tm.upload(request);
+        } catch (AmazonClientException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        TransferStateChangeListener listener = (transfer, state) -> {
+            if (state == TransferState.Completed) {
+                result.complete(null);
+            } else if (state == TransferState.Failed || state == TransferState.Canceled) {
+                // the failure cause is published just after the state changes, collect it off the callback thread
+                executorService.execute(() -> completeExceptionally(upload, result));
+            }
+        };
+        if (upload instanceof AbstractTransfer) {
+            ((AbstractTransfer) upload).addStateChangeListener(listener);
+        } else {
+            // not expected from the TransferManager, fall back to waiting for the upload on the pool
+            executorService.execute(() -> {
+                try {
+                    upload.waitForCompletion();
+                    result.complete(null);
+                } catch (InterruptedException | AmazonClientException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+        if (upload.isDone()) {
+            listener.transferStateChanged(upload, upload.getState());
+        }
+        return result;
+    }
+
+    /**
+     * Completes the future of a failed or canceled upload with the upload's failure cause.
+     *
+     * @param upload {@link Upload} that did not complete
+     * @param result future to complete
+     */
+    private void completeExceptionally(Upload upload, CompletableFuture<Void> result) {
+        try {
+            AmazonClientException e = upload.waitForException();
+            result.completeExceptionally(e != null ? e : new FileStorageServiceException("Upload of " + upload.getDescription() + " was canceled"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(new FileStorageServiceException(e));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Opens a stream over the S3 content by Key without recording it in the metrics.
+     *
+     * @param key {@link S3ObjectIdBuilder#key}
+     * @return {@link S3ObjectInputStream}
+     */
+    private InputStream openStream(String key) {
+        LOGGER.debug("Streaming document from S3 bucket {} with location {}", keyValue("bucket", bucket), keyValue("location", key));
+        return s3.getObject(new GetObjectRequest(bucket, key)).getObjectContent();
+    }
+
+    /**
+     * Reports the outcome of an operation to the metrics.
+     *
+     * @param operation {@link Operation} measured
+     * @param start     {@link System#nanoTime()} when the operation started
+     * @param bytes     content bytes transferred, negative when the operation failed
+     * @param status    HTTP status of the failure, {@link StorageMetrics#NO_STATUS} when there is none
+     */
+    private void recordMetrics(Operation operation, long start, long bytes, int status) {
+        long latencyNanos = System.nanoTime() - start;
+        if (bytes >= 0) {
+            metrics.succeeded(operation, latencyNanos, bytes);
+        } else {
+            metrics.failed(operation, latencyNanos, status);
         }
     }
 
@@ -285,30 +1614,14 @@ public class S3Service implements IFileStorageService {
      * Thread pools address provide improved performance when executing large numbers of
      * asynchronous tasks, due to reduced per-task invocation overhead, and they provide
      * a means of bounding and managing the resources, including threads, consumed when
-     * executing a collection of tasks.
+     * executing a collection of tasks. The queue is bounded by {@link S3ServiceOptions#getExecutorQueueCapacity()},
+     * so a slow S3 makes producers wait, fail or run the work themselves instead of queueing it without limit.
      *
-     * @param threadNumber {@link Integer} Sets the number of threads in the pool used to operate off a shared unbounded queue
+     * @param threadNumber {@link Integer} Sets the number of threads in the pool
      * @return the newly created thread pool
      */
-    private ThreadPoolExecutor createExecutorService(int threadNumber) {
-        ThreadFactory threadFactory = new ThreadFactory() {
-            private int threadCount = 1;
-
-            public Thread newThread(Runnable r) {
-                Thread thread = new Thread(r);
-                thread.setName("jsa-amazon-s3-transfer-manager-worker-" + threadCount++);
-                return thread;
-            }
-        };
-        return (ThreadPoolExecutor) Executors.newFixedThreadPool(threadNumber, threadFactory);
-    }
-
-    /**
-     * Preset value of one hour, used to abort S3 upload operation
-     * @return one hour
-     */
-    private Date days() {
-        int oneDay = 1000 * 60 * 60;
-        return new Date(System.currentTimeMillis() - oneDay);
+    private BoundedTransferExecutor createExecutorService(int threadNumber) {
+        return new BoundedTransferExecutor(threadNumber, options.getExecutorQueueCapacity(), options.getExecutorRejectionPolicy(),
+                "jsa-amazon-s3-transfer-manager-worker-");
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package edu.common.service;
+
+import org.springframework.util.Assert;
+
+/**
+ * Builds the S3 backed {@link IFileStorageService} of the {@link S3ServiceOptions#getEngine()} engine, so switching
+ * between {@link S3Service} and {@link S3AsyncClientService} is a matter of configuration. Both take the same
+ * arguments, implement {@link IAsyncFileStorageService} and release their resources on {@code shutdown()}.
+ */
+public final class S3ServiceFactory {
+
+    private S3ServiceFactory() {}
+
+    /**
+     * @param bucket          {@link String} S3 Bucket created by S3 customer
+     * @param awsKey          {@link String} access key
+     * @param awsSecret       {@link String} secret key
+     * @param region          {@link String} S3 Region
+     * @param minPartSize     {@link Integer} Sets the minimum part size for upload parts
+     * @param uploadThreshold {@link Integer} Sets the size threshold for when to use multipart uploads
+     * @param partSize        {@link Integer} Sets the minimum size of each part when a multi-part copy operation is carried out
+     * @param copyThreshold   {@link Integer} Sets the size threshold for when to use multi-part copy
+     * @param executorThread  {@link Integer} Sets the number of threads in the pool
+     * @param options         {@link S3ServiceOptions} Sets the engine and the optional tuning settings
+     * @return {@link IFileStorageService} of the configured engine
+     */
+    public static IFileStorageService create(String bucket, String awsKey, String awsSecret, String region, Integer minPartSize, Integer uploadThreshold, Integer partSize, Integer copyThreshold, Integer executorThread, S3ServiceOptions options) {
+        Assert.notNull(options,  "options must be provided");
+        if (options.getEngine() == S3ServiceOptions.Engine.ASYNC_CLIENT) {
+            return new S3AsyncClientService(bucket, awsKey, awsSecret, region, minPartSize, uploadThreshold, partSize, copyThreshold, executorThread, options);
+        }
+        return new S3Service(bucket, awsKey, awsSecret, region, minPartSize, uploadThreshold, partSize, copyThreshold, executorThread, options);
+    }
+}
@@ -0,0 +1,797 @@
+package edu.common.service;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import org.springframework.util.Assert;
+
+/**
+ * Optional tuning for {@link S3Service}. Every setting has a default, so only the ones that need changing have to be set.
+ */
+public class S3ServiceOptions {
+
+    /**
+     * Client library {@link S3ServiceFactory} builds the service on.
+     */
+    public enum Engine {
+        /**
+         * {@link S3Service} on the AWS SDK v1 client and TransferManager.
+         */
+        TRANSFER_MANAGER,
+        /**
+         * {@link S3AsyncClientService} on the non-blocking AWS SDK v2 S3AsyncClient.
+         */
+        ASYNC_CLIENT
+    }
+
+    /**
+     * What a submitter of transfer pool work does once the pool's queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Wait for room in the queue; pool threads run the task themselves instead, so the pool cannot deadlock.
+         */
+        BLOCK,
+        /**
+         * Fail the submission with a {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        FAIL_FAST,
+        /**
+         * Run the task on the submitting thread, which turns the asynchronous methods of {@link S3Service} into
+         * blocking calls run on the caller's thread.
+         */
+        CALLER_RUNS
+    }
+
+    private int bulkDeleteParallelism = 4;
+    private int bulkGetMaxInFlight = 16;
+    private int bulkGetMaxInFlightBytes = 64 * 1024 * 1024;
+    private boolean multipartJanitorEnabled = true;
+    private Duration multipartJanitorInterval = Duration.ofHours(1);
+    private Duration multipartUploadMaxAge = Duration.ofDays(1);
+    private int multipartJanitorMaxAbortsPerRun = 1000;
+    private Duration progressSampleInterval = Duration.ofSeconds(5);
+    private Consumer<TransferProgress> progressCallback;
+    private StorageMetrics metrics = StorageMetrics.NONE;
+    private String endpoint;
+    private boolean pathStyleAccess;
+    private Duration metadataCacheTimeToLive = Duration.ZERO;
+    private Duration metadataCacheNegativeTimeToLive = Duration.ofSeconds(1);
+    private int metadataCacheMaximumSize = 10000;
+    private boolean requestCoalescingEnabled = true;
+    private int streamingUploadConcurrency = 4;
+    private int streamingUploadBufferPoolSize = 16;
+    private boolean adaptiveTransfersEnabled;
+    private int adaptiveTransferMaxConcurrency = 8;
+    private Duration adaptiveTargetPartDuration = Duration.ofSeconds(2);
+    private int executorQueueCapacity = 1000;
+    private RejectionPolicy executorRejectionPolicy = RejectionPolicy.BLOCK;
+    private boolean virtualThreadsEnabled;
+    private Engine engine = Engine.TRANSFER_MANAGER;
+    private int virtualThreadMaxConcurrency = 1000;
+    private int maxConnections = 50;
+    private Duration connectionTimeToLive = Duration.ofMinutes(1);
+    private Duration connectionMaxIdleTime = Duration.ofMinutes(1);
+    private boolean idleConnectionReaperEnabled = true;
+    private Duration connectionTimeout = Duration.ofSeconds(10);
+    private Duration socketTimeout = Duration.ofSeconds(50);
+    private Duration requestTimeout = Duration.ZERO;
+    private boolean tcpKeepAlive = true;
+    private boolean expectContinueEnabled = true;
+    private boolean gzipEnabled;
+    private int maxRetries = 3;
+    private Duration retryBaseDelay = Duration.ofMillis(100);
+    private Duration retryThrottledBaseDelay = Duration.ofMillis(500);
+    private Duration retryMaxDelay = Duration.ofSeconds(20);
+    private int retryBudgetCapacity = 100;
+    private boolean circuitBreakerEnabled;
+    private int circuitBreakerFailureThreshold = 10;
+    private Duration circuitBreakerOpenDuration = Duration.ofSeconds(10);
+
+    /**
+     * @return number of multi-object delete batches {@link S3Service#deleteAll} runs at once
+     */
+    public int getBulkDeleteParallelism() {
+        return bulkDeleteParallelism;
+    }
+
+    /**
+     * @param bulkDeleteParallelism Sets the number of multi-object delete batches {@link S3Service#deleteAll} runs at once
+     */
+    public void setBulkDeleteParallelism(int bulkDeleteParallelism) {
+        Assert.isTrue(bulkDeleteParallelism > 0, "bulk delete parallelism must be positive");
+        this.bulkDeleteParallelism = bulkDeleteParallelism;
+    }
+
+    /**
+     * @return number of gets {@link S3Service#getAll} has queued or running at once
+     */
+    public int getBulkGetMaxInFlight() {
+        return bulkGetMaxInFlight;
+    }
+
+    /**
+     * @param bulkGetMaxInFlight Sets the number of gets {@link S3Service#getAll} has queued or running at once
+     */
+    public void setBulkGetMaxInFlight(int bulkGetMaxInFlight) {
+        Assert.isTrue(bulkGetMaxInFlight > 0, "bulk get max in flight must be positive");
+        this.bulkGetMaxInFlight = bulkGetMaxInFlight;
+    }
+
+    /**
+     * @return total size in bytes of the content {@link S3Service#getAll} reads and hands to its consumer at once
+     */
+    public int getBulkGetMaxInFlightBytes() {
+        return bulkGetMaxInFlightBytes;
+    }
+
+    /**
+     * @param bulkGetMaxInFlightBytes Sets the total size in bytes of the content {@link S3Service#getAll} reads and
+     *                                hands to its consumer at once. A larger object waits until it has the whole budget.
+     */
+    public void setBulkGetMaxInFlightBytes(int bulkGetMaxInFlightBytes) {
+        Assert.isTrue(bulkGetMaxInFlightBytes > 0, "bulk get max in flight bytes must be positive");
+        this.bulkGetMaxInFlightBytes = bulkGetMaxInFlightBytes;
+    }
+
+    /**
+     * @return whether abandoned multipart uploads are aborted in the background
+     */
+    public boolean isMultipartJanitorEnabled() {
+        return multipartJanitorEnabled;
+    }
+
+    /**
+     * @param multipartJanitorEnabled Sets whether abandoned multipart uploads are aborted in the background
+     */
+    public void setMultipartJanitorEnabled(boolean multipartJanitorEnabled) {
+        this.multipartJanitorEnabled = multipartJanitorEnabled;
+    }
+
+    /**
+     * @return delay between the end of one multipart upload clean up and the start of the next
+     */
+    public Duration getMultipartJanitorInterval() {
+        return multipartJanitorInterval;
+    }
+
+    /**
+     * @param multipartJanitorInterval Sets the delay between the end of one multipart upload clean up and the start of the next
+     */
+    public void setMultipartJanitorInterval(Duration multipartJanitorInterval) {
+        Assert.isTrue(multipartJanitorInterval != null && !multipartJanitorInterval.isNegative() && !multipartJanitorInterval.isZero(),
+                "multipart janitor interval must be positive");
+        this.multipartJanitorInterval = multipartJanitorInterval;
+    }
+
+    /**
+     * @return age after which an unfinished multipart upload is considered abandoned and aborted
+     */
+    public Duration getMultipartUploadMaxAge() {
+        return multipartUploadMaxAge;
+    }
+
+    /**
+     * @param multipartUploadMaxAge Sets the age after which an unfinished multipart upload is considered abandoned
+     *                              and aborted. Keep it well above the longest upload any writer of the bucket runs.
+     */
+    public void setMultipartUploadMaxAge(Duration multipartUploadMaxAge) {
+        Assert.isTrue(multipartUploadMaxAge != null && !multipartUploadMaxAge.isNegative(), "multipart upload max age must not be negative");
+        this.multipartUploadMaxAge = multipartUploadMaxAge;
+    }
+
+    /**
+     * @return maximum number of multipart uploads a single clean up aborts
+     */
+    public int getMultipartJanitorMaxAbortsPerRun() {
+        return multipartJanitorMaxAbortsPerRun;
+    }
+
+    /**
+     * @param multipartJanitorMaxAbortsPerRun Sets the maximum number of multipart uploads a single clean up aborts
+     */
+    public void setMultipartJanitorMaxAbortsPerRun(int multipartJanitorMaxAbortsPerRun) {
+        Assert.isTrue(multipartJanitorMaxAbortsPerRun > 0, "multipart janitor max aborts per run must be positive");
+        this.multipartJanitorMaxAbortsPerRun = multipartJanitorMaxAbortsPerRun;
+    }
+
+    /**
+     * @return interval at which a running transfer is logged at debug level and reported to the progress callback
+     */
+    public Duration getProgressSampleInterval() {
+        return progressSampleInterval;
+    }
+
+    /**
+     * @param progressSampleInterval Sets the interval at which a running transfer is logged at debug level and
+     *                               reported to the progress callback
+     */
+    public void setProgressSampleInterval(Duration progressSampleInterval) {
+        Assert.isTrue(progressSampleInterval != null && !progressSampleInterval.isNegative(), "progress sample interval must not be negative");
+        this.progressSampleInterval = progressSampleInterval;
+    }
+
+    /**
+     * @return callback receiving each running transfer once per sample interval and once when it finishes, may be {@code null}
+     */
+    public Consumer<TransferProgress> getProgressCallback() {
+        return progressCallback;
+    }
+
+    /**
+     * @param progressCallback Sets the callback receiving each running transfer once per sample interval and once when
+     *                         it finishes. It runs on the transfer's I/O thread and must return quickly.
+     */
+    public void setProgressCallback(Consumer<TransferProgress> progressCallback) {
+        this.progressCallback = progressCallback;
+    }
+
+    /**
+     * @return {@link StorageMetrics} receiving the latency, size and outcome of every operation
+     */
+    public StorageMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics Sets the {@link StorageMetrics} receiving the latency, size and outcome of every operation,
+     *                such as a {@link HistogramStorageMetrics}
+     */
+    public void setMetrics(StorageMetrics metrics) {
+        Assert.notNull(metrics, "metrics must be provided");
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return URL of an S3 compatible endpoint used instead of the AWS endpoint of the region, {@code null} for AWS
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @param endpoint Sets the URL of an S3 compatible endpoint, such as a local test server, used instead of the
+     *                 AWS endpoint of the region; the region is then only used for request signing
+     */
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @return whether the bucket is addressed in the request path instead of the host name
+     */
+    public boolean isPathStyleAccess() {
+        return pathStyleAccess;
+    }
+
+    /**
+     * @param pathStyleAccess Sets whether the bucket is addressed in the request path instead of the host name, which
+     *                        most S3 compatible endpoints require
+     */
+    public void setPathStyleAccess(boolean pathStyleAccess) {
+        this.pathStyleAccess = pathStyleAccess;
+    }
+
+    /**
+     * @return {@link Duration} the last modified date, ETag and size read by {@link S3Service#getDate} and
+     *         {@link S3Service#exists} are cached, zero when they are not cached
+     */
+    public Duration getMetadataCacheTimeToLive() {
+        return metadataCacheTimeToLive;
+    }
+
+    /**
+     * @param metadataCacheTimeToLive Sets the {@link Duration} the last modified date, ETag and size read by
+     *                                {@link S3Service#getDate} and {@link S3Service#exists} are cached, zero to
+     *                                not cache them. Puts and deletes through the service invalidate their keys,
+     *                                changes made by other clients are seen once the entry expires.
+     */
+    public void setMetadataCacheTimeToLive(Duration metadataCacheTimeToLive) {
+        Assert.isTrue(metadataCacheTimeToLive != null && !metadataCacheTimeToLive.isNegative(), "metadata cache time to live must not be negative");
+        this.metadataCacheTimeToLive = metadataCacheTimeToLive;
+    }
+
+    /**
+     * @return {@link Duration} a missing key is remembered by the metadata cache, zero when it is not
+     */
+    public Duration getMetadataCacheNegativeTimeToLive() {
+        return metadataCacheNegativeTimeToLive;
+    }
+
+    /**
+     * @param metadataCacheNegativeTimeToLive Sets the {@link Duration} a missing key is remembered by the metadata
+     *                                        cache, zero to ask S3 every time. Only used when the metadata cache
+     *                                        is enabled; keep it short since objects created by other clients are
+     *                                        not seen before it expires.
+     */
+    public void setMetadataCacheNegativeTimeToLive(Duration metadataCacheNegativeTimeToLive) {
+        Assert.isTrue(metadataCacheNegativeTimeToLive != null && !metadataCacheNegativeTimeToLive.isNegative(), "metadata cache negative time to live must not be negative");
+        this.metadataCacheNegativeTimeToLive = metadataCacheNegativeTimeToLive;
+    }
+
+    /**
+     * @return number of keys the metadata cache holds
+     */
+    public int getMetadataCacheMaximumSize() {
+        return metadataCacheMaximumSize;
+    }
+
+    /**
+     * @param metadataCacheMaximumSize Sets the number of keys the metadata cache holds, the least recently used
+     *                                 are evicted first
+     */
+    public void setMetadataCacheMaximumSize(int metadataCacheMaximumSize) {
+        Assert.isTrue(metadataCacheMaximumSize > 0, "metadata cache maximum size must be positive");
+        this.metadataCacheMaximumSize = metadataCacheMaximumSize;
+    }
+
+    /**
+     * @return whether concurrent gets and metadata lookups of the same key share a single request
+     */
+    public boolean isRequestCoalescingEnabled() {
+        return requestCoalescingEnabled;
+    }
+
+    /**
+     * @param requestCoalescingEnabled Sets whether concurrent {@link S3Service#get(String)} calls, and concurrent
+     *                                 {@link S3Service#getDate}, {@link S3Service#getInfo} and
+     *                                 {@link S3Service#exists} calls, for the same key share a single request.
+     *                                 Only the request is deduplicated: every caller still gets its own copy of
+     *                                 the content, so N coalesced gets hold N copies in memory.
+     */
+    public void setRequestCoalescingEnabled(boolean requestCoalescingEnabled) {
+        this.requestCoalescingEnabled = requestCoalescingEnabled;
+    }
+
+    /**
+     * @return number of parts of one {@link S3Service#putStream(String, java.io.InputStream, String)} upload read or sent at once
+     */
+    public int getStreamingUploadConcurrency() {
+        return streamingUploadConcurrency;
+    }
+
+    /**
+     * @param streamingUploadConcurrency Sets the number of parts of one streaming upload read or sent at once, which
+     *                                   bounds its memory to this many part buffers of minPartSize
+     */
+    public void setStreamingUploadConcurrency(int streamingUploadConcurrency) {
+        Assert.isTrue(streamingUploadConcurrency > 0, "streaming upload concurrency must be positive");
+        this.streamingUploadConcurrency = streamingUploadConcurrency;
+    }
+
+    /**
+     * @return number of part buffers shared by all streaming uploads
+     */
+    public int getStreamingUploadBufferPoolSize() {
+        return streamingUploadBufferPoolSize;
+    }
+
+    /**
+     * @param streamingUploadBufferPoolSize Sets the number of part buffers of minPartSize shared by all streaming
+     *                                      uploads, allocated on first use and reused; uploads wait when all are in
+     *                                      use, which bounds the memory of all streaming uploads together
+     */
+    public void setStreamingUploadBufferPoolSize(int streamingUploadBufferPoolSize) {
+        Assert.isTrue(streamingUploadBufferPoolSize > 0, "streaming upload buffer pool size must be positive");
+        this.streamingUploadBufferPoolSize = streamingUploadBufferPoolSize;
+    }
+
+    /**
+     * @return whether file uploads and downloads above the upload threshold choose their part size and concurrency
+     * per transfer
+     */
+    public boolean isAdaptiveTransfersEnabled() {
+        return adaptiveTransfersEnabled;
+    }
+
+    /**
+     * @param adaptiveTransfersEnabled Sets whether file uploads and downloads above the upload threshold choose their
+     *                                 part size from the object size and the observed part throughput, and how many
+     *                                 parts they send at once, instead of using minPartSize for every transfer
+     */
+    public void setAdaptiveTransfersEnabled(boolean adaptiveTransfersEnabled) {
+        this.adaptiveTransfersEnabled = adaptiveTransfersEnabled;
+    }
+
+    /**
+     * @return largest number of parts of one adaptive transfer sent or fetched at once
+     */
+    public int getAdaptiveTransferMaxConcurrency() {
+        return adaptiveTransferMaxConcurrency;
+    }
+
+    /**
+     * @param adaptiveTransferMaxConcurrency Sets the largest number of parts of one adaptive transfer sent or fetched
+     *                                       at once, so a single large transfer cannot take the whole pool
+     */
+    public void setAdaptiveTransferMaxConcurrency(int adaptiveTransferMaxConcurrency) {
+        Assert.isTrue(adaptiveTransferMaxConcurrency > 0, "adaptive transfer max concurrency must be positive");
+        this.adaptiveTransferMaxConcurrency = adaptiveTransferMaxConcurrency;
+    }
+
+    /**
+     * @return {@link Duration} an adaptive part should take at the observed part throughput
+     */
+    public Duration getAdaptiveTargetPartDuration() {
+        return adaptiveTargetPartDuration;
+    }
+
+    /**
+     * @param adaptiveTargetPartDuration Sets the {@link Duration} an adaptive part should take at the observed part
+     *                                   throughput; longer parts mean fewer requests, shorter ones cheaper retries
+     */
+    public void setAdaptiveTargetPartDuration(Duration adaptiveTargetPartDuration) {
+        Assert.isTrue(adaptiveTargetPartDuration != null && !adaptiveTargetPartDuration.isNegative() && !adaptiveTargetPartDuration.isZero(),
+                "adaptive target part duration must be positive");
+        this.adaptiveTargetPartDuration = adaptiveTargetPartDuration;
+    }
+
+    /**
+     * @return maximum number of tasks waiting for a thread of the transfer pool
+     */
+    public int getExecutorQueueCapacity() {
+        return executorQueueCapacity;
+    }
+
+    /**
+     * @param executorQueueCapacity Sets the maximum number of tasks, such as upload parts and download ranges,
+     *                              waiting for a thread of the transfer pool before the rejection policy applies
+     */
+    public void setExecutorQueueCapacity(int executorQueueCapacity) {
+        Assert.isTrue(executorQueueCapacity > 0, "executor queue capacity must be positive");
+        this.executorQueueCapacity = executorQueueCapacity;
+    }
+
+    /**
+     * @return {@link RejectionPolicy} applied once the transfer pool queue is full
+     */
+    public RejectionPolicy getExecutorRejectionPolicy() {
+        return executorRejectionPolicy;
+    }
+
+    /**
+     * @param executorRejectionPolicy Sets the {@link RejectionPolicy} applied once the transfer pool queue is full,
+     *                                {@link RejectionPolicy#BLOCK} by default so the asynchronous methods never
+     *                                run a request on the caller's thread
+     */
+    public void setExecutorRejectionPolicy(RejectionPolicy executorRejectionPolicy) {
+        Assert.notNull(executorRejectionPolicy, "executor rejection policy must be provided");
+        this.executorRejectionPolicy = executorRejectionPolicy;
+    }
+
+    /**
+     * @return whether transfers and requests run on virtual threads when the JVM supports them
+     */
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * @param virtualThreadsEnabled Sets whether gets, puts, deletes and TransferManager work run on virtual threads,
+     *                              at most virtualThreadMaxConcurrency at once, instead of the executorThread pool.
+     *                              Needs Java 21 or later, older JVMs keep the pool and log a warning.
+     */
+    public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+    }
+
+    /**
+     * @return maximum number of tasks running on virtual threads at once
+     */
+    public int getVirtualThreadMaxConcurrency() {
+        return virtualThreadMaxConcurrency;
+    }
+
+    /**
+     * @param virtualThreadMaxConcurrency Sets the maximum number of tasks running on virtual threads at once, which
+     *                                    is also the smallest size of the S3 client's connection pool in that mode
+     */
+    public void setVirtualThreadMaxConcurrency(int virtualThreadMaxConcurrency) {
+        Assert.isTrue(virtualThreadMaxConcurrency > 0, "virtual thread max concurrency must be positive");
+        this.virtualThreadMaxConcurrency = virtualThreadMaxConcurrency;
+    }
+
+    /**
+     * @return {@link Engine} {@link S3ServiceFactory} builds the service on
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @param engine Sets the {@link Engine} {@link S3ServiceFactory} builds the service on
+     */
+    public void setEngine(Engine engine) {
+        Assert.notNull(engine, "engine must be provided");
+        this.engine = engine;
+    }
+
+    /**
+     * @return maximum number of open HTTP connections to S3
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @param maxConnections Sets the maximum number of open HTTP connections to S3; requests beyond it wait for a
+     *                       connection to be released, which the http.pool.lease.waits gauge counts
+     */
+    public void setMaxConnections(int maxConnections) {
+        Assert.isTrue(maxConnections > 0, "max connections must be positive");
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return {@link Duration} after which a pooled connection is closed, zero when connections live until idle
+     */
+    public Duration getConnectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    /**
+     * @param connectionTimeToLive Sets the {@link Duration} after which a pooled connection is closed rather than
+     *                             reused, so new connections pick up S3 DNS changes; zero keeps connections until
+     *                             they are idle
+     */
+    public void setConnectionTimeToLive(Duration connectionTimeToLive) {
+        Assert.isTrue(connectionTimeToLive != null && !connectionTimeToLive.isNegative(), "connection time to live must not be negative");
+        this.connectionTimeToLive = connectionTimeToLive;
+    }
+
+    /**
+     * @return {@link Duration} a pooled connection may stay unused before it is closed
+     */
+    public Duration getConnectionMaxIdleTime() {
+        return connectionMaxIdleTime;
+    }
+
+    /**
+     * @param connectionMaxIdleTime Sets the {@link Duration} a pooled connection may stay unused before it is closed
+     */
+    public void setConnectionMaxIdleTime(Duration connectionMaxIdleTime) {
+        Assert.isTrue(connectionMaxIdleTime != null && !connectionMaxIdleTime.isNegative() && !connectionMaxIdleTime.isZero(),
+                "connection max idle time must be positive");
+        this.connectionMaxIdleTime = connectionMaxIdleTime;
+    }
+
+    /**
+     * @return whether a background thread closes idle and expired connections
+     */
+    public boolean isIdleConnectionReaperEnabled() {
+        return idleConnectionReaperEnabled;
+    }
+
+    /**
+     * @param idleConnectionReaperEnabled Sets whether a background thread closes idle and expired connections,
+     *                                    otherwise they are only checked when leased
+     */
+    public void setIdleConnectionReaperEnabled(boolean idleConnectionReaperEnabled) {
+        this.idleConnectionReaperEnabled = idleConnectionReaperEnabled;
+    }
+
+    /**
+     * @return {@link Duration} to wait for a connection to S3 to be established
+     */
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * @param connectionTimeout Sets the {@link Duration} to wait for a connection to S3 to be established
+     */
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        Assert.isTrue(connectionTimeout != null && !connectionTimeout.isNegative() && !connectionTimeout.isZero(),
+                "connection timeout must be positive");
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    /**
+     * @return {@link Duration} to wait for data on an open connection
+     */
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * @param socketTimeout Sets the {@link Duration} to wait for data on an open connection before the request fails
+     */
+    public void setSocketTimeout(Duration socketTimeout) {
+        Assert.isTrue(socketTimeout != null && !socketTimeout.isNegative() && !socketTimeout.isZero(), "socket timeout must be positive");
+        this.socketTimeout = socketTimeout;
+    }
+
+    /**
+     * @return {@link Duration} a single HTTP request may take, zero when unlimited
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * @param requestTimeout Sets the {@link Duration} a single HTTP request may take, including sending its body,
+     *                       so it must allow for the largest part; zero leaves requests unlimited
+     */
+    public void setRequestTimeout(Duration requestTimeout) {
+        Assert.isTrue(requestTimeout != null && !requestTimeout.isNegative(), "request timeout must not be negative");
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * @return whether TCP keep-alive probes are sent on connections to S3
+     */
+    public boolean isTcpKeepAlive() {
+        return tcpKeepAlive;
+    }
+
+    /**
+     * @param tcpKeepAlive Sets whether TCP keep-alive probes are sent on connections to S3, so connections dropped
+     *                     by a firewall or load balancer are noticed while pooled
+     */
+    public void setTcpKeepAlive(boolean tcpKeepAlive) {
+        this.tcpKeepAlive = tcpKeepAlive;
+    }
+
+    /**
+     * @return whether uploads wait for a 100 Continue before sending their body
+     */
+    public boolean isExpectContinueEnabled() {
+        return expectContinueEnabled;
+    }
+
+    /**
+     * @param expectContinueEnabled Sets whether uploads send Expect: 100-continue and wait for S3 to accept the
+     *                              request before sending the body; disabling it saves a round trip per upload at
+     *                              the cost of sending bodies S3 rejects. Only {@link S3Service} applies it.
+     */
+    public void setExpectContinueEnabled(boolean expectContinueEnabled) {
+        this.expectContinueEnabled = expectContinueEnabled;
+    }
+
+    /**
+     * @return whether gzip compressed responses are accepted
+     */
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    /**
+     * @param gzipEnabled Sets whether gzip compressed responses are accepted, which only shrinks the XML of listings
+     *                    and errors. Only {@link S3Service} applies it.
+     */
+    public void setGzipEnabled(boolean gzipEnabled) {
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    /**
+     * @return maximum number of times a failed request is retried
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @param maxRetries Sets the maximum number of times a throttled, server or network failure of a request is
+     *                   retried, 0 to fail on the first error
+     */
+    public void setMaxRetries(int maxRetries) {
+        Assert.isTrue(maxRetries >= 0, "max retries must not be negative");
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * @return {@link Duration} the backoff after a server or network failure grows from
+     */
+    public Duration getRetryBaseDelay() {
+        return retryBaseDelay;
+    }
+
+    /**
+     * @param retryBaseDelay Sets the {@link Duration} the backoff after a server or network failure grows from; the
+     *                       nth retry waits a random time up to this delay times 2^n, so clients do not retry in
+     *                       lockstep
+     */
+    public void setRetryBaseDelay(Duration retryBaseDelay) {
+        Assert.isTrue(retryBaseDelay != null && !retryBaseDelay.isNegative() && !retryBaseDelay.isZero(), "retry base delay must be positive");
+        this.retryBaseDelay = retryBaseDelay;
+    }
+
+    /**
+     * @return {@link Duration} the backoff after a throttling response grows from
+     */
+    public Duration getRetryThrottledBaseDelay() {
+        return retryThrottledBaseDelay;
+    }
+
+    /**
+     * @param retryThrottledBaseDelay Sets the {@link Duration} the backoff after a throttling response, such as a
+     *                                503 SlowDown, grows from; longer than the base delay, as S3 asks for less load
+     */
+    public void setRetryThrottledBaseDelay(Duration retryThrottledBaseDelay) {
+        Assert.isTrue(retryThrottledBaseDelay != null && !retryThrottledBaseDelay.isNegative() && !retryThrottledBaseDelay.isZero(),
+                "retry throttled base delay must be positive");
+        this.retryThrottledBaseDelay = retryThrottledBaseDelay;
+    }
+
+    /**
+     * @return longest {@link Duration} waited before a retry
+     */
+    public Duration getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    /**
+     * @param retryMaxDelay Sets the longest {@link Duration} waited before a retry
+     */
+    public void setRetryMaxDelay(Duration retryMaxDelay) {
+        Assert.isTrue(retryMaxDelay != null && !retryMaxDelay.isNegative() && !retryMaxDelay.isZero(), "retry max delay must be positive");
+        this.retryMaxDelay = retryMaxDelay;
+    }
+
+    /**
+     * @return number of tokens of the retry budget
+     */
+    public int getRetryBudgetCapacity() {
+        return retryBudgetCapacity;
+    }
+
+    /**
+     * @param retryBudgetCapacity Sets the number of tokens of the retry budget; every retry takes
+     *                            {@value RetryBudget#RETRY_COST} and every successful request returns one, so while
+     *                            most requests fail, retries stop instead of multiplying the load
+     */
+    public void setRetryBudgetCapacity(int retryBudgetCapacity) {
+        Assert.isTrue(retryBudgetCapacity > 0, "retry budget capacity must be positive");
+        this.retryBudgetCapacity = retryBudgetCapacity;
+    }
+
+    /**
+     * @return whether requests fail fast while the bucket keeps failing
+     */
+    public boolean isCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    /**
+     * @param circuitBreakerEnabled Sets whether requests to the bucket fail fast with a
+     *                              {@link CircuitBreakerOpenException} once circuitBreakerFailureThreshold requests in
+     *                              a row failed, until a trial request succeeds after circuitBreakerOpenDuration;
+     *                              disabled by default
+     */
+    public void setCircuitBreakerEnabled(boolean circuitBreakerEnabled) {
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+    }
+
+    /**
+     * @return number of requests in a row failing with throttling, server or network errors that opens the circuit
+     */
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    /**
+     * @param circuitBreakerFailureThreshold Sets the number of requests in a row failing with throttling, server or
+     *                                       network errors, after their retries, that opens the circuit
+     */
+    public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+        Assert.isTrue(circuitBreakerFailureThreshold > 0, "circuit breaker failure threshold must be positive");
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    }
+
+    /**
+     * @return {@link Duration} requests fail fast before a trial request is let through
+     */
+    public Duration getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * @param circuitBreakerOpenDuration Sets the {@link Duration} requests fail fast once the circuit opened, before a
+     *                                   single trial request is let through to decide whether to close it
+     */
+    public void setCircuitBreakerOpenDuration(Duration circuitBreakerOpenDuration) {
+        Assert.isTrue(circuitBreakerOpenDuration != null && !circuitBreakerOpenDuration.isNegative() && !circuitBreakerOpenDuration.isZero(),
+                "circuit breaker open duration must be positive");
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    }
+}
@@ -0,0 +1,122 @@
+package edu.common.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call, callers arriving while it runs wait
+ * for its result instead of running their own. A call finishing, or {@link #forget(String)}, lets the next caller
+ * start a new one.
+ * <p>
+ * When anyone waited, every caller gets its own copy of the result, so sharing a fetch never lets one caller see
+ * another's changes to a mutable result such as a byte[]. Only the call is deduplicated, not the memory of its
+ * results.
+ *
+ * @param <V> result type
+ */
+class SingleFlight<V> {
+
+    private final ConcurrentHashMap<String, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final UnaryOperator<V> copy;
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * @param copy {@link UnaryOperator} copying a result, identity for immutable results
+     */
+    SingleFlight(UnaryOperator<V> copy) {
+        this.copy = copy;
+    }
+
+    /**
+     * Runs the call, or waits for the one already running for the key.
+     *
+     * @param key  {@link String} key the call is for
+     * @param call {@link Callable} fetching the result
+     * @return result of the call
+     * @throws Exception thrown by the call, to the caller that ran it and every caller that waited for it
+     */
+    V execute(String key, Callable<V> call) throws Exception {
+        Flight<V> flight = new Flight<>();
+        Flight<V> running = inFlight.compute(key, (k, existing) -> existing != null && existing.join() ? existing : flight);
+        if (running != flight) {
+            coalesced.increment();
+            return await(running);
+        }
+        V value;
+        try {
+            value = call.call();
+        } catch (Exception | Error e) {
+            flight.close();
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        int waiters = flight.close();
+        inFlight.remove(key, flight);
+        flight.result.complete(value);
+        return waiters == 0 || value == null ? value : copy.apply(value);
+    }
+
+    /**
+     * Detaches the running call of a key, so callers arriving after a write do not wait for a read that started
+     * before it.
+     *
+     * @param key {@link String} key written
+     */
+    void forget(String key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * @return number of calls that waited for another caller's call instead of running their own
+     */
+    long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private V await(Flight<V> flight) throws Exception {
+        try {
+            V value = flight.result.join();
+            return value == null ? null : copy.apply(value);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Call running for a key. Once closed its number of waiters is final and callers start a new call instead.
+     */
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private int waiters;
+        private boolean closed;
+
+        /**
+         * @return whether the caller was added as a waiter, false once the flight is closed
+         */
+        private synchronized boolean join() {
+            if (!closed) {
+                waiters++;
+            }
+            return !closed;
+        }
+
+        /**
+         * @return number of callers waiting for the result
+         */
+        private synchronized int close() {
+            closed = true;
+            return waiters;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package edu.common.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Receives the timing, size and outcome of every storage operation. Implementations are called on the calling
+ * or transfer thread of each operation, so they must be thread safe and must not block or allocate; every
+ * argument is a primitive or an {@link Operation} constant so the calls themselves allocate nothing.
+ * <p>
+ * Every {@link #started(Operation)} is followed by exactly one {@link #succeeded(Operation, long, long)} or
+ * {@link #failed(Operation, long, int)}, which lets implementations keep in-flight counts.
+ */
+public interface StorageMetrics {
+
+    /**
+     * Status code reported for failures that did not come with an HTTP status, such as I/O or client errors.
+     */
+    int NO_STATUS = 0;
+
+    /**
+     * Discards everything, used when no metrics are configured.
+     */
+    StorageMetrics NONE = new StorageMetrics() {
+    };
+
+    /**
+     * Kind of storage operation measured. {@link #GET_DATE} covers every metadata lookup, including existence checks.
+     */
+    enum Operation { PUT, GET, GET_DATE, DELETE }
+
+    /**
+     * Called when an operation starts.
+     *
+     * @param operation {@link Operation} started
+     */
+    default void started(Operation operation) {
+    }
+
+    /**
+     * Called when an operation completes.
+     *
+     * @param operation    {@link Operation} completed
+     * @param latencyNanos time the operation took, in nanoseconds
+     * @param bytes        content bytes sent for a put or received for a get, 0 for other operations
+     */
+    default void succeeded(Operation operation, long latencyNanos, long bytes) {
+    }
+
+    /**
+     * Called when an operation fails.
+     *
+     * @param operation    {@link Operation} failed
+     * @param latencyNanos time until the operation failed, in nanoseconds
+     * @param statusCode   HTTP status of the failure, 404 for missing keys, {@link #NO_STATUS} when there is none
+     */
+    default void failed(Operation operation, long latencyNanos, int statusCode) {
+    }
+
+    /**
+     * Called once per value at construction to expose a value sampled on demand, such as the queue depth of
+     * the transfer pool.
+     *
+     * @param name  {@link String} name of the value
+     * @param value {@link LongSupplier} reading the current value
+     */
+    default void registerGauge(String name, LongSupplier value) {
+    }
+}
@@ -0,0 +1,241 @@
+package edu.common.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * Uploads a stream of unknown length without spooling it: the stream is read into part buffers taken from a
+ * {@link PartBufferPool}, and each full buffer is sent as a part of a multipart upload on the executor while the
+ * next one is read. A stream shorter than one part is sent with a single put instead. An upload keeps at most a
+ * fixed number of parts in flight, so its memory is bounded by that number times the part size.
+ */
+class StreamingMultipartUpload {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingMultipartUpload.class);
+
+    /**
+     * Maximum number of parts of a multipart upload accepted by S3.
+     */
+    static final int MAX_PARTS = 10000;
+
+    private final AmazonS3 s3;
+    private final String bucket;
+    private final Executor executor;
+    private final PartBufferPool buffers;
+    private final int partsInFlight;
+
+    /**
+     * @param s3            {@link AmazonS3} client
+     * @param bucket        {@link String} S3 Bucket to upload to
+     * @param executor      {@link Executor} sending the parts
+     * @param buffers       {@link PartBufferPool} providing the part buffers, whose size is the part size
+     * @param partsInFlight maximum number of parts of one upload being read or sent at once
+     */
+    StreamingMultipartUpload(AmazonS3 s3, String bucket, Executor executor, PartBufferPool buffers, int partsInFlight) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.executor = executor;
+        this.buffers = buffers;
+        this.partsInFlight = partsInFlight;
+    }
+
+    /**
+     * Reads the stream to its end and stores it under the key. A failed multipart upload is aborted.
+     *
+     * @param key         {@link String} key to store the content under
+     * @param content     {@link InputStream} read to its end, left open
+     * @param contentType content type of the content
+     * @param progress    {@link TransferProgress} fed as parts are sent
+     * @return number of bytes stored
+     * @throws IOException          when the stream cannot be read
+     * @throws InterruptedException when interrupted while waiting for a buffer
+     */
+    long upload(String key, InputStream content, String contentType, TransferProgress progress) throws IOException, InterruptedException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        byte[] buffer = buffers.acquire();
+        int length;
+        try {
+            length = readFully(content, buffer);
+            if (length < buffer.length) {
+                metadata.setContentLength(length);
+                s3.putObject(new PutObjectRequest(bucket, key, new ByteArrayInputStream(buffer, 0, length), metadata));
+                progress.transferred(length);
+                return length;
+            }
+        } catch (IOException | RuntimeException e) {
+            buffers.release(buffer);
+            throw e;
+        }
+        String uploadId;
+        try {
+            uploadId = s3.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key, metadata)).getUploadId();
+        } catch (RuntimeException e) {
+            buffers.release(buffer);
+            throw e;
+        }
+        return uploadParts(key, uploadId, content, buffer, progress);
+    }
+
+    private long uploadParts(String key, String uploadId, InputStream content, byte[] first, TransferProgress progress) throws IOException, InterruptedException {
+        Semaphore inFlight = new Semaphore(partsInFlight);
+        // the first part's buffer is already taken
+        inFlight.acquireUninterruptibly();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<PartETag>> parts = new ArrayList<>();
+        boolean completed = false;
+        long total = 0;
+        try {
+            byte[] buffer = first;
+            int length = buffer.length;
+            while (true) {
+                if (parts.size() == MAX_PARTS) {
+                    buffers.release(buffer);
+                    inFlight.release();
+                    throw new IllegalStateException("Content of " + key + " exceeds " + MAX_PARTS + " parts of " + buffers.getBufferSize() + " bytes");
+                }
+                parts.add(uploadPart(key, uploadId, parts.size() + 1, buffer, length, inFlight, failure, progress));
+                total += length;
+                if (length < buffer.length) {
+                    break;
+                }
+                inFlight.acquire();
+                buffer = acquire(inFlight);
+                try {
+                    length = readFully(content, buffer);
+                } catch (IOException | RuntimeException e) {
+                    buffers.release(buffer);
+                    inFlight.release();
+                    throw e;
+                }
+                if (length == 0 || failure.get() != null) {
+                    buffers.release(buffer);
+                    inFlight.release();
+                    break;
+                }
+            }
+            List<PartETag> eTags = new ArrayList<>(parts.size());
+            for (CompletableFuture<PartETag> part : parts) {
+                eTags.add(join(part));
+            }
+            s3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, eTags));
+            completed = true;
+            LOGGER.debug("Streamed {} bytes in {} parts to S3 bucket {} with location {}", total, parts.size(), keyValue("bucket", bucket), keyValue("location", key));
+            return total;
+        } finally {
+            if (!completed) {
+                abort(key, uploadId, parts);
+            }
+        }
+    }
+
+    /**
+     * Takes a part buffer, giving back the in-flight permit if interrupted while waiting for one.
+     */
+    private byte[] acquire(Semaphore inFlight) throws InterruptedException {
+        try {
+            return buffers.acquire();
+        } catch (InterruptedException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a part on the executor, handing its buffer and in-flight permit back once it is sent or failed.
+     */
+    private CompletableFuture<PartETag> uploadPart(String key, String uploadId, int partNumber, byte[] buffer, int length,
+                                                   Semaphore inFlight, AtomicReference<Throwable> failure, TransferProgress progress) {
+        UploadPartRequest request = new UploadPartRequest()
+                .withBucketName(bucket)
+                .withKey(key)
+                .withUploadId(uploadId)
+                .withPartNumber(partNumber)
+                .withInputStream(new ByteArrayInputStream(buffer, 0, length))
+                .withPartSize(length);
+        CompletableFuture<PartETag> part;
+        try {
+            part = CompletableFuture.supplyAsync(() -> s3.uploadPart(request).getPartETag(), executor);
+        } catch (RuntimeException e) {
+            buffers.release(buffer);
+            inFlight.release();
+            throw e;
+        }
+        return part.whenComplete((eTag, e) -> {
+            buffers.release(buffer);
+            inFlight.release();
+            if (e == null) {
+                progress.transferred(length);
+            } else {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    /**
+     * Waits for the parts already submitted, so none is sent after the abort and every buffer is back in the pool,
+     * then aborts the upload.
+     */
+    private void abort(String key, String uploadId, List<CompletableFuture<PartETag>> parts) {
+        for (CompletableFuture<PartETag> part : parts) {
+            try {
+                part.join();
+            } catch (CompletionException e) {
+                // the failure is reported by the upload
+            }
+        }
+        try {
+            s3.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+        } catch (AmazonClientException e) {
+            LOGGER.error("Failed aborting multipart upload of {}, the janitor will clean it up", keyValue("location", key), e);
+        }
+    }
+
+    private static PartETag join(CompletableFuture<PartETag> part) {
+        try {
+            return part.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FileStorageServiceException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads until the buffer is full or the stream ends.
+     *
+     * @return number of bytes read, less than the buffer size only at the end of the stream
+     */
+    private static int readFully(InputStream content, byte[] buffer) throws IOException {
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = content.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,149 @@
+package edu.common.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.SyncProgressListener;
+
+/**
+ * Progress of a single upload or download. Receives the SDK's byte transfer events synchronously and only
+ * aggregates them, so it is cheap enough to stay attached to every transfer.
+ */
+public class TransferProgress extends SyncProgressListener {
+
+    /**
+     * Lifecycle of a transfer.
+     */
+    public enum State { IN_PROGRESS, COMPLETED, FAILED }
+
+    private final String key;
+    private final long totalBytes;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong bytesTransferred = new AtomicLong();
+    private final AtomicLong lastSampleNanos = new AtomicLong(startNanos);
+    private final TransferProgressTracker tracker;
+    private volatile State state = State.IN_PROGRESS;
+    private volatile long endNanos;
+
+    /**
+     * @param key        {@link String} key of the object being transferred
+     * @param totalBytes size of the object, negative when unknown
+     * @param tracker    {@link TransferProgressTracker} sampled and notified on completion
+     */
+    TransferProgress(String key, long totalBytes, TransferProgressTracker tracker) {
+        this.key = key;
+        this.totalBytes = totalBytes;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Counts the bytes of the SDK's request byte events, taking back those of a request that is retried.
+     *
+     * @param progressEvent {@link ProgressEvent} published by the SDK
+     */
+    @Override
+    public void progressChanged(ProgressEvent progressEvent) {
+        switch (progressEvent.getEventType()) {
+            case REQUEST_BYTE_TRANSFER_EVENT:
+                transferred(progressEvent.getBytes());
+                break;
+            case HTTP_REQUEST_CONTENT_RESET_EVENT:
+                bytesTransferred.addAndGet(-progressEvent.getBytes());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return key of the object being transferred
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return size of the object in bytes, negative when unknown
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return bytes transferred so far
+     */
+    public long getBytesTransferred() {
+        return bytesTransferred.get();
+    }
+
+    /**
+     * @return current {@link State}
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return time since the transfer started, or its total duration once finished
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos((state == State.IN_PROGRESS ? System.nanoTime() : endNanos) - startNanos);
+    }
+
+    /**
+     * @return average throughput since the transfer started, in bytes per second
+     */
+    public double getThroughput() {
+        long elapsedNanos = getElapsed().toNanos();
+        return elapsedNanos == 0 ? 0 : getBytesTransferred() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return estimated time until the transfer completes at the average throughput, {@code null} when the size is
+     * unknown or nothing has been transferred yet
+     */
+    public Duration getEstimatedTimeRemaining() {
+        if (state != State.IN_PROGRESS) {
+            return Duration.ZERO;
+        }
+        double throughput = getThroughput();
+        if (totalBytes < 0 || throughput == 0) {
+            return null;
+        }
+        return Duration.ofNanos((long) (Math.max(0, totalBytes - getBytesTransferred()) * 1e9 / throughput));
+    }
+
+    /**
+     * Counts transferred bytes and lets the tracker sample the transfer once per sample interval.
+     *
+     * @param bytes number of bytes transferred
+     */
+    void transferred(long bytes) {
+        bytesTransferred.addAndGet(bytes);
+        long now = System.nanoTime();
+        long last = lastSampleNanos.get();
+        if (now - last >= tracker.getSampleIntervalNanos() && lastSampleNanos.compareAndSet(last, now)) {
+            tracker.sample(this);
+        }
+    }
+
+    /**
+     * Marks the transfer finished and reports it to the tracker.
+     *
+     * @param succeeded whether the transfer completed
+     */
+    synchronized void finish(boolean succeeded) {
+        if (state != State.IN_PROGRESS) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        state = succeeded ? State.COMPLETED : State.FAILED;
+        tracker.finish(this);
+    }
+
+    @Override
+    public String toString() {
+        return key + " " + state + " " + getBytesTransferred() + "/" + totalBytes + " bytes";
+    }
+}
@@ -0,0 +1,86 @@
+package edu.common.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * Keeps the {@link TransferProgress} of every running transfer. Instead of logging every SDK progress event it
+ * reports each transfer at most once per sample interval while it runs, and once when it finishes.
+ */
+class TransferProgressTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferProgressTracker.class);
+
+    private final Set<TransferProgress> active = ConcurrentHashMap.newKeySet();
+    private final long sampleIntervalNanos;
+    private final Consumer<TransferProgress> callback;
+
+    /**
+     * @param sampleInterval {@link Duration} between two reports of a running transfer
+     * @param callback       {@link Consumer} receiving the sampled and finished transfers, may be {@code null}
+     */
+    TransferProgressTracker(Duration sampleInterval, Consumer<TransferProgress> callback) {
+        this.sampleIntervalNanos = sampleInterval.toNanos();
+        this.callback = callback;
+    }
+
+    /**
+     * Starts tracking a transfer.
+     *
+     * @param key        {@link String} key of the object being transferred
+     * @param totalBytes size of the object, negative when unknown
+     * @return the {@link TransferProgress} to feed and finish
+     */
+    TransferProgress start(String key, long totalBytes) {
+        TransferProgress progress = new TransferProgress(key, totalBytes, this);
+        active.add(progress);
+        return progress;
+    }
+
+    /**
+     * @return the transfers currently running
+     */
+    Collection<TransferProgress> getActiveTransfers() {
+        return Collections.unmodifiableSet(active);
+    }
+
+    long getSampleIntervalNanos() {
+        return sampleIntervalNanos;
+    }
+
+    void sample(TransferProgress progress) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Transferred {} of {} bytes for {} at {} bytes/s, {} remaining", progress.getBytesTransferred(), progress.getTotalBytes(),
+                    keyValue("location", progress.getKey()), (long) progress.getThroughput(), progress.getEstimatedTimeRemaining());
+        }
+        notifyCallback(progress);
+    }
+
+    void finish(TransferProgress progress) {
+        active.remove(progress);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Transfer of {} {} after {} bytes in {} milliseconds at {} bytes/s", keyValue("location", progress.getKey()), progress.getState(),
+                    progress.getBytesTransferred(), progress.getElapsed().toMillis(), (long) progress.getThroughput());
+        }
+        notifyCallback(progress);
+    }
+
+    private void notifyCallback(TransferProgress progress) {
+        if (callback != null) {
+            try {
+                callback.accept(progress);
+            } catch (RuntimeException e) {
+                LOGGER.error("Transfer progress callback failed", e);
+            }
+        }
+    }
+}
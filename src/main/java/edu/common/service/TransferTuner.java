@@ -0,0 +1,142 @@
+package edu.common.service;
+
+import java.time.Duration;
+
+import static com.amazonaws.services.s3.internal.Constants.MB;
+
+/**
+ * Chooses the part size and concurrency of each multipart transfer from the size of the object and the throughput
+ * recently observed per part. Parts are sized to take about the target duration at that throughput, so huge objects
+ * are sent in fewer, larger requests, but medium objects are still split so every allowed connection gets a part.
+ * Parts never drop below the minimum part size and objects never need more than the 10,000 parts S3 accepts.
+ */
+class TransferTuner {
+
+    /**
+     * Maximum number of parts of a multipart upload accepted by S3.
+     */
+    static final int MAX_PARTS = StreamingMultipartUpload.MAX_PARTS;
+
+    /**
+     * Maximum size of a single part accepted by S3.
+     */
+    static final long MAX_PART_SIZE = 5L * 1024 * MB;
+
+    /**
+     * Weight of the latest part in the smoothed throughput.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    private final long minPartSize;
+    private final int maxConcurrency;
+    private final double targetPartSeconds;
+
+    /**
+     * Smoothed bytes per second of a single part, 0 until the first part is recorded; guarded by the tuner's monitor.
+     */
+    private double throughput;
+    private volatile long lastPartSize;
+    private volatile int lastConcurrency;
+
+    /**
+     * @param minPartSize        smallest part size in bytes
+     * @param maxConcurrency     largest number of parts of one transfer sent at once
+     * @param targetPartDuration {@link Duration} a part should take at the observed throughput
+     */
+    TransferTuner(long minPartSize, int maxConcurrency, Duration targetPartDuration) {
+        this.minPartSize = minPartSize;
+        this.maxConcurrency = maxConcurrency;
+        this.targetPartSeconds = targetPartDuration.toNanos() / 1e9;
+    }
+
+    /**
+     * Chooses how to transfer an object.
+     *
+     * @param size size of the object in bytes
+     * @return {@link Plan} of the transfer
+     */
+    Plan plan(long size) {
+        long partSize = minPartSize;
+        double observed = getThroughput();
+        if (observed > 0) {
+            partSize = Math.max(partSize, (long) (observed * targetPartSeconds));
+        }
+        long perConnection = ceilDiv(size, maxConcurrency);
+        if (perConnection >= minPartSize) {
+            partSize = Math.min(partSize, perConnection);
+        }
+        partSize = Math.max(partSize, ceilDiv(size, MAX_PARTS));
+        partSize = Math.min(ceilDiv(partSize, MB) * MB, MAX_PART_SIZE);
+        int partCount = (int) Math.max(1, ceilDiv(size, partSize));
+        int concurrency = Math.min(maxConcurrency, partCount);
+        lastPartSize = partSize;
+        lastConcurrency = concurrency;
+        return new Plan(partSize, partCount, concurrency);
+    }
+
+    /**
+     * Feeds the duration of a part into the observed throughput.
+     *
+     * @param bytes        size of the part
+     * @param elapsedNanos time the part took, in nanoseconds
+     */
+    synchronized void record(long bytes, long elapsedNanos) {
+        if (bytes <= 0 || elapsedNanos <= 0) {
+            return;
+        }
+        double latest = bytes * 1e9 / elapsedNanos;
+        throughput = throughput == 0 ? latest : throughput + SMOOTHING * (latest - throughput);
+    }
+
+    /**
+     * @return smoothed bytes per second of a single part, 0 before the first part
+     */
+    synchronized double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * @return part size of the latest plan, 0 before the first
+     */
+    long getLastPartSize() {
+        return lastPartSize;
+    }
+
+    /**
+     * @return concurrency of the latest plan, 0 before the first
+     */
+    int getLastConcurrency() {
+        return lastConcurrency;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * Part size and concurrency chosen for a transfer.
+     */
+    static final class Plan {
+        private final long partSize;
+        private final int partCount;
+        private final int concurrency;
+
+        private Plan(long partSize, int partCount, int concurrency) {
+            this.partSize = partSize;
+            this.partCount = partCount;
+            this.concurrency = concurrency;
+        }
+
+        long getPartSize() {
+            return partSize;
+        }
+
+        int getPartCount() {
+            return partCount;
+        }
+
+        int getConcurrency() {
+            return concurrency;
+        }
+    }
+}
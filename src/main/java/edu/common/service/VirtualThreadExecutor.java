@@ -0,0 +1,138 @@
+package edu.common.service;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every task on its own virtual thread, with a semaphore bounding how many run at once. Blocking SDK calls
+ * then cost a parked virtual thread instead of a platform thread, so thousands of small requests can wait on S3
+ * together. Tasks wait for a permit on their own virtual thread, so a task never holds a permit while waiting for
+ * another task to get one.
+ * <p>
+ * Virtual threads need Java 21 or later and are looked up reflectively, so the library still builds and runs on
+ * Java 11; {@link #isSupported()} tells whether the running JVM has them.
+ */
+class VirtualThreadExecutor extends AbstractExecutorService {
+
+    /**
+     * {@code Executors.newThreadPerTaskExecutor(ThreadFactory)} and the virtual thread builder methods, {@code null}
+     * before Java 21.
+     */
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+
+    static {
+        Method newThreadPerTaskExecutor = null;
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+        } catch (ReflectiveOperationException e) {
+            newThreadPerTaskExecutor = null;
+        }
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    /**
+     * @param maxConcurrency maximum number of tasks running at once
+     * @param namePrefix     {@link String} prefix of the virtual thread names
+     * @throws IllegalStateException when the JVM has no virtual threads
+     */
+    VirtualThreadExecutor(int maxConcurrency, String namePrefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running " + Runtime.version());
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 1L);
+            this.delegate = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, FACTORY.invoke(builder));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create virtual thread executor", e);
+        }
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * @return whether the running JVM supports virtual threads
+     */
+    static boolean isSupported() {
+        return NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // shut down before the task got a permit
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * @return number of tasks running
+     */
+    int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return approximate number of tasks waiting for a permit
+     */
+    int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
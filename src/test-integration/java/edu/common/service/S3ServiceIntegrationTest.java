@@ -1,13 +1,25 @@
 package edu.common.service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.http.entity.ContentType;
 import org.junit.Before;
@@ -130,4 +142,163 @@ public class S3ServiceIntegrationTest {
         }
         assertTrue(fileWasDeleted);
     }
+
+    @Test
+    public void verifyStream() throws Exception {
+        // generate random string content to put, stream and delete
+        String content = RandomStringUtils.randomAlphanumeric(100000);
+        assertNotNull(content);
+
+        // create the file
+        s3Service.put(key, content.getBytes(), ContentType.TEXT_PLAIN.getMimeType());
+
+        // stream the saved file contents
+        try (InputStream in = s3Service.getStream(key)) {
+            assertEquals(content, IOUtils.toString(in, Charset.defaultCharset()));
+        }
+
+        // copy the saved file contents into a caller supplied stream
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(content.length(), s3Service.get(key, out));
+        assertEquals(content, new String(out.toByteArray()));
+
+        // delete the file
+        s3Service.delete(key);
+    }
+
+    @Test
+    public void verifyRange() throws Exception {
+        // generate random string content to put, read in slices and delete
+        String content = RandomStringUtils.randomAlphanumeric(100000);
+        assertNotNull(content);
+
+        // create the file
+        s3Service.put(key, content.getBytes(), ContentType.TEXT_PLAIN.getMimeType());
+
+        // read a slice from the middle and one running past the end
+        assertEquals(content.substring(500, 1524), new String(s3Service.get(key, 500, 1024)));
+        assertEquals(content.substring(99990), new String(s3Service.get(key, 99990, 1024)));
+
+        // a slice starting past the end is empty
+        assertEquals(0, s3Service.get(key, 200000, 1024).length);
+
+        // delete the file
+        s3Service.delete(key);
+    }
+
+    @Test
+    public void verifyDownload() throws Exception {
+        // generate random string content to put, download and delete
+        String content = RandomStringUtils.randomAlphanumeric(100000);
+        assertNotNull(content);
+
+        // create the file
+        s3Service.put(key, content.getBytes(), ContentType.TEXT_PLAIN.getMimeType());
+
+        // download the saved file contents to a local file
+        Path target = Files.createTempFile(key, null);
+        try {
+            s3Service.download(key, target);
+            assertEquals(content, new String(Files.readAllBytes(target)));
+        } finally {
+            Files.deleteIfExists(target);
+        }
+
+        // delete the file
+        s3Service.delete(key);
+    }
+
+    @Test
+    public void verifyAsync() throws Exception {
+        // generate random string content to put, get and delete
+        String content = RandomStringUtils.randomAlphanumeric(100000);
+        assertNotNull(content);
+
+        // create the file, then read it back once stored
+        byte[] results = s3Service.putAsync(key, content.getBytes(), ContentType.TEXT_PLAIN.getMimeType())
+                .thenCompose(stored -> s3Service.getAsync(key))
+                .get(30, TimeUnit.SECONDS);
+        assertEquals(content, new String(results));
+
+        // delete the file
+        s3Service.deleteAsync(key).get(30, TimeUnit.SECONDS);
+
+        // once deleted, the future of a get completes with a FileNotFoundException
+        try {
+            s3Service.getAsync(key).get(30, TimeUnit.SECONDS);
+            fail("expected the file to be deleted");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof FileNotFoundException);
+        }
+    }
+
+    @Test
+    public void verifyDeleteAll() throws Exception {
+        // create a handful of files
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            keys.add(key + "-" + i);
+            s3Service.put(key + "-" + i, RandomStringUtils.randomAlphanumeric(1000).getBytes(), ContentType.TEXT_PLAIN.getMimeType());
+        }
+
+        // delete them together with a key that never existed
+        keys.add(key + "-missing");
+        assertTrue(s3Service.deleteAll(keys).isEmpty());
+
+        // every file is gone
+        for (String deleted : keys) {
+            try {
+                s3Service.get(deleted);
+                fail("expected " + deleted + " to be deleted");
+            } catch (FileNotFoundException fnfe) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void verifyGetAll() throws Exception {
+        // create a handful of files
+        Map<String, String> contents = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            contents.put(key + "-" + i, RandomStringUtils.randomAlphanumeric(1000));
+            s3Service.put(key + "-" + i, contents.get(key + "-" + i).getBytes(), ContentType.TEXT_PLAIN.getMimeType());
+        }
+
+        // get them together with a key that never existed
+        List<String> keys = new ArrayList<>(contents.keySet());
+        keys.add(key + "-missing");
+        BatchResult<byte[]> result = s3Service.getAll(keys);
+
+        // every file is returned and the missing key is reported as not found
+        assertEquals(contents.size(), result.getResults().size());
+        contents.forEach((k, content) -> assertEquals(content, new String(result.getResults().get(k))));
+        assertTrue(result.getFailures().get(key + "-missing") instanceof FileNotFoundException);
+
+        // delete the files
+        assertTrue(s3Service.deleteAll(contents.keySet()).isEmpty());
+    }
+
+    @Test
+    public void verifyPutDirectory() throws Exception {
+        // create a directory with a nested file
+        Path directory = Files.createTempDirectory(key);
+        Files.createDirectories(directory.resolve("nested"));
+        String first = RandomStringUtils.randomAlphanumeric(1000);
+        String second = RandomStringUtils.randomAlphanumeric(1000);
+        Files.write(directory.resolve("first"), first.getBytes());
+        Files.write(directory.resolve("nested").resolve("second"), second.getBytes());
+
+        try {
+            // store the directory and read the files back by their relative keys
+            assertTrue(s3Service.putDirectory(directory, key).isEmpty());
+            assertEquals(first, new String(s3Service.get(key + "/first")));
+            assertEquals(second, new String(s3Service.get(key + "/nested/second")));
+        } finally {
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+
+        // delete the files
+        assertTrue(s3Service.deleteAll(Arrays.asList(key + "/first", key + "/nested/second")).isEmpty());
+    }
 }
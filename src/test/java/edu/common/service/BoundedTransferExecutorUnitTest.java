@@ -0,0 +1,107 @@
+package edu.common.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.common.service.S3ServiceOptions.RejectionPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BoundedTransferExecutorUnitTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedTransferExecutor executor;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verify that a full queue fails submissions under {@link RejectionPolicy#FAIL_FAST}.
+     */
+    @Test
+    public void failFast() {
+        executor = saturated(RejectionPolicy.FAIL_FAST);
+        try {
+            executor.execute(() -> { });
+            fail("expected the submission to be rejected");
+        } catch (RejectedExecutionException expected) {
+            assertEquals(1, executor.getRejectedCount());
+        }
+    }
+
+    /**
+     * Verify that a full queue runs submissions on the submitting thread under {@link RejectionPolicy#CALLER_RUNS}.
+     */
+    @Test
+    public void callerRuns() {
+        executor = saturated(RejectionPolicy.CALLER_RUNS);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), ranOn.get());
+        assertEquals(1, executor.getCallerRunsCount());
+    }
+
+    /**
+     * Verify that a full queue makes submitters wait for room under {@link RejectionPolicy#BLOCK}, while a pool
+     * thread runs its own submission instead of waiting for itself.
+     */
+    @Test
+    public void block() throws Exception {
+        executor = saturated(RejectionPolicy.BLOCK);
+        CompletableFuture<Void> submitted = CompletableFuture.runAsync(() -> executor.execute(() -> { }));
+        try {
+            submitted.get(200, TimeUnit.MILLISECONDS);
+            fail("expected the submitter to wait for room in the queue");
+        } catch (TimeoutException expected) {
+            // the queue is still full
+        }
+        release.countDown();
+        submitted.get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Boolean> nested = new CompletableFuture<>();
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch hold = new CountDownLatch(1);
+        executor.execute(() -> {
+            awaitQuietly(go);
+            // the queue is full, so the worker runs the nested task itself
+            executor.execute(() -> nested.complete(true));
+        });
+        executor.execute(() -> awaitQuietly(hold));
+        go.countDown();
+        assertTrue(nested.get(5, TimeUnit.SECONDS));
+        hold.countDown();
+        assertTrue(executor.getQueueWaitMillis() >= 0);
+    }
+
+    /**
+     * Creates an executor of one thread and a queue of one, with the thread busy until released and the queue full.
+     */
+    private BoundedTransferExecutor saturated(RejectionPolicy policy) {
+        BoundedTransferExecutor pool = new BoundedTransferExecutor(1, 1, policy, "test-worker-");
+        pool.execute(() -> awaitQuietly(release));
+        pool.execute(() -> { });
+        return pool;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package edu.common.service;
+
+import java.nio.ByteBuffer;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ByteBufferInputStreamUnitTest {
+
+    /**
+     * Verify that the remaining bytes of a direct buffer are read without moving its position.
+     */
+    @Test
+    public void readsRemainingBytes() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(7);
+        buffer.put("content".getBytes()).flip();
+        buffer.position(2);
+
+        assertArrayEquals("ntent".getBytes(), IOUtils.toByteArray(new ByteBufferInputStream(buffer)));
+        assertEquals(2, buffer.position());
+    }
+
+    /**
+     * Verify that reset goes back to the mark, or to the start before any mark, so the stream can be replayed.
+     */
+    @Test
+    public void resetReplaysFromMark() throws Exception {
+        ByteBufferInputStream in = new ByteBufferInputStream(ByteBuffer.wrap("content".getBytes()));
+        byte[] first = new byte[3];
+        assertEquals(3, in.read(first));
+        in.reset();
+        assertArrayEquals("content".getBytes(), IOUtils.toByteArray(in));
+
+        in.reset();
+        assertEquals(2, in.skip(2));
+        in.mark(Integer.MAX_VALUE);
+        assertEquals('n', in.read());
+        in.reset();
+        assertEquals(5, in.available());
+        assertEquals(-1, new ByteBufferInputStream(ByteBuffer.allocate(0)).read());
+    }
+}
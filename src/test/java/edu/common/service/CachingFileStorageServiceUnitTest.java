@@ -0,0 +1,195 @@
+package edu.common.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CachingFileStorageServiceUnitTest {
+
+    private Path directory;
+    private CountingService storage;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("caching-storage");
+        storage = new CountingService(new MockS3Service(directory.toString() + "/"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    /**
+     * Verify that a second get is served from the cache, also off-heap, and that callers get their own copy.
+     */
+    @Test
+    public void getIsCached() throws IOException {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            CachingFileStorageService cache = new CachingFileStorageService(storage, 1024, Duration.ofMinutes(1), offHeap);
+            storage.put("key", "content".getBytes(), "text/plain");
+            storage.gets.set(0);
+
+            byte[] first = cache.get("key");
+            first[0] = 'X';
+
+            assertArrayEquals("content".getBytes(), cache.get("key"));
+            assertArrayEquals("ont".getBytes(), cache.get("key", 1, 3));
+            assertEquals(1, storage.gets.get());
+            assertEquals(2, cache.getStats().getHitCount());
+            assertEquals(1, cache.getStats().getMissCount());
+            assertEquals(7, cache.getStats().getSize());
+        }
+    }
+
+    /**
+     * Verify that puts and deletes through the cache invalidate the key.
+     */
+    @Test
+    public void putAndDeleteInvalidate() throws IOException {
+        CachingFileStorageService cache = new CachingFileStorageService(storage, 1024, Duration.ofMinutes(1), false);
+        cache.put("key", "first".getBytes(), "text/plain");
+        assertArrayEquals("first".getBytes(), cache.get("key"));
+
+        cache.put("key", "second".getBytes(), "text/plain");
+        assertArrayEquals("second".getBytes(), cache.get("key"));
+
+        cache.deleteAll(Arrays.asList("key"));
+        assertEquals(0, cache.getStats().getEntryCount());
+    }
+
+    /**
+     * Verify that a read racing with a put of its own key is not cached, while a put of another key does not keep it
+     * from being cached.
+     */
+    @Test
+    public void racingPutOnlyAffectsItsKey() throws IOException {
+        CachingFileStorageService cache = new CachingFileStorageService(storage, 1024, Duration.ofMinutes(1), false);
+        storage.put("key", "first".getBytes(), "text/plain");
+
+        storage.duringGet = () -> cache.put("other", "other".getBytes(), "text/plain");
+        cache.get("key");
+        assertEquals(1, cache.getStats().getEntryCount());
+
+        cache.invalidateAll();
+        storage.duringGet = () -> cache.put("key", "second".getBytes(), "text/plain");
+        assertArrayEquals("first".getBytes(), cache.get("key"));
+        storage.duringGet = () -> {
+        };
+        assertEquals(0, cache.getStats().getEntryCount());
+        assertArrayEquals("second".getBytes(), cache.get("key"));
+    }
+
+    /**
+     * Verify that streams, channels and output streams are served from the cached content.
+     */
+    @Test
+    public void streamsAreServedFromCache() throws IOException {
+        CachingFileStorageService cache = new CachingFileStorageService(storage, 1024, Duration.ofMinutes(1), true);
+        storage.put("key", "content".getBytes(), "text/plain");
+        cache.get("key");
+
+        assertArrayEquals("content".getBytes(), IOUtils.toByteArray(cache.getStream("key")));
+        assertArrayEquals("content".getBytes(), IOUtils.toByteArray(Channels.newInputStream(cache.getChannel("key"))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(7, cache.get("key", out));
+        assertArrayEquals("content".getBytes(), out.toByteArray());
+        assertEquals(1, storage.gets.get());
+        assertEquals(3, cache.getStats().getHitCount());
+    }
+
+    /**
+     * Verify that the least recently used entries are evicted once the cached bytes exceed the maximum size.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        CachingFileStorageService cache = new CachingFileStorageService(storage, 25, Duration.ofMinutes(1), false);
+        for (String key : new String[]{"a", "b", "c"}) {
+            storage.put(key, new byte[10], "text/plain");
+        }
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+        storage.gets.set(0);
+
+        cache.get("a");
+        cache.get("c");
+        assertEquals(0, storage.gets.get());
+        cache.get("b");
+        assertEquals(1, storage.gets.get());
+        assertEquals(2, cache.getStats().getEvictionCount());
+    }
+
+    /**
+     * Verify that expired entries are read from the storage again.
+     */
+    @Test
+    public void expiredEntriesAreReloaded() throws Exception {
+        CachingFileStorageService cache = new CachingFileStorageService(storage, 1024, Duration.ofMillis(1), false);
+        storage.put("key", "content".getBytes(), "text/plain");
+        cache.get("key");
+        Thread.sleep(5);
+        cache.get("key");
+
+        assertEquals(2, storage.gets.get());
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    /**
+     * Verify that objects larger than the whole cache are not cached.
+     */
+    @Test
+    public void largeObjectsAreNotCached() throws IOException {
+        CachingFileStorageService cache = new CachingFileStorageService(storage, 4, Duration.ofMinutes(1), false);
+        storage.put("key", "content".getBytes(), "text/plain");
+        cache.get("key");
+        cache.get("key");
+
+        assertEquals(2, storage.gets.get());
+        assertEquals(0, cache.getStats().getEntryCount());
+    }
+
+    /**
+     * Verify that {@link CachingFileStorageService} correctly fails when the time to live is not positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void timeToLiveZero() {
+        new CachingFileStorageService(storage, 1024, Duration.ZERO, false);
+    }
+
+    /**
+     * Counts the full gets reaching the storage.
+     */
+    private static class CountingService extends ForwardingFileStorageService {
+        private final AtomicInteger gets = new AtomicInteger();
+        private volatile Runnable duringGet = () -> {
+        };
+
+        CountingService(IFileStorageService delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public byte[] get(String key) throws IOException {
+            gets.incrementAndGet();
+            byte[] content = super.get(key);
+            duringGet.run();
+            return content;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package edu.common.service;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerUnitTest {
+
+    /**
+     * Verify that the circuit opens after the threshold of failures in a row and that a success resets the count.
+     */
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMinutes(1));
+
+        assertFalse(breaker.onFailure());
+        assertFalse(breaker.onFailure());
+        assertFalse(breaker.onSuccess());
+        assertFalse(breaker.onFailure());
+        assertFalse(breaker.onFailure());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.onFailure());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getOpenedCount());
+        assertEquals(2, breaker.getRejectedCount());
+    }
+
+    /**
+     * Verify that a single trial is let through once the open duration passed, and that its outcome closes or
+     * reopens the circuit.
+     */
+    @Test
+    public void trialDecides() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50));
+        assertTrue(breaker.onFailure());
+        Thread.sleep(60);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenedCount());
+
+        Thread.sleep(60);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.onSuccess());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,226 @@
+package edu.common.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DiskCachingFileStorageServiceUnitTest {
+
+    private Path directory;
+    private Path cacheDirectory;
+    private CountingService storage;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("disk-caching-storage");
+        cacheDirectory = directory.resolve("cache");
+        storage = new CountingService(new MockS3Service(directory.resolve("storage").toString() + "/"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    /**
+     * Verify that reads after the first are served from the cache directory, whichever read filled it.
+     */
+    @Test
+    public void readsAreCached() throws IOException {
+        DiskCachingFileStorageService cache = new DiskCachingFileStorageService(storage, cacheDirectory, 1024, Duration.ofMinutes(1));
+        storage.put("key", "content".getBytes(), "text/plain");
+        storage.put("other", "other content".getBytes(), "text/plain");
+
+        assertArrayEquals("content".getBytes(), cache.get("key"));
+        assertArrayEquals("content".getBytes(), cache.get("key"));
+        assertArrayEquals("ont".getBytes(), cache.get("key", 1, 3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(13, cache.get("other", out));
+        assertArrayEquals("other content".getBytes(), IOUtils.toByteArray(cache.getStream("other")));
+        Path target = directory.resolve("target");
+        cache.download("other", target);
+
+        assertArrayEquals("other content".getBytes(), out.toByteArray());
+        assertArrayEquals("other content".getBytes(), Files.readAllBytes(target));
+        assertEquals(1, storage.gets.get());
+        assertEquals(1, storage.downloads.get());
+        assertEquals(2, cache.getStats().getEntryCount());
+        assertEquals(20, cache.getStats().getSize());
+    }
+
+    /**
+     * Verify that puts and deletes through the cache remove the cached file.
+     */
+    @Test
+    public void putAndDeleteInvalidate() throws IOException {
+        DiskCachingFileStorageService cache = new DiskCachingFileStorageService(storage, cacheDirectory, 1024, Duration.ofMinutes(1));
+        cache.put("key", "first".getBytes(), "text/plain");
+        assertArrayEquals("first".getBytes(), cache.get("key"));
+
+        cache.put("key", "second".getBytes(), "text/plain");
+        assertArrayEquals("second".getBytes(), cache.get("key"));
+
+        cache.delete("key");
+        assertEquals(0, cache.getStats().getEntryCount());
+        assertEquals(0, cacheDirectory.toFile().list().length);
+    }
+
+    /**
+     * Verify that a fill racing with a put of its own key is not cached, while a put of another key does not keep
+     * it from being cached.
+     */
+    @Test
+    public void racingPutOnlyAffectsItsKey() throws IOException {
+        DiskCachingFileStorageService cache = new DiskCachingFileStorageService(storage, cacheDirectory, 1024, Duration.ofMinutes(1));
+        storage.put("key", "first".getBytes(), "text/plain");
+        storage.put("fill", "first".getBytes(), "text/plain");
+
+        storage.duringRead = () -> cache.put("other", "other".getBytes(), "text/plain");
+        cache.get("key");
+        assertEquals(1, cache.getStats().getEntryCount());
+
+        storage.duringRead = () -> cache.put("fill", "second".getBytes(), "text/plain");
+        assertArrayEquals("first".getBytes(), IOUtils.toByteArray(cache.getStream("fill")));
+        storage.duringRead = () -> {
+        };
+        assertEquals(1, cache.getStats().getEntryCount());
+        assertEquals(1, cacheDirectory.toFile().list().length);
+        assertArrayEquals("second".getBytes(), cache.get("fill"));
+    }
+
+    /**
+     * Verify that the least recently used files are deleted once the cached bytes exceed the maximum size.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        DiskCachingFileStorageService cache = new DiskCachingFileStorageService(storage, cacheDirectory, 25, Duration.ofMinutes(1));
+        for (String key : new String[]{"a", "b", "c"}) {
+            storage.put(key, new byte[10], "text/plain");
+        }
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+        storage.gets.set(0);
+
+        cache.get("a");
+        cache.get("c");
+        assertEquals(0, storage.gets.get());
+        assertEquals(2, cacheDirectory.toFile().list().length);
+        cache.get("b");
+        assertEquals(1, storage.gets.get());
+        assertEquals(2, cache.getStats().getEvictionCount());
+    }
+
+    /**
+     * Verify that a new instance over the same directory serves the files cached by the previous one and cleans up
+     * incomplete fills.
+     */
+    @Test
+    public void survivesRestart() throws IOException {
+        DiskCachingFileStorageService cache = new DiskCachingFileStorageService(storage, cacheDirectory, 1024, Duration.ofMinutes(1));
+        storage.put("key", "content".getBytes(), "text/plain");
+        cache.get("key");
+        Files.write(cacheDirectory.resolve("fill123.tmp"), new byte[100]);
+
+        DiskCachingFileStorageService restarted = new DiskCachingFileStorageService(storage, cacheDirectory, 1024, Duration.ofMinutes(1));
+
+        assertEquals(1, restarted.getStats().getEntryCount());
+        assertEquals(7, restarted.getStats().getSize());
+        assertArrayEquals("content".getBytes(), restarted.get("key"));
+        assertEquals(1, storage.gets.get());
+        assertEquals(1, cacheDirectory.toFile().list().length);
+    }
+
+    /**
+     * Verify that expired files are read from the storage again.
+     */
+    @Test
+    public void expiredEntriesAreReloaded() throws Exception {
+        DiskCachingFileStorageService cache = new DiskCachingFileStorageService(storage, cacheDirectory, 1024, Duration.ofMillis(1));
+        storage.put("key", "content".getBytes(), "text/plain");
+        cache.get("key");
+        Thread.sleep(5);
+        cache.get("key");
+
+        assertEquals(2, storage.gets.get());
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    /**
+     * Verify that objects larger than the whole cache are served but not cached.
+     */
+    @Test
+    public void largeObjectsAreNotCached() throws IOException {
+        DiskCachingFileStorageService cache = new DiskCachingFileStorageService(storage, cacheDirectory, 4, Duration.ofMinutes(1));
+        storage.put("key", "content".getBytes(), "text/plain");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.get("key", out);
+        cache.get("key");
+
+        assertArrayEquals("content".getBytes(), out.toByteArray());
+        assertEquals(0, cache.getStats().getEntryCount());
+        assertEquals(0, cacheDirectory.toFile().list().length);
+    }
+
+    /**
+     * Verify that a read is served when its content downloaded but could not be moved into the cache.
+     */
+    @Test
+    public void failedCachingStillServesTheRead() throws IOException {
+        DiskCachingFileStorageService cache = new DiskCachingFileStorageService(storage, cacheDirectory, 1024, Duration.ofMinutes(1));
+        storage.put("key", "content".getBytes(), "text/plain");
+        cache.get("key");
+        String name = cacheDirectory.toFile().list()[0];
+        cache.put("key", "changed".getBytes(), "text/plain");
+        // a non-empty directory where the cached file goes makes moving it into place fail
+        Files.createFile(Files.createDirectory(cacheDirectory.resolve(name)).resolve("blocker"));
+
+        try (InputStream in = cache.getStream("key")) {
+            assertArrayEquals("changed".getBytes(), IOUtils.toByteArray(in));
+        }
+        assertEquals(0, cache.getStats().getEntryCount());
+    }
+
+    /**
+     * Counts the full gets and downloads reaching the storage.
+     */
+    private static class CountingService extends ForwardingFileStorageService {
+        private final AtomicInteger gets = new AtomicInteger();
+        private final AtomicInteger downloads = new AtomicInteger();
+        private volatile Runnable duringRead = () -> {
+        };
+
+        CountingService(IFileStorageService delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public byte[] get(String key) throws IOException {
+            gets.incrementAndGet();
+            byte[] content = super.get(key);
+            duringRead.run();
+            return content;
+        }
+
+        @Override
+        public void download(String key, Path target) throws IOException {
+            downloads.incrementAndGet();
+            super.download(key, target);
+            duringRead.run();
+        }
+    }
+}
@@ -0,0 +1,606 @@
+package edu.common.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process S3 compatible HTTP server keeping objects in memory, so {@link S3Service} and its TransferManager can be
+ * tested and benchmarked without network access. It serves path-style requests for the operations S3Service uses:
+ * put, get with ranges, ETag and date conditions, head, delete, multi-object delete and multipart uploads with their
+ * part and upload listings. Buckets are created on first use and requests are not authenticated.
+ */
+public class EmbeddedS3Server implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedS3Server.class);
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+    private static final String XML_NAMESPACE = "http://s3.amazonaws.com/doc/2006-03-01/";
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter ISO_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Map<String, StoredObject>> buckets = new ConcurrentHashMap<>();
+    private final Map<String, MultipartUpload> uploads = new ConcurrentHashMap<>();
+    private final AtomicInteger injectedFailures = new AtomicInteger();
+    private volatile int injectedStatus;
+    private volatile String injectedCode;
+    private volatile String injectedMethod;
+    private volatile long responseDelayMillis;
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the server on a free port of the loopback interface.
+     *
+     * @throws IOException when the server cannot be started
+     */
+    public EmbeddedS3Server() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Starts the server on the loopback interface.
+     *
+     * @param port port to listen on, 0 for any free port
+     * @throws IOException when the server cannot be started
+     */
+    public EmbeddedS3Server(int port) throws IOException {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "jsa-embedded-s3-server-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return URL of the server, to use as {@link S3ServiceOptions#setEndpoint(String)}
+     */
+    public String getEndpoint() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Points the options at this server with path-style access.
+     *
+     * @param options {@link S3ServiceOptions} to configure
+     * @return the same options
+     */
+    public S3ServiceOptions configure(S3ServiceOptions options) {
+        Assert.notNull(options, "options must be provided");
+        options.setEndpoint(getEndpoint());
+        options.setPathStyleAccess(true);
+        return options;
+    }
+
+    /**
+     * @param bucket {@link String} name of the bucket
+     * @return number of objects stored in the bucket
+     */
+    public int getObjectCount(String bucket) {
+        Map<String, StoredObject> objects = buckets.get(bucket);
+        return objects == null ? 0 : objects.size();
+    }
+
+    /**
+     * @return number of multipart uploads initiated and neither completed nor aborted
+     */
+    public int getMultipartUploadCount() {
+        return uploads.size();
+    }
+
+    /**
+     * Fails the next requests with an S3 error response instead of handling them, to test how clients deal with
+     * throttling and server errors.
+     *
+     * @param count  number of requests to fail
+     * @param status HTTP status of the failures, such as 503
+     * @param code   S3 error code of the failures, such as SlowDown
+     */
+    public void failNextRequests(int count, int status, String code) {
+        failNextRequests(null, count, status, code);
+    }
+
+    /**
+     * Fails the next requests of an HTTP method with an S3 error response instead of handling them, letting
+     * requests of other methods through.
+     *
+     * @param method HTTP method of the requests to fail, such as GET, or {@code null} for any
+     * @param count  number of requests to fail
+     * @param status HTTP status of the failures, such as 503
+     * @param code   S3 error code of the failures, such as SlowDown
+     */
+    public void failNextRequests(String method, int count, int status, String code) {
+        Assert.isTrue(count >= 0, "count must not be negative");
+        Assert.notNull(code, "code must be provided");
+        injectedMethod = method;
+        injectedStatus = status;
+        injectedCode = code;
+        injectedFailures.set(count);
+    }
+
+    /**
+     * Delays every response, so concurrent requests overlap.
+     *
+     * @param delay {@link Duration} to wait before handling each request
+     */
+    public void setResponseDelay(Duration delay) {
+        Assert.isTrue(delay != null && !delay.isNegative(), "delay must not be negative");
+        responseDelayMillis = delay.toMillis();
+    }
+
+    /**
+     * @param method HTTP method, such as GET or HEAD
+     * @return number of requests of the method received so far, including failed ones
+     */
+    public int getRequestCount(String method) {
+        AtomicInteger count = requestCounts.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return number of requests still to be failed by {@link #failNextRequests(String, int, int, String)}
+     */
+    public int getPendingFailureCount() {
+        return injectedFailures.get();
+    }
+
+    /**
+     * Stops the server and discards the stored objects.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        buckets.clear();
+        uploads.clear();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            int slash = path.indexOf('/', 1);
+            String bucket = slash < 0 ? path.substring(1) : path.substring(1, slash);
+            String key = slash < 0 ? "" : path.substring(slash + 1);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            requestCounts.computeIfAbsent(method, m -> new AtomicInteger()).incrementAndGet();
+            if (responseDelayMillis > 0) {
+                Thread.sleep(responseDelayMillis);
+            }
+            String failing = injectedMethod;
+            if ((failing == null || failing.equals(method)) && injectedFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+                sendError(exchange, injectedStatus, injectedCode, "Injected failure", null);
+            } else if (bucket.isEmpty()) {
+                sendError(exchange, 501, "NotImplemented", "Listing buckets is not supported", null);
+            } else if (key.isEmpty()) {
+                handleBucket(exchange, method, bucket, query);
+            } else {
+                handleObject(exchange, method, bucket, key, query);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+            sendError(exchange, 500, "InternalError", String.valueOf(e.getMessage()), null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleBucket(HttpExchange exchange, String method, String bucket, Map<String, String> query) throws IOException {
+        if ("GET".equals(method) && query.containsKey("uploads")) {
+            listMultipartUploads(exchange, bucket);
+        } else if ("POST".equals(method) && query.containsKey("delete")) {
+            deleteObjects(exchange, bucket);
+        } else if ("PUT".equals(method) || "HEAD".equals(method)) {
+            objects(bucket);
+            send(exchange, 200, null, new byte[0]);
+        } else {
+            sendError(exchange, 501, "NotImplemented", method + " of a bucket is not supported", null);
+        }
+    }
+
+    private void handleObject(HttpExchange exchange, String method, String bucket, String key, Map<String, String> query) throws IOException {
+        switch (method) {
+            case "PUT":
+                if (exchange.getRequestHeaders().containsKey("x-amz-copy-source")) {
+                    sendError(exchange, 501, "NotImplemented", "Copying objects is not supported", key);
+                } else if (query.containsKey("uploadId")) {
+                    uploadPart(exchange, query.get("uploadId"), Integer.parseInt(query.get("partNumber")));
+                } else {
+                    putObject(exchange, bucket, key);
+                }
+                break;
+            case "POST":
+                if (query.containsKey("uploads")) {
+                    initiateMultipartUpload(exchange, bucket, key);
+                } else if (query.containsKey("uploadId")) {
+                    completeMultipartUpload(exchange, query.get("uploadId"));
+                } else {
+                    sendError(exchange, 501, "NotImplemented", "POST of an object is not supported", key);
+                }
+                break;
+            case "GET":
+            case "HEAD":
+                if (query.containsKey("uploadId")) {
+                    listParts(exchange, query.get("uploadId"));
+                } else {
+                    getObject(exchange, bucket, key, "HEAD".equals(method));
+                }
+                break;
+            case "DELETE":
+                if (query.containsKey("uploadId")) {
+                    abortMultipartUpload(exchange, query.get("uploadId"));
+                } else {
+                    objects(bucket).remove(key);
+                    send(exchange, 204, null, new byte[0]);
+                }
+                break;
+            default:
+                sendError(exchange, 405, "MethodNotAllowed", method + " is not allowed", key);
+        }
+    }
+
+    private void putObject(HttpExchange exchange, String bucket, String key) throws IOException {
+        byte[] content = readBody(exchange);
+        StoredObject object = new StoredObject(content, md5Hex(content), exchange.getRequestHeaders().getFirst("Content-Type"));
+        objects(bucket).put(key, object);
+        exchange.getResponseHeaders().set("ETag", quote(object.eTag));
+        send(exchange, 200, null, new byte[0]);
+    }
+
+    private void getObject(HttpExchange exchange, String bucket, String key, boolean head) throws IOException {
+        StoredObject object = objects(bucket).get(key);
+        if (object == null) {
+            sendError(exchange, 404, "NoSuchKey", "The specified key does not exist.", key);
+            return;
+        }
+        String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+        if (ifMatch != null && !"*".equals(ifMatch.trim()) && !object.eTag.equals(unquote(ifMatch))) {
+            sendError(exchange, 412, "PreconditionFailed", "At least one of the pre-conditions you specified did not hold", key);
+            return;
+        }
+        exchange.getResponseHeaders().set("ETag", quote(object.eTag));
+        exchange.getResponseHeaders().set("Last-Modified", HTTP_DATE.format(Instant.ofEpochMilli(object.lastModified)));
+        if (notModified(exchange, object)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        if (object.contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", object.contentType);
+        }
+        long length = object.content.length;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (head || range == null || !range.startsWith("bytes=")) {
+            if (head) {
+                exchange.getResponseHeaders().set("Content-Length", Long.toString(length));
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                send(exchange, 200, null, object.content);
+            }
+            return;
+        }
+        String[] bounds = range.substring("bytes=".length()).split("-", 2);
+        long start = bounds[0].isEmpty() ? Math.max(0, length - Long.parseLong(bounds[1])) : Long.parseLong(bounds[0]);
+        long end = bounds[0].isEmpty() || bounds[1].isEmpty() ? length - 1 : Math.min(Long.parseLong(bounds[1]), length - 1);
+        if (start >= length || start > end) {
+            exchange.getResponseHeaders().set("Content-Range", "bytes */" + length);
+            sendError(exchange, 416, "InvalidRange", "The requested range is not satisfiable", key);
+            return;
+        }
+        byte[] slice = new byte[(int) (end - start + 1)];
+        System.arraycopy(object.content, (int) start, slice, 0, slice.length);
+        exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        send(exchange, 206, null, slice);
+    }
+
+    /**
+     * Evaluates If-None-Match, or If-Modified-Since when there is no If-None-Match, as S3 does.
+     */
+    private static boolean notModified(HttpExchange exchange, StoredObject object) {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            return "*".equals(ifNoneMatch.trim()) || object.eTag.equals(unquote(ifNoneMatch));
+        }
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return object.lastModified / 1000 <= since;
+        } catch (DateTimeParseException e) {
+            // S3 ignores dates it cannot parse
+            return false;
+        }
+    }
+
+    private void deleteObjects(HttpExchange exchange, String bucket) throws IOException {
+        Document request = parseXml(readBody(exchange));
+        boolean quiet = "true".equalsIgnoreCase(text(request.getDocumentElement(), "Quiet"));
+        StringBuilder result = new StringBuilder(XML_HEADER).append("<DeleteResult xmlns=\"").append(XML_NAMESPACE).append("\">");
+        NodeList objects = request.getElementsByTagName("Object");
+        for (int i = 0; i < objects.getLength(); i++) {
+            String key = text((Element) objects.item(i), "Key");
+            objects(bucket).remove(key);
+            if (!quiet) {
+                result.append("<Deleted><Key>").append(escape(key)).append("</Key></Deleted>");
+            }
+        }
+        send(exchange, 200, "application/xml", result.append("</DeleteResult>").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void initiateMultipartUpload(HttpExchange exchange, String bucket, String key) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new MultipartUpload(bucket, key, exchange.getRequestHeaders().getFirst("Content-Type")));
+        send(exchange, 200, "application/xml", (XML_HEADER + "<InitiateMultipartUploadResult xmlns=\"" + XML_NAMESPACE + "\">"
+                + "<Bucket>" + escape(bucket) + "</Bucket><Key>" + escape(key) + "</Key><UploadId>" + uploadId + "</UploadId>"
+                + "</InitiateMultipartUploadResult>").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void uploadPart(HttpExchange exchange, String uploadId, int partNumber) throws IOException {
+        MultipartUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.", null);
+            return;
+        }
+        byte[] content = readBody(exchange);
+        upload.parts.put(partNumber, content);
+        exchange.getResponseHeaders().set("ETag", quote(md5Hex(content)));
+        send(exchange, 200, null, new byte[0]);
+    }
+
+    private void completeMultipartUpload(HttpExchange exchange, String uploadId) throws IOException {
+        MultipartUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.", null);
+            return;
+        }
+        NodeList parts = parseXml(readBody(exchange)).getElementsByTagName("Part");
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        MessageDigest partDigests = md5();
+        for (int i = 0; i < parts.getLength(); i++) {
+            byte[] part = upload.parts.get(Integer.parseInt(text((Element) parts.item(i), "PartNumber")));
+            if (part == null) {
+                sendError(exchange, 400, "InvalidPart", "One or more of the specified parts could not be found.", upload.key);
+                return;
+            }
+            content.write(part);
+            partDigests.update(md5().digest(part));
+        }
+        uploads.remove(uploadId);
+        String eTag = hex(partDigests.digest()) + "-" + parts.getLength();
+        objects(upload.bucket).put(upload.key, new StoredObject(content.toByteArray(), eTag, upload.contentType));
+        send(exchange, 200, "application/xml", (XML_HEADER + "<CompleteMultipartUploadResult xmlns=\"" + XML_NAMESPACE + "\">"
+                + "<Bucket>" + escape(upload.bucket) + "</Bucket><Key>" + escape(upload.key) + "</Key><ETag>" + escape(quote(eTag)) + "</ETag>"
+                + "</CompleteMultipartUploadResult>").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void abortMultipartUpload(HttpExchange exchange, String uploadId) throws IOException {
+        if (uploads.remove(uploadId) == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.", null);
+            return;
+        }
+        send(exchange, 204, null, new byte[0]);
+    }
+
+    private void listParts(HttpExchange exchange, String uploadId) throws IOException {
+        MultipartUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.", null);
+            return;
+        }
+        StringBuilder result = new StringBuilder(XML_HEADER).append("<ListPartsResult xmlns=\"").append(XML_NAMESPACE).append("\">")
+                .append("<Bucket>").append(escape(upload.bucket)).append("</Bucket><Key>").append(escape(upload.key))
+                .append("</Key><UploadId>").append(uploadId).append("</UploadId><IsTruncated>false</IsTruncated>");
+        upload.parts.forEach((partNumber, part) -> result.append("<Part><PartNumber>").append(partNumber)
+                .append("</PartNumber><ETag>").append(escape(quote(md5Hex(part)))).append("</ETag><Size>").append(part.length)
+                .append("</Size></Part>"));
+        send(exchange, 200, "application/xml", result.append("</ListPartsResult>").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void listMultipartUploads(HttpExchange exchange, String bucket) throws IOException {
+        StringBuilder result = new StringBuilder(XML_HEADER).append("<ListMultipartUploadsResult xmlns=\"").append(XML_NAMESPACE).append("\">")
+                .append("<Bucket>").append(escape(bucket)).append("</Bucket><IsTruncated>false</IsTruncated>");
+        uploads.forEach((uploadId, upload) -> {
+            if (upload.bucket.equals(bucket)) {
+                result.append("<Upload><Key>").append(escape(upload.key)).append("</Key><UploadId>").append(uploadId)
+                        .append("</UploadId><Initiated>").append(ISO_DATE.format(Instant.ofEpochMilli(upload.initiated)))
+                        .append("</Initiated><StorageClass>STANDARD</StorageClass></Upload>");
+            }
+        });
+        send(exchange, 200, "application/xml", result.append("</ListMultipartUploadsResult>").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<String, StoredObject> objects(String bucket) {
+        return buckets.computeIfAbsent(bucket, name -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Reads the request body, decoding the aws-chunked encoding the SDK uses for signed streaming uploads.
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        boolean chunked = (contentSha256 != null && contentSha256.startsWith("STREAMING-"))
+                || (contentEncoding != null && contentEncoding.contains("aws-chunked"));
+        return chunked ? decodeAwsChunked(body) : body;
+    }
+
+    private static byte[] decodeAwsChunked(byte[] body) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream(body.length);
+        int position = 0;
+        while (position < body.length) {
+            int lineEnd = position;
+            while (lineEnd + 1 < body.length && !(body[lineEnd] == '\r' && body[lineEnd + 1] == '\n')) {
+                lineEnd++;
+            }
+            String header = new String(body, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int semicolon = header.indexOf(';');
+            int size = Integer.parseInt((semicolon < 0 ? header : header.substring(0, semicolon)).trim(), 16);
+            if (size == 0) {
+                break;
+            }
+            content.write(body, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+        return content.toByteArray();
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        boolean noBody = body.length == 0 || status == 204 || "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, noBody ? -1 : body.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code, String message, String key) throws IOException {
+        String error = XML_HEADER + "<Error><Code>" + code + "</Code><Message>" + escape(message) + "</Message>"
+                + (key == null ? "" : "<Key>" + escape(key) + "</Key>")
+                + "<RequestId>" + UUID.randomUUID() + "</RequestId></Error>";
+        send(exchange, status, "application/xml", error.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int equals = parameter.indexOf('=');
+                String name = URLDecoder.decode(equals < 0 ? parameter : parameter.substring(0, equals), StandardCharsets.UTF_8);
+                query.put(name, equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static Document parseXml(byte[] xml) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Malformed XML request body", e);
+        }
+    }
+
+    private static String text(Element element, String tagName) {
+        NodeList nodes = element.getElementsByTagName(tagName);
+        return nodes.getLength() == 0 ? null : nodes.item(0).getTextContent();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;").replace("'", "&apos;");
+    }
+
+    private static String quote(String eTag) {
+        return "\"" + eTag + "\"";
+    }
+
+    private static String unquote(String eTag) {
+        String trimmed = eTag.trim();
+        return trimmed.length() > 1 && trimmed.startsWith("\"") && trimmed.endsWith("\"") ? trimmed.substring(1, trimmed.length() - 1) : trimmed;
+    }
+
+    private static String md5Hex(byte[] content) {
+        return hex(md5().digest(content));
+    }
+
+    private static String hex(byte[] digest) {
+        return String.format("%0" + digest.length * 2 + "x", new BigInteger(1, digest));
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Content and metadata of a stored object.
+     */
+    private static final class StoredObject {
+        private final byte[] content;
+        private final String eTag;
+        private final String contentType;
+        private final long lastModified = System.currentTimeMillis();
+
+        private StoredObject(byte[] content, String eTag, String contentType) {
+            this.content = content;
+            this.eTag = eTag;
+            this.contentType = contentType;
+        }
+    }
+
+    /**
+     * Parts received for a multipart upload that is neither completed nor aborted.
+     */
+    private static final class MultipartUpload {
+        private final String bucket;
+        private final String key;
+        private final String contentType;
+        private final long initiated = System.currentTimeMillis();
+        private final Map<Integer, byte[]> parts = new ConcurrentSkipListMap<>();
+
+        private MultipartUpload(String bucket, String key, String contentType) {
+            this.bucket = bucket;
+            this.key = key;
+            this.contentType = contentType;
+        }
+    }
+}
@@ -0,0 +1,592 @@
+package edu.common.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs {@link S3Service} against an {@link EmbeddedS3Server}, covering the single and multipart code paths.
+ */
+public class EmbeddedS3ServerUnitTest {
+
+    private static final String BUCKET = "bucket";
+
+    private EmbeddedS3Server server;
+    private S3Service s3Service;
+    private String key;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new EmbeddedS3Server();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        // 1MB parts above 1MB so a few MB exercise multipart uploads and ranged downloads
+        s3Service = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 4, options);
+        key = RandomStringUtils.randomAlphabetic(10) + "/" + RandomStringUtils.randomAlphabetic(10);
+    }
+
+    @After
+    public void tearDown() {
+        s3Service.shutdown();
+        server.close();
+    }
+
+    /**
+     * Verify that content stored with {@link S3Service#put(String, byte[], String)} is read back, in full and by range.
+     */
+    @Test
+    public void putAndGet() throws Exception {
+        byte[] content = randomBytes(1000);
+        s3Service.put(key, content, "application/octet-stream");
+
+        assertArrayEquals(content, s3Service.get(key));
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 150), s3Service.get(key, 100, 50));
+        assertArrayEquals(Arrays.copyOfRange(content, 990, 1000), s3Service.get(key, 990, 50));
+        assertEquals(0, s3Service.get(key, 2000, 10).length);
+        assertNotNull(s3Service.getDate(key));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(content.length, s3Service.get(key, out));
+        assertArrayEquals(content, out.toByteArray());
+    }
+
+    /**
+     * Verify that a ranged download only queues as many ranges as there are executor threads, and stops starting
+     * ranges once one failed.
+     */
+    @Test
+    public void rangedDownloadIsWindowed() throws Exception {
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        // queueing more than one range beyond the single executor thread would be rejected
+        options.setExecutorQueueCapacity(1);
+        options.setExecutorRejectionPolicy(S3ServiceOptions.RejectionPolicy.FAIL_FAST);
+        S3Service sequential = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 1, options);
+        byte[] content = randomBytes(5 * 1024 * 1024);
+        Path target = Files.createTempFile("embedded-s3", null);
+        try {
+            sequential.put(key, content, "application/octet-stream");
+            sequential.download(key, target);
+            assertArrayEquals(content, Files.readAllBytes(target));
+            assertEquals(5, server.getRequestCount("GET"));
+
+            server.failNextRequests("GET", 1, 403, "AccessDenied");
+            try {
+                sequential.download(key, target);
+                fail("expected the failed range to fail the download");
+            } catch (IllegalStateException expected) {
+                // the failure of the first range is reported
+            }
+            assertEquals(6, server.getRequestCount("GET"));
+            assertFalse(Files.exists(target));
+        } finally {
+            sequential.shutdown();
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Verify that a file above the upload threshold goes through a multipart upload and downloads as concurrent ranges.
+     */
+    @Test
+    public void multipartUploadAndRangedDownload() throws Exception {
+        byte[] content = randomBytes(3 * 1024 * 1024 + 123);
+        Path source = Files.createTempFile("embedded-s3", null);
+        Path target = Files.createTempFile("embedded-s3", null);
+        try {
+            Files.write(source, content);
+            s3Service.put(key, source.toFile());
+            assertEquals(0, server.getMultipartUploadCount());
+
+            s3Service.download(key, target);
+            assertArrayEquals(content, Files.readAllBytes(target));
+            assertArrayEquals(content, s3Service.getAsync(key).get());
+
+            s3Service.putAsync(key + "-async", source.toFile()).get();
+            assertArrayEquals(content, s3Service.get(key + "-async"));
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Verify that adaptive transfers store and fetch files in planned parts, completing or aborting every upload,
+     * and report their plans as gauges.
+     */
+    @Test
+    public void adaptiveTransfers() throws Exception {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        options.setMetrics(metrics);
+        options.setAdaptiveTransfersEnabled(true);
+        options.setAdaptiveTransferMaxConcurrency(2);
+        S3Service adaptive = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 4, options);
+        byte[] content = randomBytes(3 * 1024 * 1024 + 123);
+        Path source = Files.createTempFile("embedded-s3", null);
+        Path target = Files.createTempFile("embedded-s3", null);
+        try {
+            Files.write(source, content);
+            adaptive.put(key, source.toFile());
+            adaptive.putAsync(key + "-async", source.toFile()).get();
+            adaptive.download(key, target);
+
+            assertArrayEquals(content, Files.readAllBytes(target));
+            assertArrayEquals(content, adaptive.get(key + "-async"));
+            assertEquals(0, server.getMultipartUploadCount());
+            assertEquals(2L, (long) metrics.getGauges().get("adaptive.upload.concurrency"));
+            assertEquals(2L, (long) metrics.getGauges().get("adaptive.download.concurrency"));
+            assertTrue(metrics.getGauges().get("adaptive.upload.part.throughput") > 0);
+        } finally {
+            adaptive.shutdown();
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Verify that enabling virtual threads runs transfers on them from Java 21 on, and keeps the pool before.
+     */
+    @Test
+    public void virtualThreads() throws Exception {
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        options.setVirtualThreadsEnabled(true);
+        options.setVirtualThreadMaxConcurrency(8);
+        S3Service virtual = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 4, options);
+        byte[] content = randomBytes(3 * 1024 * 1024 + 123);
+        Path source = Files.createTempFile("embedded-s3", null);
+        try {
+            Files.write(source, content);
+            virtual.putAsync(key, source.toFile()).get();
+            assertArrayEquals(content, virtual.getAsync(key).get());
+        } finally {
+            virtual.shutdown();
+            Files.deleteIfExists(source);
+        }
+    }
+
+    /**
+     * Verify that the connection pool settings are applied and that requests waiting for one of its connections are
+     * reported as gauges.
+     */
+    @Test
+    public void connectionPool() throws Exception {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        options.setMetrics(metrics);
+        options.setMaxConnections(2);
+        // every get needs its own connection
+        options.setRequestCoalescingEnabled(false);
+        options.setConnectionTimeToLive(Duration.ofSeconds(30));
+        options.setRequestTimeout(Duration.ofSeconds(30));
+        options.setExpectContinueEnabled(false);
+        S3Service pooled = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 8, options);
+        byte[] content = randomBytes(1000);
+        try {
+            pooled.put(key, content, "application/octet-stream");
+            List<CompletableFuture<byte[]>> gets = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                gets.add(pooled.getAsync(key));
+            }
+            for (CompletableFuture<byte[]> get : gets) {
+                assertArrayEquals(content, get.get());
+            }
+            Map<String, Long> gauges = metrics.getGauges();
+            assertEquals(2L, (long) gauges.get("http.pool.max"));
+            assertTrue(gauges.get("http.pool.leased") <= 2);
+            assertTrue(gauges.get("http.pool.utilization.percent") <= 100);
+            assertNotNull(gauges.get("http.pool.pending"));
+            assertTrue(gauges.get("http.pool.lease.waits") > 0);
+        } finally {
+            pooled.shutdown();
+        }
+    }
+
+    /**
+     * Verify that throttled requests are retried after a backoff and counted as throttling.
+     */
+    @Test
+    public void retriesThrottling() throws Exception {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        options.setMetrics(metrics);
+        options.setRetryThrottledBaseDelay(Duration.ofMillis(1));
+        S3Service retrying = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 4, options);
+        byte[] content = randomBytes(1000);
+        try {
+            retrying.put(key, content, "application/octet-stream");
+            server.failNextRequests(2, 503, "SlowDown");
+
+            assertArrayEquals(content, retrying.get(key));
+            Map<String, Long> gauges = metrics.getGauges();
+            assertEquals(2L, (long) gauges.get("retry.attempts"));
+            assertEquals(2L, (long) gauges.get("retry.throttled"));
+            assertEquals(2L, (long) gauges.get("errors.throttled"));
+            assertFalse("the circuit breaker is disabled by default", gauges.containsKey("circuit.state"));
+        } finally {
+            retrying.shutdown();
+        }
+    }
+
+    /**
+     * Verify that requests fail fast once the circuit opened and go through again once a trial succeeds.
+     */
+    @Test
+    public void circuitBreakerOpens() throws Exception {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        options.setMetrics(metrics);
+        options.setMaxRetries(0);
+        options.setCircuitBreakerEnabled(true);
+        options.setCircuitBreakerFailureThreshold(2);
+        options.setCircuitBreakerOpenDuration(Duration.ofMillis(200));
+        S3Service breaking = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 4, options);
+        byte[] content = randomBytes(1000);
+        try {
+            breaking.put(key, content, "application/octet-stream");
+            server.failNextRequests(2, 500, "InternalError");
+            for (int i = 0; i < 2; i++) {
+                try {
+                    breaking.get(key);
+                    fail("expected the injected failure");
+                } catch (IllegalStateException expected) {
+                    // the failure counts towards the circuit breaker
+                }
+            }
+            try {
+                breaking.get(key);
+                fail("expected the circuit to be open");
+            } catch (CircuitBreakerOpenException expected) {
+                assertEquals(1L, (long) metrics.getGauges().get("circuit.opened"));
+            }
+
+            Thread.sleep(250);
+            assertArrayEquals(content, breaking.get(key));
+            assertEquals(0L, (long) metrics.getGauges().get("circuit.state"));
+            assertEquals(1L, (long) metrics.getGauges().get("circuit.rejected"));
+        } finally {
+            breaking.shutdown();
+        }
+    }
+
+    /**
+     * Verify that a put interrupted while waiting for its upload fails and keeps the thread's interrupt status.
+     */
+    @Test
+    public void interruptedPutFails() throws Exception {
+        server.setResponseDelay(Duration.ofMillis(500));
+        Thread.currentThread().interrupt();
+        try {
+            s3Service.put(key, randomBytes(10), "text/plain");
+            fail("put was not interrupted");
+        } catch (FileStorageServiceException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    /**
+     * Verify that the remaining bytes of heap, sliced, read-only and direct buffers are stored, above the multipart
+     * threshold too, without moving the caller's position.
+     */
+    @Test
+    public void putByteBuffer() throws Exception {
+        byte[] content = randomBytes(3 * 1024 * 1024 + 123);
+        ByteBuffer heap = ByteBuffer.wrap(content);
+        heap.position(100);
+        ByteBuffer slice = heap.slice();
+        ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+        direct.put(content).flip();
+
+        s3Service.putBuffer(key + "-heap", heap, "application/octet-stream");
+        s3Service.putBuffer(key + "-slice", slice, "application/octet-stream");
+        s3Service.putBuffer(key + "-read-only", heap.asReadOnlyBuffer(), "application/octet-stream");
+        s3Service.putBuffer(key + "-direct", direct, "application/octet-stream");
+
+        byte[] remaining = Arrays.copyOfRange(content, 100, content.length);
+        assertArrayEquals(remaining, s3Service.get(key + "-heap"));
+        assertArrayEquals(remaining, s3Service.get(key + "-slice"));
+        assertArrayEquals(remaining, s3Service.get(key + "-read-only"));
+        assertArrayEquals(content, s3Service.get(key + "-direct"));
+        assertEquals(100, heap.position());
+        assertEquals(0, direct.position());
+    }
+
+    /**
+     * Verify that streams shorter and longer than a part are stored, the latter through a multipart upload.
+     */
+    @Test
+    public void putStream() throws Exception {
+        byte[] small = randomBytes(1000);
+        byte[] large = randomBytes(3 * 1024 * 1024 + 123);
+
+        s3Service.putStream(key, new ByteArrayInputStream(small), "application/octet-stream");
+        s3Service.putStream(key + "-large", new ByteArrayInputStream(large), "application/octet-stream");
+
+        assertArrayEquals(small, s3Service.get(key));
+        assertArrayEquals(large, s3Service.get(key + "-large"));
+        assertEquals(0, server.getMultipartUploadCount());
+    }
+
+    /**
+     * Verify that a stream failing after some parts were sent aborts the multipart upload.
+     */
+    @Test
+    public void putStreamFailureAbortsUpload() throws Exception {
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream(randomBytes(2 * 1024 * 1024 + 10)), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("stream failed");
+            }
+        });
+        try {
+            s3Service.putStream(key, failing, "application/octet-stream");
+            fail("expected the stream failure");
+        } catch (IOException expected) {
+            // the upload is aborted before the failure is thrown
+        }
+        assertEquals(0, server.getMultipartUploadCount());
+        assertFalse(s3Service.exists(key));
+    }
+
+    /**
+     * Verify that a missing key is reported as {@link FileNotFoundException}.
+     */
+    @Test(expected = FileNotFoundException.class)
+    public void getMissing() throws Exception {
+        s3Service.get(key);
+    }
+
+    /**
+     * Verify that {@link S3Service#delete(String)} and {@link S3Service#deleteAll} remove the objects.
+     */
+    @Test
+    public void deleteAndDeleteAll() throws Exception {
+        s3Service.put(key, randomBytes(10), "text/plain");
+        s3Service.put(key + "-1", randomBytes(10), "text/plain");
+        s3Service.put(key + "-2", randomBytes(10), "text/plain");
+        assertEquals(3, server.getObjectCount(BUCKET));
+
+        s3Service.delete(key);
+        Map<String, Exception> failures = s3Service.deleteAll(Arrays.asList(key + "-1", key + "-2"));
+
+        assertTrue(failures.isEmpty());
+        assertEquals(0, server.getObjectCount(BUCKET));
+    }
+
+    /**
+     * Verify that the asynchronous put completes once the object is stored.
+     */
+    @Test
+    public void putAsync() throws Exception {
+        byte[] content = randomBytes(100);
+        s3Service.putAsync(key, content, "text/plain").get();
+
+        assertArrayEquals(content, s3Service.get(key));
+        assertTrue(s3Service.getAll(Collections.singleton(key)).getFailures().isEmpty());
+    }
+
+    /**
+     * Verify that a conditional get with the current ETag or date returns not modified without the content, and the
+     * content once the object changed.
+     */
+    @Test
+    public void getIfModified() throws Exception {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        options.setMetrics(metrics);
+        S3Service measured = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 4, options);
+        try {
+            byte[] content = randomBytes(1000);
+            measured.put(key, content, "application/octet-stream");
+            ObjectInfo info = measured.getInfo(key);
+            assertEquals(1000, info.getSize());
+            assertNotNull(info.getETag());
+
+            assertFalse(measured.getIfModified(key, info.getETag(), null).isModified());
+            assertFalse(measured.getIfModified(key, null, info.getLastModified()).isModified());
+            assertEquals(0, metrics.getBytes(StorageMetrics.Operation.GET));
+
+            byte[] changed = randomBytes(1000);
+            measured.put(key, changed, "application/octet-stream");
+            ConditionalGetResult result = measured.getIfModified(key, info.getETag(), null);
+            assertTrue(result.isModified());
+            assertArrayEquals(changed, result.getContent());
+            assertEquals(measured.getInfo(key).getETag(), result.getInfo().getETag());
+            assertArrayEquals(changed, measured.getIfModified(key, null, null).getContent());
+        } finally {
+            measured.shutdown();
+        }
+    }
+
+    /**
+     * Verify that a get within its share of the byte budget takes a single GET and no HEAD, and that empty objects,
+     * objects larger than their share and objects larger than the whole budget are read in full.
+     */
+    @Test
+    public void getAllWithinBudget() throws Exception {
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        options.setBulkGetMaxInFlight(4);
+        options.setBulkGetMaxInFlightBytes(1000);
+        S3Service budgeted = new S3Service(BUCKET, "key", "secret", "us-east-1", 4, 4, 5, 100, 4, options);
+        try {
+            Map<String, byte[]> contents = new HashMap<>();
+            contents.put(key + "-empty", new byte[0]);
+            contents.put(key + "-small", randomBytes(200));
+            contents.put(key + "-share", randomBytes(600));
+            contents.put(key + "-budget", randomBytes(3000));
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                budgeted.put(entry.getKey(), entry.getValue(), "application/octet-stream");
+            }
+            int gets = server.getRequestCount("GET");
+            int heads = server.getRequestCount("HEAD");
+
+            BatchResult<byte[]> result = budgeted.getAll(contents.keySet());
+
+            assertTrue(result.getFailures().isEmpty());
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                assertArrayEquals(entry.getValue(), result.getResults().get(entry.getKey()));
+            }
+            assertEquals(heads, server.getRequestCount("HEAD"));
+            assertEquals(6, server.getRequestCount("GET") - gets);
+        } finally {
+            budgeted.shutdown();
+        }
+    }
+
+    /**
+     * Verify that concurrent gets of the same key send a single GET, and that every caller gets its own copy.
+     */
+    @Test
+    public void concurrentGetsAreCoalesced() throws Exception {
+        byte[] content = randomBytes(1024);
+        s3Service.put(key, content, "application/octet-stream");
+        int before = server.getRequestCount("GET");
+        server.setResponseDelay(Duration.ofMillis(500));
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> gets = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                gets.add(callers.submit(() -> {
+                    start.await();
+                    return s3Service.get(key);
+                }));
+            }
+            start.countDown();
+
+            List<byte[]> results = new ArrayList<>();
+            for (Future<byte[]> get : gets) {
+                byte[] result = get.get();
+                assertArrayEquals(content, result);
+                assertTrue(results.stream().noneMatch(other -> other == result));
+                results.add(result);
+            }
+        } finally {
+            callers.shutdown();
+        }
+        assertEquals(1, server.getRequestCount("GET") - before);
+    }
+
+    /**
+     * Verify that the metadata cache answers repeated lookups, remembers missing keys and is invalidated by puts
+     * and deletes.
+     */
+    @Test
+    public void metadataCache() throws Exception {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setMultipartJanitorEnabled(false);
+        options.setMetrics(metrics);
+        options.setMetadataCacheTimeToLive(Duration.ofMinutes(1));
+        options.setMetadataCacheNegativeTimeToLive(Duration.ofMinutes(1));
+        S3Service cached = new S3Service(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 4, options);
+        try {
+            assertFalse(cached.exists(key));
+            assertFalse(cached.exists(key));
+            assertEquals(1, metrics.getCount(StorageMetrics.Operation.GET_DATE));
+
+            cached.put(key, randomBytes(10), "text/plain");
+            assertTrue(cached.exists(key));
+            assertEquals(cached.getDate(key), cached.getDate(key));
+            assertEquals(2, metrics.getCount(StorageMetrics.Operation.GET_DATE));
+
+            cached.delete(key);
+            assertFalse(cached.exists(key));
+            assertEquals(3, metrics.getCount(StorageMetrics.Operation.GET_DATE));
+            assertEquals(3, cached.getMetadataCacheStats().getHitCount());
+        } finally {
+            cached.shutdown();
+        }
+    }
+
+    /**
+     * Verify that the janitor aborts the multipart uploads listed by the server.
+     */
+    @Test
+    public void janitorAbortsUploads() throws Exception {
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        AmazonS3 client = AmazonS3ClientBuilder.standard()
+                .withEndpointConfiguration(new EndpointConfiguration(options.getEndpoint(), "us-east-1"))
+                .withPathStyleAccessEnabled(true)
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("key", "secret")))
+                .build();
+        client.initiateMultipartUpload(new InitiateMultipartUploadRequest(BUCKET, key));
+        assertEquals(1, server.getMultipartUploadCount());
+
+        assertEquals(1, new MultipartUploadJanitor(client, BUCKET, Duration.ZERO, 10).sweep());
+        assertEquals(0, server.getMultipartUploadCount());
+        client.shutdown();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] content = new byte[length];
+        new Random().nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,81 @@
+package edu.common.service;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FuturesUnitTest {
+
+    /**
+     * Verify that {@link Futures#callAsync} completes with the result of the task.
+     */
+    @Test
+    public void callAsyncResult() throws Exception {
+        assertEquals("result", Futures.callAsync(() -> "result", Runnable::run).get());
+    }
+
+    /**
+     * Verify that {@link Futures#callAsync} completes with the checked exception thrown by the task, unwrapped.
+     */
+    @Test
+    public void callAsyncCheckedException() throws Exception {
+        CompletableFuture<Object> future = Futures.callAsync(() -> {
+            throw new FileNotFoundException("missing");
+        }, Runnable::run);
+        try {
+            future.get();
+            fail("expected the future to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof FileNotFoundException);
+        }
+    }
+
+    /**
+     * Verify that {@link Futures#callAsync} completes exceptionally when the executor rejects the task.
+     */
+    @Test
+    public void callAsyncRejected() throws Exception {
+        CompletableFuture<Object> future = Futures.callAsync(() -> "result", task -> {
+            throw new RejectedExecutionException();
+        });
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    /**
+     * Verify that {@link Futures#callAsync(java.util.concurrent.Callable, java.util.concurrent.Executor, Semaphore)}
+     * never runs more tasks at once than the semaphore allows and returns every permit.
+     */
+    @Test
+    public void callAsyncBounded() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Semaphore inFlight = new Semaphore(2);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[20];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = Futures.callAsync(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    return running.decrementAndGet();
+                }, executor, inFlight);
+            }
+            CompletableFuture.allOf(futures).get();
+            assertTrue(maxRunning.get() <= 2);
+            assertEquals(2, inFlight.availablePermits());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package edu.common.service;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import edu.common.service.StorageMetrics.Operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramStorageMetricsUnitTest {
+
+    /**
+     * Verify that completed operations are counted with their bytes and leave the in-flight count.
+     */
+    @Test
+    public void succeededCountsBytes() {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        metrics.started(Operation.GET);
+        metrics.started(Operation.GET);
+        assertEquals(2, metrics.getInFlight(Operation.GET));
+
+        metrics.succeeded(Operation.GET, 1000, 10);
+        metrics.succeeded(Operation.GET, 2000, 20);
+
+        assertEquals(2, metrics.getCount(Operation.GET));
+        assertEquals(30, metrics.getBytes(Operation.GET));
+        assertEquals(0, metrics.getInFlight(Operation.GET));
+        assertEquals(0, metrics.getCount(Operation.PUT));
+    }
+
+    /**
+     * Verify that failures are counted by status code, out of range codes under {@link StorageMetrics#NO_STATUS}.
+     */
+    @Test
+    public void failedCountsByStatus() {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        metrics.started(Operation.DELETE);
+        metrics.failed(Operation.DELETE, 10, 404);
+        metrics.failed(Operation.DELETE, 10, 404);
+        metrics.failed(Operation.DELETE, 10, 503);
+        metrics.failed(Operation.DELETE, 10, 1000);
+
+        assertEquals(Long.valueOf(2), metrics.getFailures(Operation.DELETE).get(404));
+        assertEquals(Long.valueOf(1), metrics.getFailures(Operation.DELETE).get(503));
+        assertEquals(Long.valueOf(1), metrics.getFailures(Operation.DELETE).get(StorageMetrics.NO_STATUS));
+        assertEquals(Collections.emptyMap(), metrics.getFailures(Operation.GET));
+        assertEquals(0, metrics.getBytes(Operation.DELETE));
+    }
+
+    /**
+     * Verify that percentiles are the upper bound of the power of two bucket they fall in.
+     */
+    @Test
+    public void latencyPercentile() {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        assertEquals(0, metrics.getLatencyPercentile(Operation.PUT, 99));
+        for (int i = 0; i < 99; i++) {
+            metrics.succeeded(Operation.PUT, 1000, 0);
+        }
+        metrics.succeeded(Operation.PUT, 1_000_000, 0);
+
+        assertEquals(1023, metrics.getLatencyPercentile(Operation.PUT, 50));
+        assertEquals(1023, metrics.getLatencyPercentile(Operation.PUT, 99));
+        long max = metrics.getLatencyPercentile(Operation.PUT, 100);
+        assertTrue(max >= 1_000_000 && max < 2_000_000);
+    }
+
+    /**
+     * Verify that gauges are read when the snapshot is taken.
+     */
+    @Test
+    public void gauges() {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        long[] depth = {3};
+        metrics.registerGauge("executor.queue.depth", () -> depth[0]);
+        assertEquals(Long.valueOf(3), metrics.getGauges().get("executor.queue.depth"));
+        depth[0] = 5;
+        assertEquals(Long.valueOf(5), metrics.getGauges().get("executor.queue.depth"));
+    }
+
+    /**
+     * Verify that {@link HistogramStorageMetrics#getLatencyPercentile(Operation, double)} rejects percentiles above 100.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void latencyPercentileOutOfRange() {
+        new HistogramStorageMetrics().getLatencyPercentile(Operation.GET, 101);
+    }
+}
@@ -0,0 +1,97 @@
+package edu.common.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IFileStorageServiceUnitTest {
+
+    /**
+     * Verify that an implementation providing only the single key operations gets working defaults for the others.
+     */
+    @Test
+    public void defaultsBuildOnSingleKeyOperations() throws Exception {
+        MapStorage storage = new MapStorage();
+        storage.putStream("stream", new ByteArrayInputStream("content".getBytes()), "text/plain");
+        storage.putBuffer("buffer", ByteBuffer.wrap("xbufferx".getBytes(), 1, 6), "text/plain");
+
+        assertArrayEquals("content".getBytes(), storage.get("stream"));
+        assertArrayEquals("buffer".getBytes(), storage.get("buffer"));
+        assertArrayEquals("ont".getBytes(), storage.get("stream", 1, 3));
+        assertArrayEquals("nt".getBytes(), storage.get("stream", 5, 10));
+        assertArrayEquals("content".getBytes(), IOUtils.toByteArray(storage.getStream("stream")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(7, storage.get("stream", out));
+        assertArrayEquals("content".getBytes(), out.toByteArray());
+
+        ObjectInfo info = storage.getInfo("stream");
+        assertEquals(7, info.getSize());
+        assertFalse(storage.getIfModified("stream", info.getETag(), null).isModified());
+        assertTrue(storage.getIfModified("stream", "other", null).isModified());
+
+        BatchResult<byte[]> results = storage.getAll(Arrays.asList("stream", "missing"));
+        assertArrayEquals("content".getBytes(), results.getResults().get("stream"));
+        assertTrue(results.getFailures().get("missing") instanceof FileNotFoundException);
+
+        assertTrue(storage.deleteAll(Arrays.asList("stream", "buffer")).isEmpty());
+        assertFalse(storage.exists("stream"));
+    }
+
+    /**
+     * Storage implementing only the abstract operations.
+     */
+    private static class MapStorage implements IFileStorageService {
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final Date created = new Date();
+
+        @Override
+        public void put(String key, File file) {
+            try {
+                objects.put(key, Files.readAllBytes(file.toPath()));
+            } catch (IOException e) {
+                throw new FileStorageServiceException(e);
+            }
+        }
+
+        @Override
+        public void put(String key, byte[] content, String contentType) {
+            objects.put(key, content.clone());
+        }
+
+        @Override
+        public byte[] get(String key) throws FileNotFoundException {
+            byte[] content = objects.get(key);
+            if (content == null) {
+                throw new FileNotFoundException(key);
+            }
+            return content.clone();
+        }
+
+        @Override
+        public Date getDate(String key) throws FileNotFoundException {
+            get(key);
+            return created;
+        }
+
+        @Override
+        public void delete(String key) {
+            objects.remove(key);
+        }
+    }
+}
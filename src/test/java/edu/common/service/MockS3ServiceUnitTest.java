@@ -3,6 +3,14 @@ package edu.common.service;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import java.text.ParseException;
 
 import org.apache.commons.lang3.RandomStringUtils;
@@ -10,6 +18,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.test.context.ContextConfiguration;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 @ContextConfiguration(classes = TestConfig.class)
@@ -32,6 +43,30 @@ public class MockS3ServiceUnitTest {
         new MockS3Service(null);
     }
 
+    /**
+     * Verify that {@link MockS3Service#MockS3Service(String, StorageMetrics)} correctly fails when metrics are not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void metricsNull() {
+        new MockS3Service(RandomStringUtils.randomAlphabetic(15), null);
+    }
+
+    /**
+     * Verify that a get of a missing file is reported to the metrics as a 404 failure.
+     */
+    @Test
+    public void getMissingRecordsNotFound() throws IOException {
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        MockS3Service service = new MockS3Service(RandomStringUtils.randomAlphabetic(15), metrics);
+        try {
+            service.get(RandomStringUtils.randomAlphabetic(10));
+        } catch (FileNotFoundException expected) {
+            // reported below
+        }
+        assertEquals(Long.valueOf(1), metrics.getFailures(StorageMetrics.Operation.GET).get(404));
+        assertEquals(0, metrics.getInFlight(StorageMetrics.Operation.GET));
+    }
+
     /**
      * Verify that {@link MockS3Service#put(String, File)} correctly fails when a key is not provided.
      */
@@ -107,6 +142,66 @@ public class MockS3ServiceUnitTest {
         mockS3Service.getDate("SomeKey");
     }
 
+    /**
+     * Verify that {@link MockS3Service#get(String, long, int)} correctly fails when a negative offset is provided.
+     * @throws IOException when a file matching the provided key is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getRangeNegativeOffset() throws IOException {
+        mockS3Service.get(RandomStringUtils.randomAlphabetic(10), -1, 10);
+    }
+
+    /**
+     * Verify that {@link MockS3Service#getStream(String)} correctly fails when key is not provided.
+     * @throws IOException when a file matching the provided key is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getStream() throws IOException {
+        mockS3Service.getStream(null);
+    }
+
+    /**
+     * Verify that {@link MockS3Service#get(String, OutputStream)} correctly fails when an {@link OutputStream} is not provided.
+     * @throws IOException when a file matching the provided key is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getToNullOutputStream() throws IOException {
+        mockS3Service.get(RandomStringUtils.randomAlphabetic(10), (OutputStream) null);
+    }
+
+    /**
+     * Verify that {@link MockS3Service#download(String, Path)} correctly fails when a target {@link Path} is not provided.
+     * @throws IOException when a file matching the provided key is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void downloadNullTarget() throws IOException {
+        mockS3Service.download(RandomStringUtils.randomAlphabetic(10), null);
+    }
+
+    /**
+     * Verify that {@link MockS3Service#putAsync(String, File)} correctly fails when a key is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void putAsyncNullKey() {
+        mockS3Service.putAsync(null, new File(""));
+    }
+
+    /**
+     * Verify that {@link MockS3Service#getAsync(String)} correctly fails when key is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getAsync() {
+        mockS3Service.getAsync(null);
+    }
+
+    /**
+     * Verify that {@link MockS3Service#deleteAsync(String)} correctly fails when key is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void deleteAsync() {
+        mockS3Service.deleteAsync(null);
+    }
+
     /**
      * Verify that {@link MockS3Service#delete(String)} correctly fails when key is not provided.
      */
@@ -115,5 +210,73 @@ public class MockS3ServiceUnitTest {
         mockS3Service.delete(null);
     }
 
+    /**
+     * Verify that {@link MockS3Service#deleteAll(Collection)} correctly fails when keys are not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void deleteAllNullKeys() {
+        mockS3Service.deleteAll(null);
+    }
+
+    /**
+     * Verify that {@link MockS3Service#deleteAll(Collection)} correctly fails when one of the keys is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void deleteAllNullKey() {
+        mockS3Service.deleteAll(Arrays.asList(RandomStringUtils.randomAlphabetic(10), null));
+    }
+
+    /**
+     * Verify that {@link MockS3Service#getAll(Collection, BiConsumer)} correctly fails when a consumer is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getAllNullConsumer() {
+        mockS3Service.getAll(Arrays.asList(RandomStringUtils.randomAlphabetic(10)), null);
+    }
+
+    /**
+     * Verify that {@link MockS3Service#putAll(Map)} correctly fails when one of the files is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void putAllNullFile() {
+        mockS3Service.putAll(Collections.singletonMap(RandomStringUtils.randomAlphabetic(10), null));
+    }
+
+    /**
+     * Verify that {@link MockS3Service#putDirectory(Path, String)} correctly fails when a directory is not provided.
+     * @throws IOException when the directory cannot be read
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void putDirectoryNullDirectory() throws IOException {
+        mockS3Service.putDirectory(null, RandomStringUtils.randomAlphabetic(10));
+    }
+
+    /**
+     * Verify that {@link MockS3Service#getIfModified(String, String, Date)} only returns the content when the ETag
+     * differs.
+     */
+    @Test
+    public void getIfModified() throws IOException {
+        String key = RandomStringUtils.randomAlphabetic(10);
+        mockS3Service.put(key, "content".getBytes(), "text/plain");
+        try {
+            ObjectInfo info = mockS3Service.getInfo(key);
+
+            assertFalse(mockS3Service.getIfModified(key, info.getETag(), null).isModified());
+            assertFalse(mockS3Service.getIfModified(key, null, info.getLastModified()).isModified());
+            assertArrayEquals("content".getBytes(), mockS3Service.getIfModified(key, "other", null).getContent());
+            assertEquals(7, mockS3Service.getIfModified(key, "other", null).getInfo().getSize());
+        } finally {
+            mockS3Service.delete(key);
+        }
+    }
+
+    /**
+     * Verify that {@link MockS3Service#exists(String)} correctly fails when a key is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void existsNullKey() {
+        mockS3Service.exists(null);
+    }
 
 }
@@ -0,0 +1,88 @@
+package edu.common.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
+import com.amazonaws.services.s3.model.MultipartUpload;
+import com.amazonaws.services.s3.model.MultipartUploadListing;
+
+import static org.junit.Assert.assertEquals;
+
+public class MultipartUploadJanitorUnitTest {
+
+    /**
+     * Verify that {@link MultipartUploadJanitor#sweep()} only aborts uploads older than the maximum age, across listing pages.
+     */
+    @Test
+    public void sweepAbortsOldUploads() {
+        long now = System.currentTimeMillis();
+        UploadsStub s3 = new UploadsStub(
+                upload("old-1", now - Duration.ofDays(2).toMillis()),
+                upload("recent", now - Duration.ofMinutes(5).toMillis()),
+                upload("old-2", now - Duration.ofDays(3).toMillis()));
+
+        int aborted = new MultipartUploadJanitor(s3, "bucket", Duration.ofDays(1), 100).sweep();
+
+        assertEquals(2, aborted);
+        assertEquals(2, s3.aborted.size());
+        assertEquals("old-1", s3.aborted.get(0));
+        assertEquals("old-2", s3.aborted.get(1));
+    }
+
+    /**
+     * Verify that {@link MultipartUploadJanitor#sweep()} stops once it has aborted the maximum number of uploads for a run.
+     */
+    @Test
+    public void sweepStopsAtMaxAbortsPerRun() {
+        long old = System.currentTimeMillis() - Duration.ofDays(2).toMillis();
+        UploadsStub s3 = new UploadsStub(upload("a", old), upload("b", old), upload("c", old));
+
+        assertEquals(2, new MultipartUploadJanitor(s3, "bucket", Duration.ofDays(1), 2).sweep());
+        assertEquals(2, s3.aborted.size());
+    }
+
+    private static MultipartUpload upload(String key, long initiated) {
+        MultipartUpload upload = new MultipartUpload();
+        upload.setKey(key);
+        upload.setUploadId(key + "-id");
+        upload.setInitiated(new Date(initiated));
+        return upload;
+    }
+
+    /**
+     * Lists one upload per page and records the keys of aborted uploads.
+     */
+    private static class UploadsStub extends AbstractAmazonS3 {
+
+        private final MultipartUpload[] uploads;
+        private final List<String> aborted = new ArrayList<>();
+
+        UploadsStub(MultipartUpload... uploads) {
+            this.uploads = uploads;
+        }
+
+        @Override
+        public MultipartUploadListing listMultipartUploads(ListMultipartUploadsRequest request) {
+            int index = request.getKeyMarker() == null ? 0 : Integer.parseInt(request.getKeyMarker());
+            MultipartUploadListing listing = new MultipartUploadListing();
+            List<MultipartUpload> page = new ArrayList<>();
+            page.add(uploads[index]);
+            listing.setMultipartUploads(page);
+            listing.setTruncated(index + 1 < uploads.length);
+            listing.setNextKeyMarker(String.valueOf(index + 1));
+            return listing;
+        }
+
+        @Override
+        public void abortMultipartUpload(AbortMultipartUploadRequest request) {
+            aborted.add(request.getKey());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package edu.common.service;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ObjectMetadataCacheUnitTest {
+
+    /**
+     * Verify that a lookup racing with a put or delete of its key is not cached, while changes to other keys do not
+     * prevent caching.
+     */
+    @Test
+    public void onlyInvalidationsOfTheKeyDiscardLookups() {
+        ObjectMetadataCache cache = new ObjectMetadataCache(100, Duration.ofMinutes(1), Duration.ZERO);
+
+        long stamp = cache.stamp();
+        cache.invalidate("other");
+        cache.put("key", info("key"), stamp);
+        assertNotNull(cache.get("key"));
+
+        stamp = cache.stamp();
+        cache.invalidate("key");
+        cache.put("key", info("key"), stamp);
+        assertNull(cache.get("key"));
+
+        cache.put("key", info("key"), cache.stamp());
+        assertNotNull(cache.get("key"));
+    }
+
+    /**
+     * Verify that a lookup is not cached once so many keys were invalidated that whether its key was is no longer
+     * known.
+     */
+    @Test
+    public void lookupsOlderThanTheRememberedInvalidationsAreDiscarded() {
+        ObjectMetadataCache cache = new ObjectMetadataCache(100, Duration.ofMinutes(1), Duration.ZERO);
+
+        long stamp = cache.stamp();
+        cache.invalidate("key");
+        for (int i = 0; i < ObjectMetadataCache.RECENT_INVALIDATIONS; i++) {
+            cache.invalidate("other-" + i);
+        }
+        cache.put("key", info("key"), stamp);
+        assertNull(cache.get("key"));
+
+        stamp = cache.stamp();
+        cache.invalidate("other");
+        cache.put("key", info("key"), stamp);
+        assertNotNull(cache.get("key"));
+    }
+
+    private static ObjectInfo info(String key) {
+        return new ObjectInfo(key, new Date(), "etag", 10);
+    }
+}
@@ -0,0 +1,57 @@
+package edu.common.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class PartBufferPoolUnitTest {
+
+    /**
+     * Verify that released buffers are reused instead of allocating new ones.
+     */
+    @Test
+    public void reusesReleasedBuffers() throws Exception {
+        PartBufferPool pool = new PartBufferPool(16, 2);
+        byte[] buffer = pool.acquire();
+        assertEquals(16, buffer.length);
+        pool.release(buffer);
+
+        assertSame(buffer, pool.acquire());
+        assertEquals(1, pool.getAllocated());
+        assertEquals(1, pool.getInUse());
+    }
+
+    /**
+     * Verify that acquiring waits once every buffer is in use, until one is released.
+     */
+    @Test
+    public void waitsWhenExhausted() throws Exception {
+        PartBufferPool pool = new PartBufferPool(16, 2);
+        byte[] first = pool.acquire();
+        pool.acquire();
+        CompletableFuture<byte[]> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            waiting.get(50, TimeUnit.MILLISECONDS);
+            fail("expected to wait for a buffer");
+        } catch (TimeoutException expected) {
+            // every buffer is in use
+        }
+
+        pool.release(first);
+
+        assertSame(first, waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(2, pool.getAllocated());
+    }
+}
@@ -0,0 +1,319 @@
+package edu.common.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs {@link S3AsyncClientService} against an {@link EmbeddedS3Server}, covering the single and multipart code
+ * paths, the blocking streams, conditional and ranged gets and the completion executor.
+ */
+public class S3AsyncClientServiceUnitTest {
+
+    private static final String BUCKET = "bucket";
+
+    private EmbeddedS3Server server;
+    private HistogramStorageMetrics metrics;
+    private S3AsyncClientService s3Service;
+    private String key;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new EmbeddedS3Server();
+        metrics = new HistogramStorageMetrics();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setEngine(S3ServiceOptions.Engine.ASYNC_CLIENT);
+        options.setMetrics(metrics);
+        // 1MB parts above 1MB so a few MB exercise multipart uploads
+        s3Service = (S3AsyncClientService) S3ServiceFactory.create(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 4, options);
+        key = RandomStringUtils.randomAlphabetic(10) + "/" + RandomStringUtils.randomAlphabetic(10);
+    }
+
+    @After
+    public void tearDown() {
+        s3Service.shutdown();
+        server.close();
+    }
+
+    /**
+     * Verify that content stored with {@link S3AsyncClientService#put(String, byte[], String)} is read back, in full,
+     * by range and as a stream, and is recorded in the metrics.
+     */
+    @Test
+    public void putAndGet() throws Exception {
+        byte[] content = randomBytes(1000);
+        s3Service.put(key, content, "application/octet-stream");
+
+        assertArrayEquals(content, s3Service.get(key));
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 150), s3Service.get(key, 100, 50));
+        assertEquals(0, s3Service.get(key, 2000, 10).length);
+        try (InputStream in = s3Service.getStream(key)) {
+            assertArrayEquals(content, IOUtils.toByteArray(in));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(content.length, s3Service.get(key, out));
+        assertArrayEquals(content, out.toByteArray());
+        assertEquals(1000, s3Service.getInfo(key).getSize());
+        assertTrue(s3Service.exists(key));
+        assertEquals(1, metrics.getCount(StorageMetrics.Operation.PUT));
+        assertEquals(1000, metrics.getBytes(StorageMetrics.Operation.PUT));
+    }
+
+    /**
+     * Verify that files, buffers and streams above a part are stored through multipart uploads and downloaded.
+     */
+    @Test
+    public void multipartUploadAndDownload() throws Exception {
+        byte[] content = randomBytes(3 * 1024 * 1024 + 123);
+        Path source = Files.createTempFile("embedded-s3", null);
+        Path target = Files.createTempFile("embedded-s3", null);
+        try {
+            Files.write(source, content);
+            s3Service.put(key, source.toFile());
+            s3Service.putStream(key + "-stream", new ByteArrayInputStream(content), "application/octet-stream");
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            buffer.position(100);
+            s3Service.putBuffer(key + "-buffer", buffer, "application/octet-stream");
+
+            s3Service.download(key, target);
+            assertArrayEquals(content, Files.readAllBytes(target));
+            assertArrayEquals(content, s3Service.get(key + "-stream"));
+            assertArrayEquals(Arrays.copyOfRange(content, 100, content.length), s3Service.get(key + "-buffer"));
+            assertEquals(100, buffer.position());
+            assertEquals(0, server.getMultipartUploadCount());
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Verify that a stream longer than a part is sent as a multipart upload of minPartSize parts and a shorter one
+     * with a single put, and that both are read back through a blocking stream.
+     */
+    @Test
+    public void putStreamAndGetStream() throws Exception {
+        byte[] content = randomBytes(3 * 1024 * 1024 + 123);
+        int puts = server.getRequestCount("PUT");
+        int posts = server.getRequestCount("POST");
+
+        s3Service.putStream(key, new ByteArrayInputStream(content), "application/octet-stream");
+        // initiate and complete around four 1MB parts
+        assertEquals(4, server.getRequestCount("PUT") - puts);
+        assertEquals(2, server.getRequestCount("POST") - posts);
+
+        s3Service.putStream(key + "-short", new ByteArrayInputStream(content, 0, 1000), "application/octet-stream");
+        assertEquals(5, server.getRequestCount("PUT") - puts);
+        assertEquals(2, server.getRequestCount("POST") - posts);
+        assertEquals(0, server.getMultipartUploadCount());
+
+        try (InputStream in = s3Service.getStream(key)) {
+            assertArrayEquals(content, IOUtils.toByteArray(in));
+        }
+        try (InputStream in = s3Service.getStream(key + "-short")) {
+            assertArrayEquals(Arrays.copyOf(content, 1000), IOUtils.toByteArray(in));
+        }
+        try {
+            s3Service.getStream(key + "-missing");
+            fail("expected the missing key to be reported");
+        } catch (FileNotFoundException expected) {
+            // the error response is read before the stream is handed out
+        }
+    }
+
+    /**
+     * Verify that a streamed upload stops reading the stream once a part failed, and aborts the upload.
+     */
+    @Test
+    public void putStreamStopsAfterFailedPart() throws Exception {
+        byte[] content = randomBytes(20 * 1024 * 1024);
+        CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(content));
+        server.failNextRequests("PUT", 1, 400, "InvalidArgument");
+
+        try {
+            s3Service.putStream(key, in, "application/octet-stream");
+            fail("expected the failed part to be reported");
+        } catch (S3Exception expected) {
+            assertEquals(400, expected.statusCode());
+        }
+        assertTrue(in.getByteCount() < content.length / 2);
+        // the upload is aborted in the background
+        for (int i = 0; i < 50 && server.getMultipartUploadCount() > 0; i++) {
+            sleep(100);
+        }
+        assertEquals(0, server.getMultipartUploadCount());
+    }
+
+    /**
+     * Verify that ranges starting at or past the end, answered with 416 by S3, return no bytes and ranges running
+     * past the end return the bytes up to it.
+     */
+    @Test
+    public void rangesPastTheEnd() throws Exception {
+        byte[] content = randomBytes(100);
+        s3Service.put(key, content, "application/octet-stream");
+
+        assertArrayEquals(Arrays.copyOfRange(content, 90, 100), s3Service.get(key, 90, 50));
+        assertEquals(0, s3Service.get(key, 100, 10).length);
+        assertEquals(0, s3Service.get(key, 1000, 10).length);
+        assertEquals(0, s3Service.get(key, 0, 0).length);
+    }
+
+    /**
+     * Verify that completions are never lost when the callback pool is full, whatever the rejection policy: they
+     * run on the event loop thread instead.
+     */
+    @Test
+    public void completionsRunByCallerWhenPoolIsFull() throws Exception {
+        HistogramStorageMetrics saturatedMetrics = new HistogramStorageMetrics();
+        S3ServiceOptions options = server.configure(new S3ServiceOptions());
+        options.setEngine(S3ServiceOptions.Engine.ASYNC_CLIENT);
+        options.setMetrics(saturatedMetrics);
+        options.setExecutorQueueCapacity(1);
+        options.setExecutorRejectionPolicy(S3ServiceOptions.RejectionPolicy.FAIL_FAST);
+        S3AsyncClientService saturated = (S3AsyncClientService) S3ServiceFactory.create(BUCKET, "key", "secret", "us-east-1", 1, 1, 5, 100, 1, options);
+        try {
+            byte[] content = randomBytes(10);
+            saturated.put(key, content, "text/plain");
+
+            List<CompletableFuture<byte[]>> gets = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                // keeps the single callback thread busy, so the other completions find the queue full
+                gets.add(saturated.getAsync(key).thenApply(result -> {
+                    sleep(50);
+                    return result;
+                }));
+            }
+            for (CompletableFuture<byte[]> get : gets) {
+                assertArrayEquals(content, get.get(30, TimeUnit.SECONDS));
+            }
+            assertTrue(saturatedMetrics.getGauges().get("executor.caller.runs") > 0);
+        } finally {
+            saturated.shutdown();
+        }
+    }
+
+    /**
+     * Verify that a missing key is reported as {@link FileNotFoundException}, synchronously and asynchronously.
+     */
+    @Test
+    public void getMissing() throws Exception {
+        assertFalse(s3Service.exists(key));
+        try {
+            s3Service.get(key);
+            fail("expected the missing key to be reported");
+        } catch (FileNotFoundException expected) {
+            // reported like S3Service does
+        }
+        assertTrue(s3Service.getAsync(key).handle((content, e) -> e instanceof FileNotFoundException).get());
+    }
+
+    /**
+     * Verify that a conditional get with the current ETag returns not modified, and the content once it changed.
+     */
+    @Test
+    public void getIfModified() throws Exception {
+        s3Service.putAsync(key, randomBytes(100), "text/plain").get();
+        String eTag = s3Service.getInfo(key).getETag();
+        assertFalse(s3Service.getIfModified(key, eTag, null).isModified());
+
+        Date lastModified = s3Service.getInfo(key).getLastModified();
+        assertFalse(s3Service.getIfModified(key, null, lastModified).isModified());
+        assertTrue(s3Service.getIfModified(key, null, new Date(lastModified.getTime() - 2000)).isModified());
+
+        byte[] changed = randomBytes(100);
+        s3Service.put(key, changed, "text/plain");
+        assertArrayEquals(changed, s3Service.getIfModified(key, eTag, null).getContent());
+    }
+
+    /**
+     * Verify that {@link S3AsyncClientService#getAll} and {@link S3AsyncClientService#deleteAll} cover every key.
+     */
+    @Test
+    public void getAllAndDeleteAll() throws Exception {
+        s3Service.put(key + "-1", randomBytes(10), "text/plain");
+        s3Service.put(key + "-2", randomBytes(10), "text/plain");
+
+        BatchResult<byte[]> result = s3Service.getAll(Arrays.asList(key + "-1", key + "-2", key + "-3"));
+        assertEquals(2, result.getResults().size());
+        assertTrue(result.getFailures().get(key + "-3") instanceof FileNotFoundException);
+
+        Map<String, Exception> failures = s3Service.deleteAll(Arrays.asList(key + "-1", key + "-2"));
+        assertTrue(failures.isEmpty());
+        s3Service.deleteAsync(key + "-3").get();
+        assertEquals(0, server.getObjectCount(BUCKET));
+        assertTrue(s3Service.putAll(Collections.emptyMap()).isEmpty());
+    }
+
+    /**
+     * Verify that getAll hands every content to the consumer on the calling thread, never on a callback or event loop
+     * thread, and reports a failing consumer as the failure of its key.
+     */
+    @Test
+    public void getAllConsumesOnCallingThread() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            keys.add(key + "-" + i);
+            s3Service.put(key + "-" + i, randomBytes(10), "text/plain");
+        }
+        Set<Thread> consumers = ConcurrentHashMap.newKeySet();
+        List<String> consumed = new ArrayList<>();
+
+        Map<String, Exception> failures = s3Service.getAll(keys, (consumedKey, content) -> {
+            consumers.add(Thread.currentThread());
+            if (consumedKey.equals(key + "-0")) {
+                throw new IllegalStateException("consumer failed");
+            }
+            consumed.add(consumedKey);
+        });
+
+        assertEquals(Collections.singleton(Thread.currentThread()), consumers);
+        assertEquals(19, consumed.size());
+        assertEquals(Collections.singleton(key + "-0"), failures.keySet());
+        assertTrue(failures.get(key + "-0") instanceof IllegalStateException);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] content = new byte[length];
+        new Random().nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,140 @@
+package edu.common.service;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class S3ResilienceHandlerUnitTest {
+
+    /**
+     * Verify that throttling is told apart from server, network, client and local errors.
+     */
+    @Test
+    public void classify() {
+        assertEquals(S3ResilienceHandler.Failure.THROTTLED, S3ResilienceHandler.classify(serviceException(503, "SlowDown")));
+        assertEquals(S3ResilienceHandler.Failure.THROTTLED, S3ResilienceHandler.classify(serviceException(429, "TooManyRequests")));
+        assertEquals(S3ResilienceHandler.Failure.SERVER_ERROR, S3ResilienceHandler.classify(serviceException(503, "ServiceUnavailable")));
+        assertEquals(S3ResilienceHandler.Failure.SERVER_ERROR, S3ResilienceHandler.classify(serviceException(500, "InternalError")));
+        assertEquals(S3ResilienceHandler.Failure.SERVER_ERROR, S3ResilienceHandler.classify(serviceException(400, "RequestTimeout")));
+        assertEquals(S3ResilienceHandler.Failure.NETWORK, S3ResilienceHandler.classify(new SdkClientException("reset", new IOException("reset"))));
+        assertEquals(S3ResilienceHandler.Failure.CLIENT_ERROR, S3ResilienceHandler.classify(serviceException(404, "NoSuchKey")));
+        assertEquals(S3ResilienceHandler.Failure.CLIENT_ERROR, S3ResilienceHandler.classify(serviceException(403, "AccessDenied")));
+        assertEquals(S3ResilienceHandler.Failure.LOCAL_ERROR, S3ResilienceHandler.classify(new SdkClientException("checksum")));
+    }
+
+    /**
+     * Verify that backoffs are random up to a ceiling doubling per retry, from the longer base after throttling, and
+     * never above the maximum delay.
+     */
+    @Test
+    public void backoff() {
+        S3ServiceOptions options = new S3ServiceOptions();
+        options.setRetryBaseDelay(Duration.ofMillis(10));
+        options.setRetryThrottledBaseDelay(Duration.ofMillis(100));
+        options.setRetryMaxDelay(Duration.ofMillis(300));
+        S3ResilienceHandler handler = new S3ResilienceHandler("bucket", options);
+
+        boolean varies = false;
+        long first = handler.delayBeforeNextRetry(null, serviceException(500, "InternalError"), 2);
+        for (int i = 0; i < 100; i++) {
+            long server = handler.delayBeforeNextRetry(null, serviceException(500, "InternalError"), 2);
+            assertTrue(server >= 0 && server <= 40);
+            long throttled = handler.delayBeforeNextRetry(null, serviceException(503, "SlowDown"), 2);
+            assertTrue(throttled >= 0 && throttled <= 300);
+            varies |= server != first;
+        }
+        assertTrue(varies);
+    }
+
+    /**
+     * Verify that client errors are never retried and that retries stop once the budget is spent.
+     */
+    @Test
+    public void retryBudget() {
+        S3ServiceOptions options = new S3ServiceOptions();
+        options.setRetryBudgetCapacity(2 * RetryBudget.RETRY_COST);
+        S3ResilienceHandler handler = new S3ResilienceHandler("bucket", options);
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        handler.registerGauges(metrics);
+
+        assertFalse(handler.shouldRetry(null, serviceException(404, "NoSuchKey"), 0));
+        assertFalse(handler.shouldRetry(null, new SdkClientException("checksum"), 0));
+        assertTrue(handler.shouldRetry(null, serviceException(503, "SlowDown"), 0));
+        assertTrue(handler.shouldRetry(null, serviceException(500, "InternalError"), 0));
+        assertFalse(handler.shouldRetry(null, serviceException(500, "InternalError"), 0));
+
+        assertEquals(2L, (long) metrics.getGauges().get("retry.attempts"));
+        assertEquals(1L, (long) metrics.getGauges().get("retry.throttled"));
+        assertEquals(1L, (long) metrics.getGauges().get("retry.budget.exhausted"));
+        assertEquals(0L, (long) metrics.getGauges().get("retry.budget.tokens"));
+
+        for (int i = 0; i < RetryBudget.RETRY_COST; i++) {
+            handler.afterResponse(null, null);
+        }
+        assertTrue(handler.shouldRetry(null, serviceException(500, "InternalError"), 0));
+    }
+
+    /**
+     * Verify that requests are refused and failures not retried while the circuit is open.
+     */
+    @Test
+    public void circuitBreaker() {
+        S3ServiceOptions options = new S3ServiceOptions();
+        options.setCircuitBreakerEnabled(true);
+        options.setCircuitBreakerFailureThreshold(2);
+        options.setCircuitBreakerOpenDuration(Duration.ofMinutes(1));
+        S3ResilienceHandler handler = new S3ResilienceHandler("bucket", options);
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        handler.registerGauges(metrics);
+
+        handler.afterError(null, null, serviceException(404, "NoSuchKey"));
+        handler.afterError(null, null, serviceException(503, "SlowDown"));
+        handler.afterError(null, null, serviceException(500, "InternalError"));
+
+        assertEquals(1L, (long) metrics.getGauges().get("circuit.state"));
+        assertFalse(handler.shouldRetry(null, serviceException(500, "InternalError"), 0));
+        assertEquals(1L, (long) metrics.getGauges().get("retry.circuit.denied"));
+        try {
+            handler.beforeExecution(null);
+            throw new AssertionError("request was not refused");
+        } catch (CircuitBreakerOpenException e) {
+            assertEquals(1L, (long) metrics.getGauges().get("circuit.rejected"));
+        }
+    }
+
+    /**
+     * Verify that failures of the client itself neither open nor close the circuit.
+     */
+    @Test
+    public void localErrorsDoNotCount() {
+        S3ServiceOptions options = new S3ServiceOptions();
+        options.setCircuitBreakerEnabled(true);
+        options.setCircuitBreakerFailureThreshold(1);
+        options.setCircuitBreakerOpenDuration(Duration.ofMinutes(1));
+        S3ResilienceHandler handler = new S3ResilienceHandler("bucket", options);
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        handler.registerGauges(metrics);
+
+        handler.afterError(null, null, new SdkClientException("checksum"));
+        assertEquals(0L, (long) metrics.getGauges().get("circuit.state"));
+        handler.afterError(null, null, serviceException(500, "InternalError"));
+        assertEquals(1L, (long) metrics.getGauges().get("circuit.state"));
+        handler.afterError(null, null, new SdkClientException("checksum"));
+        assertEquals(1L, (long) metrics.getGauges().get("circuit.state"));
+    }
+
+    private static AmazonServiceException serviceException(int status, String code) {
+        AmazonServiceException e = new AmazonServiceException(code);
+        e.setStatusCode(status);
+        e.setErrorCode(code);
+        return e;
+    }
+}
@@ -2,6 +2,14 @@ package edu.common.service;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Before;
@@ -238,6 +246,66 @@ public class S3ServiceUnitTest {
         s3Service.getDate(null);
     }
 
+    /**
+     * Verify that {@link S3Service#get(String, long, int)} correctly fails when a negative offset is provided.
+     * @throws IOException when a file matching the provided key is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getRangeNegativeOffset() throws IOException {
+        s3Service.get(RandomStringUtils.randomAlphabetic(10), -1, 10);
+    }
+
+    /**
+     * Verify that {@link S3Service#getStream(String)} correctly fails when key is not provided.
+     * @throws IOException when a file matching the provided key is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getStream() throws IOException {
+        s3Service.getStream(null);
+    }
+
+    /**
+     * Verify that {@link S3Service#get(String, OutputStream)} correctly fails when an {@link OutputStream} is not provided.
+     * @throws IOException when a file matching the provided key is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getToNullOutputStream() throws IOException {
+        s3Service.get(RandomStringUtils.randomAlphabetic(10), (OutputStream) null);
+    }
+
+    /**
+     * Verify that {@link S3Service#download(String, Path)} correctly fails when a target {@link Path} is not provided.
+     * @throws IOException when a file matching the provided key is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void downloadNullTarget() throws IOException {
+        s3Service.download(RandomStringUtils.randomAlphabetic(10), null);
+    }
+
+    /**
+     * Verify that {@link S3Service#putAsync(String, File)} correctly fails when a key is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void putAsyncNullKey() {
+        s3Service.putAsync(null, new File(""));
+    }
+
+    /**
+     * Verify that {@link S3Service#getAsync(String)} correctly fails when key is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getAsync() {
+        s3Service.getAsync(null);
+    }
+
+    /**
+     * Verify that {@link S3Service#deleteAsync(String)} correctly fails when key is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void deleteAsync() {
+        s3Service.deleteAsync(null);
+    }
+
     /**
      * Verify that {@link S3Service#delete(String)} correctly fails when key is not provided.
      */
@@ -246,6 +314,45 @@ public class S3ServiceUnitTest {
         s3Service.delete(null);
     }
 
+    /**
+     * Verify that {@link S3Service#deleteAll(Collection)} correctly fails when keys are not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void deleteAllNullKeys() {
+        s3Service.deleteAll(null);
+    }
+
+    /**
+     * Verify that {@link S3Service#deleteAll(Collection)} correctly fails when one of the keys is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void deleteAllNullKey() {
+        s3Service.deleteAll(Arrays.asList(RandomStringUtils.randomAlphabetic(10), null));
+    }
 
+    /**
+     * Verify that {@link S3Service#getAll(Collection, BiConsumer)} correctly fails when a consumer is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getAllNullConsumer() {
+        s3Service.getAll(Arrays.asList(RandomStringUtils.randomAlphabetic(10)), null);
+    }
+
+    /**
+     * Verify that {@link S3Service#putAll(Map)} correctly fails when one of the files is not provided.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void putAllNullFile() {
+        s3Service.putAll(Collections.singletonMap(RandomStringUtils.randomAlphabetic(10), null));
+    }
+
+    /**
+     * Verify that {@link S3Service#putDirectory(Path, String)} correctly fails when a directory is not provided.
+     * @throws IOException when the directory cannot be read
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void putDirectoryNullDirectory() throws IOException {
+        s3Service.putDirectory(null, RandomStringUtils.randomAlphabetic(10));
+    }
 
 }
@@ -0,0 +1,133 @@
+package edu.common.service;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightUnitTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verify that concurrent callers share one call and each gets its own copy of the result.
+     */
+    @Test
+    public void concurrentCallsShareOneCall() throws Exception {
+        SingleFlight<byte[]> flights = new SingleFlight<>(byte[]::clone);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<byte[]>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flights.execute("key", () -> {
+                calls.incrementAndGet();
+                release.await();
+                return "content".getBytes();
+            })));
+        }
+        while (flights.getCoalescedCount() < CALLERS - 1) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        List<byte[]> contents = new ArrayList<>();
+        for (Future<byte[]> result : results) {
+            contents.add(result.get());
+        }
+        assertEquals(1, calls.get());
+        for (byte[] content : contents) {
+            assertArrayEquals("content".getBytes(), content);
+        }
+        for (int i = 1; i < contents.size(); i++) {
+            assertNotSame(contents.get(0), contents.get(i));
+        }
+    }
+
+    /**
+     * Verify that a lone caller gets the result itself and that the next caller runs a new call.
+     */
+    @Test
+    public void sequentialCallsAreNotShared() throws Exception {
+        SingleFlight<byte[]> flights = new SingleFlight<>(byte[]::clone);
+        byte[] first = new byte[1];
+        byte[] second = new byte[1];
+
+        assertSame(first, flights.execute("key", () -> first));
+        assertSame(second, flights.execute("key", () -> second));
+        assertEquals(0, flights.getCoalescedCount());
+    }
+
+    /**
+     * Verify that the failure of the call is thrown to every waiting caller.
+     */
+    @Test
+    public void failureIsSharedWithWaiters() throws Exception {
+        SingleFlight<byte[]> flights = new SingleFlight<>(byte[]::clone);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<byte[]>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flights.execute("key", () -> {
+                release.await();
+                throw new FileNotFoundException("key");
+            })));
+        }
+        while (flights.getCoalescedCount() < CALLERS - 1) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        for (Future<byte[]> result : results) {
+            try {
+                result.get();
+                fail("expected the call to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof FileNotFoundException);
+            }
+        }
+    }
+
+    /**
+     * Verify that a caller arriving after {@link SingleFlight#forget(String)} does not wait for the running call.
+     */
+    @Test
+    public void forgetStartsNewCall() throws Exception {
+        SingleFlight<byte[]> flights = new SingleFlight<>(byte[]::clone);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<byte[]> running = executor.submit(() -> flights.execute("key", () -> {
+            started.countDown();
+            release.await();
+            return "old".getBytes();
+        }));
+        started.await();
+
+        flights.forget("key");
+
+        assertArrayEquals("new".getBytes(), flights.execute("key", () -> "new".getBytes()));
+        release.countDown();
+        assertArrayEquals("old".getBytes(), running.get());
+        assertEquals(0, flights.getCoalescedCount());
+    }
+}
@@ -0,0 +1,97 @@
+package edu.common.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TransferProgressUnitTest {
+
+    /**
+     * Verify that request byte events are summed and the bytes of a reset request are taken back.
+     */
+    @Test
+    public void progressAggregatesByteEvents() {
+        TransferProgress progress = new TransferProgressTracker(Duration.ofHours(1), null).start("key", 100);
+
+        progress.progressChanged(new ProgressEvent(ProgressEventType.REQUEST_BYTE_TRANSFER_EVENT, 40));
+        progress.progressChanged(new ProgressEvent(ProgressEventType.RESPONSE_BYTE_TRANSFER_EVENT, 1000));
+        progress.progressChanged(new ProgressEvent(ProgressEventType.HTTP_REQUEST_CONTENT_RESET_EVENT, 10));
+        progress.progressChanged(new ProgressEvent(ProgressEventType.REQUEST_BYTE_TRANSFER_EVENT, 20));
+
+        assertEquals(50, progress.getBytesTransferred());
+        assertEquals(TransferProgress.State.IN_PROGRESS, progress.getState());
+    }
+
+    /**
+     * Verify that the estimated time remaining is only known once bytes were transferred and is zero once finished.
+     */
+    @Test
+    public void estimatedTimeRemaining() {
+        TransferProgress progress = new TransferProgressTracker(Duration.ofHours(1), null).start("key", 100);
+        assertNull(progress.getEstimatedTimeRemaining());
+
+        progress.transferred(50);
+        assertTrue(progress.getEstimatedTimeRemaining() != null);
+
+        progress.finish(true);
+        assertEquals(Duration.ZERO, progress.getEstimatedTimeRemaining());
+    }
+
+    /**
+     * Verify that a finished transfer leaves the active transfers and is reported once, with its first outcome.
+     */
+    @Test
+    public void finishReportsOnce() {
+        List<TransferProgress> reported = new ArrayList<>();
+        TransferProgressTracker tracker = new TransferProgressTracker(Duration.ofHours(1), reported::add);
+        TransferProgress progress = tracker.start("key", 10);
+        assertEquals(1, tracker.getActiveTransfers().size());
+
+        progress.finish(true);
+        progress.finish(false);
+
+        assertTrue(tracker.getActiveTransfers().isEmpty());
+        assertEquals(1, reported.size());
+        assertSame(progress, reported.get(0));
+        assertEquals(TransferProgress.State.COMPLETED, progress.getState());
+    }
+
+    /**
+     * Verify that running transfers are reported to the callback once the sample interval elapsed.
+     */
+    @Test
+    public void sampleReportsToCallback() {
+        List<TransferProgress> reported = new ArrayList<>();
+        TransferProgress progress = new TransferProgressTracker(Duration.ZERO, reported::add).start("key", 10);
+
+        progress.transferred(5);
+
+        assertEquals(1, reported.size());
+        assertEquals(5, reported.get(0).getBytesTransferred());
+    }
+
+    /**
+     * Verify that a failing callback does not fail the transfer.
+     */
+    @Test
+    public void callbackFailureIsIgnored() {
+        TransferProgress progress = new TransferProgressTracker(Duration.ZERO, p -> {
+            throw new IllegalStateException("callback");
+        }).start("key", 10);
+
+        progress.transferred(5);
+        progress.finish(false);
+
+        assertEquals(TransferProgress.State.FAILED, progress.getState());
+    }
+}
@@ -0,0 +1,68 @@
+package edu.common.service;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+import static com.amazonaws.services.s3.internal.Constants.MB;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TransferTunerUnitTest {
+
+    private static final long GB = 1024L * MB;
+
+    /**
+     * Verify that without observed throughput medium objects are split so every connection gets a part, and small
+     * ones use the minimum part size.
+     */
+    @Test
+    public void splitsAcrossConnections() {
+        TransferTuner tuner = new TransferTuner(5 * MB, 8, Duration.ofSeconds(2));
+
+        TransferTuner.Plan small = tuner.plan(12 * MB);
+        assertEquals(5 * MB, small.getPartSize());
+        assertEquals(3, small.getPartCount());
+        assertEquals(3, small.getConcurrency());
+
+        tuner.record(100 * MB, 1_000_000_000L);
+        TransferTuner.Plan medium = tuner.plan(100 * MB);
+        assertEquals(13 * MB, medium.getPartSize());
+        assertEquals(8, medium.getPartCount());
+        assertEquals(8, medium.getConcurrency());
+        assertEquals(13 * MB, tuner.getLastPartSize());
+        assertEquals(8, tuner.getLastConcurrency());
+    }
+
+    /**
+     * Verify that large objects get parts taking about the target duration at the observed throughput.
+     */
+    @Test
+    public void sizesPartsFromThroughput() {
+        TransferTuner tuner = new TransferTuner(5 * MB, 8, Duration.ofSeconds(2));
+        tuner.record(50 * MB, 1_000_000_000L);
+        tuner.record(50 * MB, 1_000_000_000L);
+
+        TransferTuner.Plan plan = tuner.plan(10 * GB);
+        assertEquals(100 * MB, plan.getPartSize());
+        assertEquals(103, plan.getPartCount());
+        assertEquals(8, plan.getConcurrency());
+
+        // a slower part pulls the smoothed throughput down
+        tuner.record(10 * MB, 1_000_000_000L);
+        assertEquals(42 * MB, tuner.getThroughput(), 1);
+    }
+
+    /**
+     * Verify that no object needs more than the 10,000 parts S3 accepts.
+     */
+    @Test
+    public void respectsPartLimit() {
+        TransferTuner tuner = new TransferTuner(5 * MB, 8, Duration.ofSeconds(2));
+
+        TransferTuner.Plan plan = tuner.plan(5 * 1024 * GB);
+        assertTrue(plan.getPartCount() <= TransferTuner.MAX_PARTS);
+        assertTrue(plan.getPartSize() * plan.getPartCount() >= 5 * 1024 * GB);
+        assertEquals(0, plan.getPartSize() % MB);
+    }
+}
@@ -0,0 +1,69 @@
+package edu.common.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VirtualThreadExecutorUnitTest {
+
+    /**
+     * Verify that virtual threads are reported as supported exactly from Java 21 on.
+     */
+    @Test
+    public void supportedFromJava21() {
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreadExecutor.isSupported());
+    }
+
+    /**
+     * Verify that an executor cannot be created on a JVM without virtual threads.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void unsupported() {
+        Assume.assumeFalse(VirtualThreadExecutor.isSupported());
+        new VirtualThreadExecutor(4, "test-virtual-");
+    }
+
+    /**
+     * Verify that tasks run on virtual threads, never more than the concurrency limit at once.
+     */
+    @Test
+    public void boundsConcurrency() throws Exception {
+        Assume.assumeTrue(VirtualThreadExecutor.isSupported());
+        VirtualThreadExecutor executor = new VirtualThreadExecutor(4, "test-virtual-");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> tasks = new ArrayList<>();
+        try {
+            for (int i = 0; i < 100; i++) {
+                tasks.add(executor.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    release.await();
+                    running.decrementAndGet();
+                    return Thread.currentThread().getName();
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (executor.getActiveCount() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(4, executor.getActiveCount());
+            release.countDown();
+            for (Future<String> task : tasks) {
+                assertTrue(task.get(5, TimeUnit.SECONDS).startsWith("test-virtual-"));
+            }
+            assertEquals(4, maxRunning.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}